@@ -1,5 +1,10 @@
 package myapp.config;
 
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
 /**
@@ -13,12 +18,66 @@ public class ApplicationProperties {
 
     private final Liquibase liquibase = new Liquibase();
 
+    private final Search search = new Search();
+
+    private final Cache cache = new Cache();
+
+    private final Security security = new Security();
+
+    private final ProductImport productImport = new ProductImport();
+
+    private final Stock stock = new Stock();
+
+    private final Checkout checkout = new Checkout();
+
+    private final Idempotency idempotency = new Idempotency();
+
+    private final OrderStats orderStats = new OrderStats();
+
+    private final CategoryCounts categoryCounts = new CategoryCounts();
+
     // jhipster-needle-application-properties-property
 
     public Liquibase getLiquibase() {
         return liquibase;
     }
 
+    public Search getSearch() {
+        return search;
+    }
+
+    public Cache getCache() {
+        return cache;
+    }
+
+    public Security getSecurity() {
+        return security;
+    }
+
+    public ProductImport getProductImport() {
+        return productImport;
+    }
+
+    public Stock getStock() {
+        return stock;
+    }
+
+    public Checkout getCheckout() {
+        return checkout;
+    }
+
+    public Idempotency getIdempotency() {
+        return idempotency;
+    }
+
+    public OrderStats getOrderStats() {
+        return orderStats;
+    }
+
+    public CategoryCounts getCategoryCounts() {
+        return categoryCounts;
+    }
+
     // jhipster-needle-application-properties-property-getter
 
     public static class Liquibase {
@@ -33,5 +92,574 @@ public class ApplicationProperties {
             this.asyncStart = asyncStart;
         }
     }
+
+    public static class Search {
+
+        private boolean rebuildOnStartup = true;
+
+        private int batchSize = 1000;
+
+        private String rebuildCron = "0 30 3 * * ?";
+
+        private final Suggest suggest = new Suggest();
+
+        private final Facets facets = new Facets();
+
+        public boolean isRebuildOnStartup() {
+            return rebuildOnStartup;
+        }
+
+        public void setRebuildOnStartup(boolean rebuildOnStartup) {
+            this.rebuildOnStartup = rebuildOnStartup;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public String getRebuildCron() {
+            return rebuildCron;
+        }
+
+        public void setRebuildCron(String rebuildCron) {
+            this.rebuildCron = rebuildCron;
+        }
+
+        public Suggest getSuggest() {
+            return suggest;
+        }
+
+        public Facets getFacets() {
+            return facets;
+        }
+
+        public static class Suggest {
+
+            private int maxEntries = 500_000;
+
+            private int maxSize = 20;
+
+            private double titleBoost = 1.0;
+
+            private double keywordBoost = 1.0;
+
+            private double ratingWeight = 0.5;
+
+            public int getMaxEntries() {
+                return maxEntries;
+            }
+
+            public void setMaxEntries(int maxEntries) {
+                this.maxEntries = maxEntries;
+            }
+
+            public int getMaxSize() {
+                return maxSize;
+            }
+
+            public void setMaxSize(int maxSize) {
+                this.maxSize = maxSize;
+            }
+
+            public double getTitleBoost() {
+                return titleBoost;
+            }
+
+            public void setTitleBoost(double titleBoost) {
+                this.titleBoost = titleBoost;
+            }
+
+            public double getKeywordBoost() {
+                return keywordBoost;
+            }
+
+            public void setKeywordBoost(double keywordBoost) {
+                this.keywordBoost = keywordBoost;
+            }
+
+            public double getRatingWeight() {
+                return ratingWeight;
+            }
+
+            public void setRatingWeight(double ratingWeight) {
+                this.ratingWeight = ratingWeight;
+            }
+        }
+
+        public static class Facets {
+
+            private List<BigDecimal> priceBands = Stream.of(10, 25, 50, 100, 250, 500, 1000).map(BigDecimal::valueOf).toList();
+
+            private int ratingBucketSize = 2;
+
+            public List<BigDecimal> getPriceBands() {
+                return priceBands;
+            }
+
+            public void setPriceBands(List<BigDecimal> priceBands) {
+                this.priceBands = priceBands;
+            }
+
+            public int getRatingBucketSize() {
+                return ratingBucketSize;
+            }
+
+            public void setRatingBucketSize(int ratingBucketSize) {
+                this.ratingBucketSize = ratingBucketSize;
+            }
+        }
+    }
+
+    public static class Cache {
+
+        /**
+         * Per-region overrides of {@code jhipster.cache.caffeine}, keyed by region alias (e.g. {@code product}).
+         */
+        private final Map<String, Region> regions = new LinkedHashMap<>();
+
+        public Map<String, Region> getRegions() {
+            return regions;
+        }
+
+        public static class Region {
+
+            private Long maxEntries;
+
+            private Integer timeToLiveSeconds;
+
+            public Long getMaxEntries() {
+                return maxEntries;
+            }
+
+            public void setMaxEntries(Long maxEntries) {
+                this.maxEntries = maxEntries;
+            }
+
+            public Integer getTimeToLiveSeconds() {
+                return timeToLiveSeconds;
+            }
+
+            public void setTimeToLiveSeconds(Integer timeToLiveSeconds) {
+                this.timeToLiveSeconds = timeToLiveSeconds;
+            }
+        }
+    }
+
+    public static class Security {
+
+        private final TokenCache tokenCache = new TokenCache();
+
+        private final InvalidTokens invalidTokens = new InvalidTokens();
+
+        private final LoginLimiter loginLimiter = new LoginLimiter();
+
+        private final Password password = new Password();
+
+        public TokenCache getTokenCache() {
+            return tokenCache;
+        }
+
+        public InvalidTokens getInvalidTokens() {
+            return invalidTokens;
+        }
+
+        public LoginLimiter getLoginLimiter() {
+            return loginLimiter;
+        }
+
+        public Password getPassword() {
+            return password;
+        }
+
+        public static class TokenCache {
+
+            private long maxEntries = 10_000;
+
+            public long getMaxEntries() {
+                return maxEntries;
+            }
+
+            public void setMaxEntries(long maxEntries) {
+                this.maxEntries = maxEntries;
+            }
+        }
+
+        public static class InvalidTokens {
+
+            private int maxFailures = 20;
+
+            private long windowSeconds = 60;
+
+            private long maxClients = 100_000;
+
+            public int getMaxFailures() {
+                return maxFailures;
+            }
+
+            public void setMaxFailures(int maxFailures) {
+                this.maxFailures = maxFailures;
+            }
+
+            public long getWindowSeconds() {
+                return windowSeconds;
+            }
+
+            public void setWindowSeconds(long windowSeconds) {
+                this.windowSeconds = windowSeconds;
+            }
+
+            public long getMaxClients() {
+                return maxClients;
+            }
+
+            public void setMaxClients(long maxClients) {
+                this.maxClients = maxClients;
+            }
+        }
+
+        public static class LoginLimiter {
+
+            private final Bucket login = bucket(5, 5);
+
+            private final Bucket address = bucket(30, 30);
+
+            private int maxConsecutiveFailures = 5;
+
+            private long lockoutSeconds = 60;
+
+            private long maxKeys = 100_000;
+
+            public Bucket getLogin() {
+                return login;
+            }
+
+            public Bucket getAddress() {
+                return address;
+            }
+
+            public int getMaxConsecutiveFailures() {
+                return maxConsecutiveFailures;
+            }
+
+            public void setMaxConsecutiveFailures(int maxConsecutiveFailures) {
+                this.maxConsecutiveFailures = maxConsecutiveFailures;
+            }
+
+            public long getLockoutSeconds() {
+                return lockoutSeconds;
+            }
+
+            public void setLockoutSeconds(long lockoutSeconds) {
+                this.lockoutSeconds = lockoutSeconds;
+            }
+
+            public long getMaxKeys() {
+                return maxKeys;
+            }
+
+            public void setMaxKeys(long maxKeys) {
+                this.maxKeys = maxKeys;
+            }
+
+            private static Bucket bucket(int capacity, int refillPerMinute) {
+                Bucket bucket = new Bucket();
+                bucket.setCapacity(capacity);
+                bucket.setRefillPerMinute(refillPerMinute);
+                return bucket;
+            }
+
+            public static class Bucket {
+
+                private int capacity;
+
+                private int refillPerMinute;
+
+                public int getCapacity() {
+                    return capacity;
+                }
+
+                public void setCapacity(int capacity) {
+                    this.capacity = capacity;
+                }
+
+                public int getRefillPerMinute() {
+                    return refillPerMinute;
+                }
+
+                public void setRefillPerMinute(int refillPerMinute) {
+                    this.refillPerMinute = refillPerMinute;
+                }
+            }
+        }
+
+        public static class Password {
+
+            /**
+             * Algorithm of the new password hashes, {@code bcrypt} or {@code argon2}.
+             */
+            private String algorithm = "bcrypt";
+
+            private int bcryptStrength = 10;
+
+            /**
+             * Memory used by Argon2, in KiB.
+             */
+            private int argon2Memory = 19_456;
+
+            private int argon2Iterations = 2;
+
+            private int argon2Parallelism = 1;
+
+            public String getAlgorithm() {
+                return algorithm;
+            }
+
+            public void setAlgorithm(String algorithm) {
+                this.algorithm = algorithm;
+            }
+
+            public int getBcryptStrength() {
+                return bcryptStrength;
+            }
+
+            public void setBcryptStrength(int bcryptStrength) {
+                this.bcryptStrength = bcryptStrength;
+            }
+
+            public int getArgon2Memory() {
+                return argon2Memory;
+            }
+
+            public void setArgon2Memory(int argon2Memory) {
+                this.argon2Memory = argon2Memory;
+            }
+
+            public int getArgon2Iterations() {
+                return argon2Iterations;
+            }
+
+            public void setArgon2Iterations(int argon2Iterations) {
+                this.argon2Iterations = argon2Iterations;
+            }
+
+            public int getArgon2Parallelism() {
+                return argon2Parallelism;
+            }
+
+            public void setArgon2Parallelism(int argon2Parallelism) {
+                this.argon2Parallelism = argon2Parallelism;
+            }
+        }
+    }
+
+    public static class ProductImport {
+
+        private int batchSize = 1000;
+
+        private int maxReportedErrors = 1000;
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public int getMaxReportedErrors() {
+            return maxReportedErrors;
+        }
+
+        public void setMaxReportedErrors(int maxReportedErrors) {
+            this.maxReportedErrors = maxReportedErrors;
+        }
+    }
+
+    public static class Stock {
+
+        private int reservationTtlSeconds = 900;
+
+        private int lockStripes = 256;
+
+        private int soldOutSeconds = 5;
+
+        private int expiryIntervalSeconds = 60;
+
+        private int expiryBatchSize = 500;
+
+        public int getReservationTtlSeconds() {
+            return reservationTtlSeconds;
+        }
+
+        public void setReservationTtlSeconds(int reservationTtlSeconds) {
+            this.reservationTtlSeconds = reservationTtlSeconds;
+        }
+
+        public int getLockStripes() {
+            return lockStripes;
+        }
+
+        public void setLockStripes(int lockStripes) {
+            this.lockStripes = lockStripes;
+        }
+
+        public int getSoldOutSeconds() {
+            return soldOutSeconds;
+        }
+
+        public void setSoldOutSeconds(int soldOutSeconds) {
+            this.soldOutSeconds = soldOutSeconds;
+        }
+
+        public int getExpiryIntervalSeconds() {
+            return expiryIntervalSeconds;
+        }
+
+        public void setExpiryIntervalSeconds(int expiryIntervalSeconds) {
+            this.expiryIntervalSeconds = expiryIntervalSeconds;
+        }
+
+        public int getExpiryBatchSize() {
+            return expiryBatchSize;
+        }
+
+        public void setExpiryBatchSize(int expiryBatchSize) {
+            this.expiryBatchSize = expiryBatchSize;
+        }
+    }
+
+    public static class Checkout {
+
+        private int maxItems = 100;
+
+        private BigDecimal shippingCost = BigDecimal.ZERO;
+
+        private BigDecimal freeShippingThreshold;
+
+        public int getMaxItems() {
+            return maxItems;
+        }
+
+        public void setMaxItems(int maxItems) {
+            this.maxItems = maxItems;
+        }
+
+        public BigDecimal getShippingCost() {
+            return shippingCost;
+        }
+
+        public void setShippingCost(BigDecimal shippingCost) {
+            this.shippingCost = shippingCost;
+        }
+
+        public BigDecimal getFreeShippingThreshold() {
+            return freeShippingThreshold;
+        }
+
+        public void setFreeShippingThreshold(BigDecimal freeShippingThreshold) {
+            this.freeShippingThreshold = freeShippingThreshold;
+        }
+    }
+
+    public static class Idempotency {
+
+        private int ttlSeconds = 86400;
+
+        private int maxEntries = 10000;
+
+        private int inFlightWaitSeconds = 10;
+
+        private int claimTimeoutSeconds = 60;
+
+        private String purgeCron = "0 0 * * * ?";
+
+        public int getTtlSeconds() {
+            return ttlSeconds;
+        }
+
+        public void setTtlSeconds(int ttlSeconds) {
+            this.ttlSeconds = ttlSeconds;
+        }
+
+        public int getMaxEntries() {
+            return maxEntries;
+        }
+
+        public void setMaxEntries(int maxEntries) {
+            this.maxEntries = maxEntries;
+        }
+
+        public int getInFlightWaitSeconds() {
+            return inFlightWaitSeconds;
+        }
+
+        public void setInFlightWaitSeconds(int inFlightWaitSeconds) {
+            this.inFlightWaitSeconds = inFlightWaitSeconds;
+        }
+
+        public int getClaimTimeoutSeconds() {
+            return claimTimeoutSeconds;
+        }
+
+        public void setClaimTimeoutSeconds(int claimTimeoutSeconds) {
+            this.claimTimeoutSeconds = claimTimeoutSeconds;
+        }
+
+        public String getPurgeCron() {
+            return purgeCron;
+        }
+
+        public void setPurgeCron(String purgeCron) {
+            this.purgeCron = purgeCron;
+        }
+    }
+    public static class OrderStats {
+
+        private int flushIntervalSeconds = 10;
+
+        private String rebuildCron = "0 15 3 * * ?";
+
+        private int rebuildDays = 2;
+
+        public int getFlushIntervalSeconds() {
+            return flushIntervalSeconds;
+        }
+
+        public void setFlushIntervalSeconds(int flushIntervalSeconds) {
+            this.flushIntervalSeconds = flushIntervalSeconds;
+        }
+
+        public String getRebuildCron() {
+            return rebuildCron;
+        }
+
+        public void setRebuildCron(String rebuildCron) {
+            this.rebuildCron = rebuildCron;
+        }
+
+        public int getRebuildDays() {
+            return rebuildDays;
+        }
+
+        public void setRebuildDays(int rebuildDays) {
+            this.rebuildDays = rebuildDays;
+        }
+    }
+    public static class CategoryCounts {
+
+        private String reconcileCron = "0 45 3 * * ?";
+
+        public String getReconcileCron() {
+            return reconcileCron;
+        }
+
+        public void setReconcileCron(String reconcileCron) {
+            this.reconcileCron = reconcileCron;
+        }
+    }
     // jhipster-needle-application-properties-property-class
 }
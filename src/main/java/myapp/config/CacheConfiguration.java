@@ -0,0 +1,101 @@
+package myapp.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.cache.JCacheManagerCustomizer;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.info.BuildProperties;
+import org.springframework.boot.info.GitProperties;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.interceptor.KeyGenerator;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import tech.jhipster.config.JHipsterProperties;
+import tech.jhipster.config.cache.PrefixedKeyGenerator;
+
+/**
+ * Caffeine (JCache) caches, used as Hibernate second-level cache regions and by the application itself.
+ * <p>
+ * Every region is sized by {@code jhipster.cache.caffeine}, unless overridden under {@code application.cache.regions}.
+ * Statistics are enabled so that Spring Boot publishes the {@code cache.gets} hit/miss meters of each region.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfiguration {
+
+    private GitProperties gitProperties;
+    private BuildProperties buildProperties;
+
+    private final JHipsterProperties.Cache.Caffeine defaults;
+
+    private final ApplicationProperties.Cache cacheProperties;
+
+    public CacheConfiguration(JHipsterProperties jHipsterProperties, ApplicationProperties applicationProperties) {
+        this.defaults = jHipsterProperties.getCache().getCaffeine();
+        this.cacheProperties = applicationProperties.getCache();
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernatePropertiesCustomizer(javax.cache.CacheManager cacheManager) {
+        return hibernateProperties -> hibernateProperties.put(ConfigSettings.CACHE_MANAGER, cacheManager);
+    }
+
+    @Bean
+    public JCacheManagerCustomizer cacheManagerCustomizer() {
+        return cm -> {
+            createCache(cm, myapp.domain.Authority.class.getName(), "authority");
+            createCache(cm, myapp.domain.User.class.getName() + ".authorities", "user-authorities");
+            createCache(cm, myapp.domain.Category.class.getName(), "category");
+            createCache(cm, myapp.domain.Category.class.getName() + ".products", "category-products");
+            createCache(cm, myapp.domain.Product.class.getName(), "product");
+            createCache(cm, myapp.domain.Customer.class.getName(), "customer");
+            createCache(cm, myapp.service.CustomerService.CUSTOMER_ID_BY_EMAIL_CACHE, "customer-id-by-email");
+            createCache(cm, myapp.security.DomainUserDetailsService.USER_DETAILS_CACHE, "user-details");
+            // jhipster-needle-caffeine-add-entry
+        };
+    }
+
+    private void createCache(javax.cache.CacheManager cm, String cacheName, String alias) {
+        javax.cache.Cache<Object, Object> cache = cm.getCache(cacheName);
+        if (cache != null) {
+            cache.clear();
+        } else {
+            cm.createCache(cacheName, configurationOf(cacheProperties.getRegions().get(alias)));
+        }
+    }
+
+    private CaffeineConfiguration<Object, Object> configurationOf(ApplicationProperties.Cache.Region region) {
+        long maxEntries = defaults.getMaxEntries();
+        long timeToLiveSeconds = defaults.getTimeToLiveSeconds();
+        if (region != null && region.getMaxEntries() != null) {
+            maxEntries = region.getMaxEntries();
+        }
+        if (region != null && region.getTimeToLiveSeconds() != null) {
+            timeToLiveSeconds = region.getTimeToLiveSeconds();
+        }
+
+        CaffeineConfiguration<Object, Object> caffeineConfiguration = new CaffeineConfiguration<>();
+        caffeineConfiguration.setMaximumSize(OptionalLong.of(maxEntries));
+        caffeineConfiguration.setExpireAfterWrite(OptionalLong.of(TimeUnit.SECONDS.toNanos(timeToLiveSeconds)));
+        caffeineConfiguration.setStatisticsEnabled(true);
+        return caffeineConfiguration;
+    }
+
+    @Autowired(required = false)
+    public void setGitProperties(GitProperties gitProperties) {
+        this.gitProperties = gitProperties;
+    }
+
+    @Autowired(required = false)
+    public void setBuildProperties(BuildProperties buildProperties) {
+        this.buildProperties = buildProperties;
+    }
+
+    @Bean
+    public KeyGenerator keyGenerator() {
+        return new PrefixedKeyGenerator(this.gitProperties, this.buildProperties);
+    }
+}
@@ -3,8 +3,15 @@ package myapp.config;
 import static org.springframework.security.config.Customizer.withDefaults;
 import static org.springframework.security.web.util.matcher.AntPathRequestMatcher.antMatcher;
 
+import java.util.Map;
+import java.util.Set;
+import myapp.management.SecurityMetersService;
 import myapp.security.*;
+import myapp.service.IdempotencyService;
+import myapp.web.filter.IdempotencyFilter;
+import myapp.web.filter.InvalidTokenThrottleFilter;
 import myapp.web.filter.SpaWebFilter;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.env.Environment;
@@ -14,14 +21,21 @@ import org.springframework.security.config.annotation.method.configuration.Enabl
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configurers.HeadersConfigurer.FrameOptionsConfig;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.oauth2.server.resource.InvalidBearerTokenException;
 import org.springframework.security.oauth2.server.resource.web.BearerTokenAuthenticationEntryPoint;
+import org.springframework.security.oauth2.server.resource.web.authentication.BearerTokenAuthenticationFilter;
 import org.springframework.security.oauth2.server.resource.web.access.BearerTokenAccessDeniedHandler;
+import org.springframework.security.web.AuthenticationEntryPoint;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.intercept.AuthorizationFilter;
 import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
 import org.springframework.security.web.header.writers.ReferrerPolicyHeaderWriter;
 import org.springframework.security.web.servlet.util.matcher.MvcRequestMatcher;
+import org.springframework.web.servlet.HandlerExceptionResolver;
 import org.springframework.web.servlet.handler.HandlerMappingIntrospector;
 import tech.jhipster.config.JHipsterConstants;
 import tech.jhipster.config.JHipsterProperties;
@@ -30,6 +44,11 @@ import tech.jhipster.config.JHipsterProperties;
 @EnableMethodSecurity(securedEnabled = true)
 public class SecurityConfiguration {
 
+    /**
+     * The create requests made safe to retry with an {@code Idempotency-Key} header.
+     */
+    private static final Set<String> IDEMPOTENT_PATHS = Set.of("/api/orders", "/api/orders/_checkout", "/api/customers", "/api/products");
+
     private final Environment env;
 
     private final JHipsterProperties jHipsterProperties;
@@ -40,16 +59,40 @@ public class SecurityConfiguration {
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(ApplicationProperties applicationProperties) {
+        ApplicationProperties.Security.Password password = applicationProperties.getSecurity().getPassword();
+        PasswordEncoder bcrypt = new BCryptPasswordEncoder(password.getBcryptStrength());
+        PasswordEncoder argon2 = new Argon2PasswordEncoder(
+            16,
+            32,
+            password.getArgon2Parallelism(),
+            password.getArgon2Memory(),
+            password.getArgon2Iterations()
+        );
+        DelegatingPasswordEncoder passwordEncoder = new DelegatingPasswordEncoder(
+            password.getAlgorithm(),
+            Map.of("bcrypt", bcrypt, "argon2", argon2)
+        );
+        // hashes stored before the algorithm became configurable are unprefixed BCrypt hashes
+        passwordEncoder.setDefaultPasswordEncoderForMatches(bcrypt);
+        return passwordEncoder;
     }
 
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http, MvcRequestMatcher.Builder mvc) throws Exception {
+    public SecurityFilterChain filterChain(
+        HttpSecurity http,
+        MvcRequestMatcher.Builder mvc,
+        InvalidTokenTracker invalidTokenTracker,
+        SecurityMetersService metersService,
+        IdempotencyService idempotencyService,
+        @Qualifier("handlerExceptionResolver") HandlerExceptionResolver handlerExceptionResolver
+    ) throws Exception {
         http
             .cors(withDefaults())
             .csrf(csrf -> csrf.disable())
             .addFilterAfter(new SpaWebFilter(), BasicAuthenticationFilter.class)
+            .addFilterBefore(new InvalidTokenThrottleFilter(invalidTokenTracker, metersService), BearerTokenAuthenticationFilter.class)
+            .addFilterAfter(new IdempotencyFilter(idempotencyService, IDEMPOTENT_PATHS, handlerExceptionResolver), AuthorizationFilter.class)
             .headers(headers ->
                 headers
                     .contentSecurityPolicy(csp -> csp.policyDirectives(jHipsterProperties.getSecurity().getContentSecurityPolicy()))
@@ -91,13 +134,25 @@ public class SecurityConfiguration {
                     .authenticationEntryPoint(new BearerTokenAuthenticationEntryPoint())
                     .accessDeniedHandler(new BearerTokenAccessDeniedHandler())
             )
-            .oauth2ResourceServer(oauth2 -> oauth2.jwt(withDefaults()));
+            .oauth2ResourceServer(oauth2 ->
+                oauth2.jwt(withDefaults()).authenticationEntryPoint(invalidTokenEntryPoint(invalidTokenTracker))
+            );
         if (env.acceptsProfiles(Profiles.of(JHipsterConstants.SPRING_PROFILE_DEVELOPMENT))) {
             http.authorizeHttpRequests(authz -> authz.requestMatchers(antMatcher("/h2-console/**")).permitAll());
         }
         return http.build();
     }
 
+    private AuthenticationEntryPoint invalidTokenEntryPoint(InvalidTokenTracker invalidTokenTracker) {
+        AuthenticationEntryPoint entryPoint = new BearerTokenAuthenticationEntryPoint();
+        return (request, response, authException) -> {
+            if (authException instanceof InvalidBearerTokenException) {
+                invalidTokenTracker.recordFailure(request.getRemoteAddr());
+            }
+            entryPoint.commence(request, response, authException);
+        };
+    }
+
     @Bean
     MvcRequestMatcher.Builder mvc(HandlerMappingIntrospector introspector) {
         return new MvcRequestMatcher.Builder(introspector);
@@ -3,17 +3,25 @@ package myapp.config;
 import static myapp.security.SecurityUtils.JWT_ALGORITHM;
 
 import com.nimbusds.jose.jwk.source.ImmutableSecret;
+import com.nimbusds.jose.proc.BadJOSEException;
+import com.nimbusds.jose.proc.BadJWSException;
 import com.nimbusds.jose.util.Base64;
+import java.text.ParseException;
 import javax.crypto.SecretKey;
 import javax.crypto.spec.SecretKeySpec;
 import myapp.management.SecurityMetersService;
+import myapp.security.CachingJwtDecoder;
+import myapp.security.TokenLifetimeValidator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.security.oauth2.jwt.BadJwtException;
 import org.springframework.security.oauth2.jwt.JwtDecoder;
 import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.jwt.JwtValidationException;
 import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
 import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
 
@@ -26,28 +34,47 @@ public class SecurityJwtConfiguration {
     private String jwtKey;
 
     @Bean
-    public JwtDecoder jwtDecoder(SecurityMetersService metersService) {
+    public JwtDecoder jwtDecoder(SecurityMetersService metersService, ApplicationProperties applicationProperties) {
         NimbusJwtDecoder jwtDecoder = NimbusJwtDecoder.withSecretKey(getSecretKey()).macAlgorithm(JWT_ALGORITHM).build();
-        return token -> {
+        jwtDecoder.setJwtValidator(new TokenLifetimeValidator());
+        JwtDecoder verifyingDecoder = token -> {
             try {
                 return jwtDecoder.decode(token);
-            } catch (Exception e) {
-                if (e.getMessage().contains("Invalid signature")) {
-                    metersService.trackTokenInvalidSignature();
-                } else if (e.getMessage().contains("Jwt expired at")) {
-                    metersService.trackTokenExpired();
-                } else if (
-                    e.getMessage().contains("Invalid JWT serialization") ||
-                    e.getMessage().contains("Malformed token") ||
-                    e.getMessage().contains("Invalid unsecured/JWS/JWE")
-                ) {
-                    metersService.trackTokenMalformed();
-                } else {
-                    LOG.error("Unknown JWT error {}", e.getMessage());
-                }
+            } catch (JwtException e) {
+                trackFailure(e, metersService);
                 throw e;
             }
         };
+        long maxEntries = applicationProperties.getSecurity().getTokenCache().getMaxEntries();
+        return new CachingJwtDecoder(verifyingDecoder, metersService, maxEntries);
+    }
+
+    /**
+     * Classify a decoding failure by the type of the exception, or by the error codes of {@link TokenLifetimeValidator}.
+     */
+    private static void trackFailure(JwtException e, SecurityMetersService metersService) {
+        if (e instanceof JwtValidationException validation) {
+            if (validation.getErrors().stream().anyMatch(error -> TokenLifetimeValidator.TOKEN_EXPIRED.equals(error.getErrorCode()))) {
+                metersService.trackTokenExpired();
+            } else {
+                metersService.trackTokenNotYetValid();
+            }
+        } else if (e instanceof BadJwtException) {
+            Throwable cause = e.getCause();
+            if (cause instanceof BadJWSException) {
+                metersService.trackTokenInvalidSignature();
+            } else if (cause instanceof ParseException || (cause != null && cause.getCause() instanceof ParseException)) {
+                metersService.trackTokenMalformed();
+            } else if (cause == null || cause instanceof BadJOSEException) {
+                // unsecured tokens, or tokens signed with another algorithm
+                metersService.trackTokenUnsupported();
+            } else {
+                metersService.trackTokenOtherError();
+            }
+        } else {
+            LOG.debug("Could not process JWT", e);
+            metersService.trackTokenOtherError();
+        }
     }
 
     @Bean
@@ -1,6 +1,7 @@
 package myapp.domain;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import java.io.Serializable;
@@ -8,20 +9,23 @@ import java.time.Instant;
 import java.util.HashSet;
 import java.util.Set;
 import myapp.domain.enumeration.CategoryStatus;
+import myapp.domain.id.PooledSequence;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 /**
  * A Category.
  */
 @Entity
 @Table(name = "category")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @SuppressWarnings("common-java:DuplicatedBlocks")
 public class Category implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sequenceGenerator")
-    @SequenceGenerator(name = "sequenceGenerator")
+    @PooledSequence
     @Column(name = "id")
     private Long id;
 
@@ -56,9 +60,32 @@ public class Category implements Serializable {
         joinColumns = @JoinColumn(name = "category_id"),
         inverseJoinColumns = @JoinColumn(name = "product_id")
     )
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     @JsonIgnoreProperties(value = { "wishList", "order", "categories" }, allowSetters = true)
     private Set<Product> products = new HashSet<>();
 
+    /**
+     * The products linked to the category.
+     */
+    @Embedded
+    @AttributeOverride(name = "inStock", column = @Column(name = "direct_in_stock_count", insertable = false, updatable = false))
+    @AttributeOverride(name = "outOfStock", column = @Column(name = "direct_out_of_stock_count", insertable = false, updatable = false))
+    @AttributeOverride(name = "discontinued", column = @Column(name = "direct_discontinued_count", insertable = false, updatable = false))
+    @AttributeOverride(name = "preorder", column = @Column(name = "direct_preorder_count", insertable = false, updatable = false))
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private ProductCounts directProductCounts;
+
+    /**
+     * The distinct products linked to the category or to its descendants.
+     */
+    @Embedded
+    @AttributeOverride(name = "inStock", column = @Column(name = "subtree_in_stock_count", insertable = false, updatable = false))
+    @AttributeOverride(name = "outOfStock", column = @Column(name = "subtree_out_of_stock_count", insertable = false, updatable = false))
+    @AttributeOverride(name = "discontinued", column = @Column(name = "subtree_discontinued_count", insertable = false, updatable = false))
+    @AttributeOverride(name = "preorder", column = @Column(name = "subtree_preorder_count", insertable = false, updatable = false))
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private ProductCounts subtreeProductCounts;
+
     // jhipster-needle-entity-add-field - JHipster will add fields here
 
     public Long getId() {
@@ -175,6 +202,14 @@ public class Category implements Serializable {
         return this;
     }
 
+    public ProductCounts getDirectProductCounts() {
+        return this.directProductCounts;
+    }
+
+    public ProductCounts getSubtreeProductCounts() {
+        return this.subtreeProductCounts;
+    }
+
     // jhipster-needle-entity-add-getters-setters - JHipster will add getters and setters here
 
     @Override
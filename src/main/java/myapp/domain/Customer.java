@@ -1,25 +1,30 @@
 package myapp.domain;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import java.io.Serializable;
 import java.util.HashSet;
+import java.util.Locale;
 import java.util.Set;
+import myapp.domain.id.PooledSequence;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 /**
  * A Customer.
  */
 @Entity
 @Table(name = "customer")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @SuppressWarnings("common-java:DuplicatedBlocks")
 public class Customer implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sequenceGenerator")
-    @SequenceGenerator(name = "sequenceGenerator")
+    @PooledSequence
     @Column(name = "id")
     private Long id;
 
@@ -38,6 +43,13 @@ public class Customer implements Serializable {
     @Column(name = "email", nullable = false, unique = true)
     private String email;
 
+    /**
+     * The lower-cased {@link #email}, set with it, see {@link #normalizeEmail(String)}.
+     */
+    @JsonIgnore
+    @Column(name = "normalized_email", nullable = false, unique = true)
+    private String normalizedEmail;
+
     @Size(max = 15)
     @Pattern(regexp = "^\\+?[0-9\\s-]+$")
     @Column(name = "telephone", length = 15)
@@ -107,6 +119,21 @@ public class Customer implements Serializable {
 
     public void setEmail(String email) {
         this.email = email;
+        this.normalizedEmail = normalizeEmail(email);
+    }
+
+    public String getNormalizedEmail() {
+        return this.normalizedEmail;
+    }
+
+    /**
+     * Normalize an email address, so that it is compared whatever its case.
+     *
+     * @param email the email address.
+     * @return the lower-cased email address.
+     */
+    public static String normalizeEmail(String email) {
+        return email == null ? null : email.toLowerCase(Locale.ENGLISH);
     }
 
     public String getTelephone() {
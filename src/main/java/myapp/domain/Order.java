@@ -8,6 +8,9 @@ import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.HashSet;
 import java.util.Set;
+import myapp.domain.enumeration.OrderStatus;
+import myapp.domain.enumeration.OrderStatusConverter;
+import myapp.domain.id.PooledSequence;
 
 /**
  * A Order.
@@ -20,8 +23,7 @@ public class Order implements Serializable {
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sequenceGenerator")
-    @SequenceGenerator(name = "sequenceGenerator")
+    @PooledSequence
     @Column(name = "id")
     private Long id;
 
@@ -33,9 +35,15 @@ public class Order implements Serializable {
     private Instant shippedDate;
 
     @NotNull
-    @Size(min = 3)
+    @Convert(converter = OrderStatusConverter.class)
     @Column(name = "status", nullable = false)
-    private String status;
+    private OrderStatus status;
+
+    /**
+     * When the order entered its status, stamped by the service.
+     */
+    @Column(name = "status_changed_at", nullable = false)
+    private Instant statusChangedAt;
 
     @NotNull
     @DecimalMin(value = "0")
@@ -103,19 +111,32 @@ public class Order implements Serializable {
         this.shippedDate = shippedDate;
     }
 
-    public String getStatus() {
+    public OrderStatus getStatus() {
         return this.status;
     }
 
-    public Order status(String status) {
+    public Order status(OrderStatus status) {
         this.setStatus(status);
         return this;
     }
 
-    public void setStatus(String status) {
+    public void setStatus(OrderStatus status) {
         this.status = status;
     }
 
+    public Instant getStatusChangedAt() {
+        return this.statusChangedAt;
+    }
+
+    public Order statusChangedAt(Instant statusChangedAt) {
+        this.setStatusChangedAt(statusChangedAt);
+        return this;
+    }
+
+    public void setStatusChangedAt(Instant statusChangedAt) {
+        this.statusChangedAt = statusChangedAt;
+    }
+
     public BigDecimal getTotalAmount() {
         return this.totalAmount;
     }
@@ -239,6 +260,7 @@ public class Order implements Serializable {
             ", orderDate='" + getOrderDate() + "'" +
             ", shippedDate='" + getShippedDate() + "'" +
             ", status='" + getStatus() + "'" +
+            ", statusChangedAt='" + getStatusChangedAt() + "'" +
             ", totalAmount=" + getTotalAmount() +
             ", shippingCost=" + getShippingCost() +
             ", trackingNumber='" + getTrackingNumber() + "'" +
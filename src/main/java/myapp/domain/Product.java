@@ -9,20 +9,23 @@ import java.time.Instant;
 import java.util.HashSet;
 import java.util.Set;
 import myapp.domain.enumeration.ProductStatus;
+import myapp.domain.id.PooledSequence;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 /**
  * A Product.
  */
 @Entity
 @Table(name = "product")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @SuppressWarnings("common-java:DuplicatedBlocks")
 public class Product implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sequenceGenerator")
-    @SequenceGenerator(name = "sequenceGenerator")
+    @PooledSequence
     @Column(name = "id")
     private Long id;
 
@@ -50,8 +53,11 @@ public class Product implements Serializable {
     @Column(name = "price", precision = 21, scale = 2, nullable = false)
     private BigDecimal price;
 
+    /**
+     * Initial stock, only written on insert: it is then changed by {@link myapp.service.StockReservationService} alone.
+     */
     @Min(value = 0)
-    @Column(name = "quantity_in_stock")
+    @Column(name = "quantity_in_stock", updatable = false)
     private Integer quantityInStock;
 
     @NotNull
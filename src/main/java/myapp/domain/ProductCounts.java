@@ -0,0 +1,72 @@
+package myapp.domain;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import java.io.Serializable;
+import myapp.domain.enumeration.ProductStatus;
+
+/**
+ * The number of products of a category, by {@link ProductStatus}.
+ * <p>
+ * The counts are maintained in the database by {@link myapp.repository.CategoryProductCountRepository}: they are never
+ * written by the entity.
+ */
+@Embeddable
+public class ProductCounts implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Column(name = "in_stock_count", insertable = false, updatable = false)
+    private long inStock;
+
+    @Column(name = "out_of_stock_count", insertable = false, updatable = false)
+    private long outOfStock;
+
+    @Column(name = "discontinued_count", insertable = false, updatable = false)
+    private long discontinued;
+
+    @Column(name = "preorder_count", insertable = false, updatable = false)
+    private long preorder;
+
+    public long getInStock() {
+        return inStock;
+    }
+
+    public long getOutOfStock() {
+        return outOfStock;
+    }
+
+    public long getDiscontinued() {
+        return discontinued;
+    }
+
+    public long getPreorder() {
+        return preorder;
+    }
+
+    @JsonProperty
+    public long getTotal() {
+        return inStock + outOfStock + discontinued + preorder;
+    }
+
+    public long get(ProductStatus status) {
+        return switch (status) {
+            case IN_STOCK -> inStock;
+            case OUT_OF_STOCK -> outOfStock;
+            case DISCONTINUED -> discontinued;
+            case PREORDER -> preorder;
+        };
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "ProductCounts{" +
+            "inStock=" + getInStock() +
+            ", outOfStock=" + getOutOfStock() +
+            ", discontinued=" + getDiscontinued() +
+            ", preorder=" + getPreorder() +
+            "}";
+    }
+}
@@ -0,0 +1,69 @@
+package myapp.domain.enumeration;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * The OrderStatus enumeration, in lifecycle order.
+ * <p>
+ * An order is placed {@link #PENDING}, then paid, shipped and delivered; it can be cancelled until it is shipped. Each
+ * status is stored as its {@link #getCode() code}, which must never change.
+ */
+public enum OrderStatus {
+    PENDING(0),
+    PAID(1),
+    SHIPPED(2),
+    DELIVERED(3),
+    CANCELLED(4);
+
+    private static final OrderStatus[] BY_CODE = new OrderStatus[values().length];
+
+    static {
+        for (OrderStatus status : values()) {
+            BY_CODE[status.code] = status;
+        }
+        PENDING.next = EnumSet.of(PAID, CANCELLED);
+        PAID.next = EnumSet.of(SHIPPED, CANCELLED);
+        SHIPPED.next = EnumSet.of(DELIVERED);
+        DELIVERED.next = EnumSet.noneOf(OrderStatus.class);
+        CANCELLED.next = EnumSet.noneOf(OrderStatus.class);
+    }
+
+    private final short code;
+
+    private Set<OrderStatus> next;
+
+    OrderStatus(int code) {
+        this.code = (short) code;
+    }
+
+    public short getCode() {
+        return code;
+    }
+
+    /**
+     * @return the statuses an order in this status can move to.
+     */
+    public Set<OrderStatus> getNext() {
+        return EnumSet.copyOf(next);
+    }
+
+    /**
+     * @return true if an order in this status has been shipped.
+     */
+    public boolean isShipped() {
+        return this == SHIPPED || this == DELIVERED;
+    }
+
+    public boolean canTransitionTo(OrderStatus status) {
+        return next.contains(status);
+    }
+
+    public static OrderStatus fromCode(short code) {
+        if (code < 0 || code >= BY_CODE.length) {
+            throw new IllegalArgumentException("Unknown order status code " + code + ", expected one of " + Arrays.toString(BY_CODE));
+        }
+        return BY_CODE[code];
+    }
+}
@@ -0,0 +1,21 @@
+package myapp.domain.enumeration;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Stores an {@link OrderStatus} as its code, in a {@code smallint}.
+ */
+@Converter
+public class OrderStatusConverter implements AttributeConverter<OrderStatus, Short> {
+
+    @Override
+    public Short convertToDatabaseColumn(OrderStatus status) {
+        return status == null ? null : status.getCode();
+    }
+
+    @Override
+    public OrderStatus convertToEntityAttribute(Short code) {
+        return code == null ? null : OrderStatus.fromCode(code);
+    }
+}
@@ -0,0 +1,21 @@
+package myapp.domain.enumeration;
+
+import java.time.temporal.ChronoUnit;
+
+/**
+ * The periods the figures of the orders are summed by.
+ */
+public enum StatsGranularity {
+    HOUR(ChronoUnit.HOURS),
+    DAY(ChronoUnit.DAYS);
+
+    private final ChronoUnit unit;
+
+    StatsGranularity(ChronoUnit unit) {
+        this.unit = unit;
+    }
+
+    public ChronoUnit getUnit() {
+        return unit;
+    }
+}
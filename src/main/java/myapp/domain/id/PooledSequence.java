@@ -0,0 +1,24 @@
+package myapp.domain.id;
+
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+import org.hibernate.annotations.IdGeneratorType;
+
+/**
+ * Generates the annotated identifier from a database sequence, through blocks of ids allocated in memory.
+ * <p>
+ * All the entities using the same sequence share its blocks, see {@link PooledSequenceGenerator}.
+ */
+@IdGeneratorType(PooledSequenceGenerator.class)
+@Retention(RUNTIME)
+@Target({ FIELD, METHOD })
+public @interface PooledSequence {
+    /**
+     * @return the name of the database sequence.
+     */
+    String value() default "sequence_generator";
+}
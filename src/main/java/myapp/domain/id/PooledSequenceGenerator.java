@@ -0,0 +1,145 @@
+package myapp.domain.id;
+
+import java.lang.reflect.Member;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.config.spi.StandardConverters;
+import org.hibernate.engine.jdbc.spi.JdbcCoordinator;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerationException;
+import org.hibernate.id.IdentifierGenerator;
+import org.hibernate.id.IdentifierGeneratorHelper;
+import org.hibernate.id.IntegralDataTypeHolder;
+import org.hibernate.id.enhanced.AccessCallback;
+import org.hibernate.id.enhanced.Optimizer;
+import org.hibernate.id.enhanced.OptimizerDescriptor;
+import org.hibernate.id.enhanced.OptimizerFactory;
+import org.hibernate.id.enhanced.StandardOptimizerDescriptor;
+import org.hibernate.id.factory.spi.CustomIdGeneratorCreationContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Generator of the {@link PooledSequence} identifiers.
+ * <p>
+ * Each call to the sequence allocates a block of ids, as large as the increment of the sequence, which is read from the
+ * database so that it cannot get out of sync with the schema. The block is handed out by a thread-safe Hibernate
+ * optimizer, shared by all the entities of the session factory using the same sequence: {@code pooled} by default, or
+ * the one set by {@code hibernate.id.optimizer.pooled.preferred}.
+ */
+public class PooledSequenceGenerator implements IdentifierGenerator {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PooledSequenceGenerator.class);
+
+    private static final String INCREMENT_QUERY =
+        "select increment, start_value from information_schema.sequences " +
+        "where upper(sequence_name) = upper(?) and sequence_schema = current_schema";
+
+    // shared by the generators of every entity, per session factory and sequence
+    private static final Map<SessionFactory, Map<String, SequenceBlocks>> BLOCKS = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private final String sequenceName;
+
+    private final OptimizerDescriptor optimizer;
+
+    public PooledSequenceGenerator(PooledSequence config, Member member, CustomIdGeneratorCreationContext context) {
+        this.sequenceName = config.value();
+        this.optimizer = StandardOptimizerDescriptor.fromExternalName(
+            context
+                .getServiceRegistry()
+                .requireService(ConfigurationService.class)
+                .getSetting(
+                    AvailableSettings.PREFERRED_POOLED_OPTIMIZER,
+                    StandardConverters.STRING,
+                    StandardOptimizerDescriptor.POOLED.getExternalName()
+                )
+        );
+        if (!optimizer.isPooled()) {
+            throw new IllegalArgumentException("Not a pooled optimizer: " + optimizer.getExternalName());
+        }
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object object) {
+        return BLOCKS.computeIfAbsent(session.getFactory(), factory -> new ConcurrentHashMap<>())
+            .computeIfAbsent(sequenceName, name -> new SequenceBlocks(name, optimizer))
+            .next(session);
+    }
+
+    private static final class SequenceBlocks {
+
+        private final String sequenceName;
+
+        private final OptimizerDescriptor optimizerDescriptor;
+
+        private volatile Optimizer optimizer;
+
+        SequenceBlocks(String sequenceName, OptimizerDescriptor optimizerDescriptor) {
+            this.sequenceName = sequenceName;
+            this.optimizerDescriptor = optimizerDescriptor;
+        }
+
+        Long next(SharedSessionContractImplementor session) {
+            Optimizer current = optimizer;
+            if (current == null) {
+                synchronized (this) {
+                    current = optimizer;
+                    if (current == null) {
+                        // the start value, as the first block of a fresh sequence, must not extend below it
+                        long[] incrementAndStart = queryLongs(session, INCREMENT_QUERY, 2, sequenceName);
+                        int incrementSize = Math.toIntExact(incrementAndStart[0]);
+                        LOG.debug("Allocating ids of sequence {} by blocks of {}", sequenceName, incrementSize);
+                        current = OptimizerFactory.buildOptimizer(optimizerDescriptor, Long.class, incrementSize, incrementAndStart[1]);
+                        optimizer = current;
+                    }
+                }
+            }
+            return (Long) current.generate(
+                new AccessCallback() {
+                    @Override
+                    public IntegralDataTypeHolder getNextValue() {
+                        String sql = session.getJdbcServices().getDialect().getSequenceSupport().getSequenceNextValString(sequenceName);
+                        return IdentifierGeneratorHelper.getIntegralDataTypeHolder(Long.class).initialize(queryLongs(session, sql, 1)[0]);
+                    }
+
+                    @Override
+                    public String getTenantIdentifier() {
+                        return session.getTenantIdentifier();
+                    }
+                }
+            );
+        }
+
+        private long[] queryLongs(SharedSessionContractImplementor session, String sql, int columns, String... parameters) {
+            JdbcCoordinator jdbc = session.getJdbcCoordinator();
+            PreparedStatement statement = jdbc.getStatementPreparer().prepareStatement(sql);
+            try {
+                for (int i = 0; i < parameters.length; i++) {
+                    statement.setString(i + 1, parameters[i]);
+                }
+                ResultSet resultSet = jdbc.getResultSetReturn().extract(statement, sql);
+                if (!resultSet.next()) {
+                    throw new IdentifierGenerationException("Sequence " + sequenceName + " not found in the current schema");
+                }
+                long[] values = new long[columns];
+                for (int i = 0; i < columns; i++) {
+                    values[i] = resultSet.getLong(i + 1);
+                }
+                return values;
+            } catch (SQLException e) {
+                throw session.getJdbcServices().getSqlExceptionHelper().convert(e, "Could not read the sequence " + sequenceName, sql);
+            } finally {
+                jdbc.getLogicalConnection().getResourceRegistry().release(statement);
+                jdbc.afterStatementExecution();
+            }
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package myapp.management;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reports the foreign keys of the application schema which no index can serve, once the application is ready.
+ * <p>
+ * A foreign key is served by an index whose leading columns are the columns of the key, in any order. Without one,
+ * loading an association or deleting a referenced row scans the whole referencing table.
+ */
+@Component
+public class ForeignKeyIndexChecker {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ForeignKeyIndexChecker.class);
+
+    private final DataSource dataSource;
+
+    public ForeignKeyIndexChecker(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        try {
+            List<String> unindexed = findUnindexedForeignKeys();
+            if (unindexed.isEmpty()) {
+                LOG.debug("Every foreign key is indexed");
+            }
+            unindexed.forEach(foreignKey -> LOG.warn("Foreign key without index: {}", foreignKey));
+        } catch (SQLException e) {
+            LOG.warn("Could not check the indexes of the foreign keys", e);
+        }
+    }
+
+    /**
+     * Find the foreign keys of the current schema which no index can serve.
+     *
+     * @return the foreign keys, described as {@code table(columns) name}.
+     * @throws SQLException if the metadata of the schema cannot be read.
+     */
+    public List<String> findUnindexedForeignKeys() throws SQLException {
+        List<String> unindexed = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection()) {
+            DatabaseMetaData metaData = connection.getMetaData();
+            String catalog = connection.getCatalog();
+            String schema = connection.getSchema();
+            for (String table : tables(metaData, catalog, schema)) {
+                Map<String, List<String>> indexes = indexes(metaData, catalog, schema, table);
+                foreignKeys(metaData, catalog, schema, table).forEach((name, columns) -> {
+                    if (indexes.values().stream().noneMatch(index -> serves(index, columns))) {
+                        unindexed.add(table + columns + " " + name);
+                    }
+                });
+            }
+        }
+        return unindexed;
+    }
+
+    private static boolean serves(List<String> index, List<String> foreignKey) {
+        return index.size() >= foreignKey.size() && Set.copyOf(index.subList(0, foreignKey.size())).equals(Set.copyOf(foreignKey));
+    }
+
+    private static List<String> tables(DatabaseMetaData metaData, String catalog, String schema) throws SQLException {
+        List<String> tables = new ArrayList<>();
+        try (ResultSet resultSet = metaData.getTables(catalog, schema, "%", new String[] { "TABLE" })) {
+            while (resultSet.next()) {
+                tables.add(resultSet.getString("TABLE_NAME"));
+            }
+        }
+        return tables;
+    }
+
+    /**
+     * @return the columns of the foreign keys of a table, by foreign key name, in key order.
+     */
+    private static Map<String, List<String>> foreignKeys(DatabaseMetaData metaData, String catalog, String schema, String table)
+        throws SQLException {
+        Map<String, List<String>> foreignKeys = new LinkedHashMap<>();
+        try (ResultSet resultSet = metaData.getImportedKeys(catalog, schema, table)) {
+            while (resultSet.next()) {
+                String column = resultSet.getString("FKCOLUMN_NAME");
+                foreignKeys.computeIfAbsent(resultSet.getString("FK_NAME"), name -> new ArrayList<>()).add(column);
+            }
+        }
+        return foreignKeys;
+    }
+
+    /**
+     * @return the columns of the indexes of a table, primary key included, by index name, in index order.
+     */
+    private static Map<String, List<String>> indexes(DatabaseMetaData metaData, String catalog, String schema, String table)
+        throws SQLException {
+        Map<String, List<String>> indexes = new LinkedHashMap<>();
+        try (ResultSet resultSet = metaData.getIndexInfo(catalog, schema, table, false, true)) {
+            while (resultSet.next()) {
+                String column = resultSet.getString("COLUMN_NAME");
+                // statistics rows, and expression indexes, have no column
+                if (column != null) {
+                    indexes.computeIfAbsent(resultSet.getString("INDEX_NAME"), name -> new ArrayList<>()).add(column);
+                }
+            }
+        }
+        return indexes;
+    }
+}
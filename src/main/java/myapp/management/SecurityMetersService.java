@@ -13,16 +13,37 @@ public class SecurityMetersService {
     public static final String INVALID_TOKENS_METER_BASE_UNIT = "errors";
     public static final String INVALID_TOKENS_METER_CAUSE_DIMENSION = "cause";
 
+    public static final String THROTTLED_REQUESTS_METER_NAME = "security.authentication.throttled-requests";
+    public static final String THROTTLED_REQUESTS_METER_DESCRIPTION =
+        "Indicates requests rejected because their client presented too many invalid tokens.";
+
+    public static final String TOKEN_CACHE_METER_NAME = "security.authentication.token-cache";
+    public static final String TOKEN_CACHE_METER_DESCRIPTION =
+        "Indicates lookups of the tokens presented by the clients in the verified tokens cache.";
+    public static final String TOKEN_CACHE_METER_RESULT_DIMENSION = "result";
+
     private final Counter tokenInvalidSignatureCounter;
     private final Counter tokenExpiredCounter;
     private final Counter tokenUnsupportedCounter;
     private final Counter tokenMalformedCounter;
+    private final Counter tokenNotYetValidCounter;
+    private final Counter tokenOtherErrorCounter;
+    private final Counter throttledRequestsCounter;
+    private final Counter tokenCacheHitCounter;
+    private final Counter tokenCacheMissCounter;
 
     public SecurityMetersService(MeterRegistry registry) {
         this.tokenInvalidSignatureCounter = invalidTokensCounterForCauseBuilder("invalid-signature").register(registry);
         this.tokenExpiredCounter = invalidTokensCounterForCauseBuilder("expired").register(registry);
         this.tokenUnsupportedCounter = invalidTokensCounterForCauseBuilder("unsupported").register(registry);
         this.tokenMalformedCounter = invalidTokensCounterForCauseBuilder("malformed").register(registry);
+        this.tokenNotYetValidCounter = invalidTokensCounterForCauseBuilder("not-yet-valid").register(registry);
+        this.tokenOtherErrorCounter = invalidTokensCounterForCauseBuilder("other").register(registry);
+        this.throttledRequestsCounter = Counter.builder(THROTTLED_REQUESTS_METER_NAME)
+            .description(THROTTLED_REQUESTS_METER_DESCRIPTION)
+            .register(registry);
+        this.tokenCacheHitCounter = tokenCacheCounterForResultBuilder("hit").register(registry);
+        this.tokenCacheMissCounter = tokenCacheCounterForResultBuilder("miss").register(registry);
     }
 
     private Counter.Builder invalidTokensCounterForCauseBuilder(String cause) {
@@ -32,6 +53,12 @@ public class SecurityMetersService {
             .tag(INVALID_TOKENS_METER_CAUSE_DIMENSION, cause);
     }
 
+    private Counter.Builder tokenCacheCounterForResultBuilder(String result) {
+        return Counter.builder(TOKEN_CACHE_METER_NAME)
+            .description(TOKEN_CACHE_METER_DESCRIPTION)
+            .tag(TOKEN_CACHE_METER_RESULT_DIMENSION, result);
+    }
+
     public void trackTokenInvalidSignature() {
         this.tokenInvalidSignatureCounter.increment();
     }
@@ -47,4 +74,24 @@ public class SecurityMetersService {
     public void trackTokenMalformed() {
         this.tokenMalformedCounter.increment();
     }
+
+    public void trackTokenNotYetValid() {
+        this.tokenNotYetValidCounter.increment();
+    }
+
+    public void trackTokenOtherError() {
+        this.tokenOtherErrorCounter.increment();
+    }
+
+    public void trackTokenRequestThrottled() {
+        this.throttledRequestsCounter.increment();
+    }
+
+    public void trackTokenCacheHit() {
+        this.tokenCacheHitCounter.increment();
+    }
+
+    public void trackTokenCacheMiss() {
+        this.tokenCacheMissCounter.increment();
+    }
 }
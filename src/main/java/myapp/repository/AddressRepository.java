@@ -1,7 +1,14 @@
 package myapp.repository;
 
+import java.util.List;
 import myapp.domain.Address;
+import myapp.service.dto.AddressSummaryDTO;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -9,4 +16,12 @@ import org.springframework.stereotype.Repository;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface AddressRepository extends JpaRepository<Address, Long> {}
+public interface AddressRepository extends JpaRepository<Address, Long> {
+    Window<Address> findAllBy(ScrollPosition position, Sort sort, Limit limit);
+
+    @Query(
+        "select new myapp.service.dto.AddressSummaryDTO(address.id, address.address1, address.address2, address.city, address.postcode," +
+        " address.country) from Address address where address.customer.id = :customerId order by address.id"
+    )
+    List<AddressSummaryDTO> findAllSummariesByCustomerId(@Param("customerId") Long customerId);
+}
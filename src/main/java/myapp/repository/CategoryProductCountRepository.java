@@ -0,0 +1,202 @@
+package myapp.repository;
+
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import myapp.domain.Category;
+import myapp.domain.enumeration.ProductStatus;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Repository for the product counters of the categories, in plain SQL.
+ * <p>
+ * Each category row holds, for every {@link ProductStatus}, the number of products linked to the category (its direct
+ * counts) and the number of distinct products linked to the category or to its descendants (its subtree counts). They
+ * are read with the category, see {@link myapp.domain.ProductCounts}. The categories whose counters change are evicted
+ * from the second-level cache.
+ */
+@Repository
+public class CategoryProductCountRepository {
+
+    private static final int PRODUCTS_CHUNK_SIZE = 1000;
+
+    private static final String RECOUNT =
+        "UPDATE category SET " +
+        Arrays.stream(ProductStatus.values())
+            .flatMap(status ->
+                Stream.of(
+                    counterColumn("direct", status) +
+                    " = (SELECT COUNT(*) FROM rel_category__product rel JOIN product ON product.id = rel.product_id" +
+                    " WHERE rel.category_id = category.id AND product.status = '" +
+                    status.name() +
+                    "')",
+                    counterColumn("subtree", status) +
+                    " = (SELECT COUNT(DISTINCT rel.product_id) FROM category_closure tree" +
+                    " JOIN rel_category__product rel ON rel.category_id = tree.descendant_id JOIN product ON product.id = rel.product_id" +
+                    " WHERE tree.ancestor_id = category.id AND product.status = '" +
+                    status.name() +
+                    "')"
+                )
+            )
+            .collect(Collectors.joining(", "));
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    public CategoryProductCountRepository(NamedParameterJdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    /**
+     * Find the products linked to a category.
+     *
+     * @param categoryId the id of the category.
+     * @return the ids of its products.
+     */
+    public List<Long> findProductIds(Long categoryId) {
+        return jdbcTemplate.queryForList(
+            "SELECT product_id FROM rel_category__product WHERE category_id = :categoryId",
+            Map.of("categoryId", categoryId),
+            Long.class
+        );
+    }
+
+    /**
+     * Count products newly linked to a category. The links must be written.
+     *
+     * @param categoryId the id of the category.
+     * @param ancestorIds the ids of the category and of its ancestors.
+     * @param productIds the ids of the products linked.
+     */
+    public void addLinks(Long categoryId, Collection<Long> ancestorIds, Collection<Long> productIds) {
+        // a product enters the subtree of an ancestor with its first link there
+        updateLinks(categoryId, ancestorIds, productIds, 1, 1);
+    }
+
+    /**
+     * Count products unlinked from a category. The links must be deleted.
+     *
+     * @param categoryId the id of the category.
+     * @param ancestorIds the ids of the category, unless it was deleted, and of its ancestors.
+     * @param productIds the ids of the products unlinked.
+     */
+    public void removeLinks(Long categoryId, Collection<Long> ancestorIds, Collection<Long> productIds) {
+        // a product leaves the subtree of an ancestor with its last link there
+        updateLinks(categoryId, ancestorIds, productIds, -1, 0);
+    }
+
+    /**
+     * Count the products of categories again.
+     *
+     * @param categoryIds the ids of the categories.
+     */
+    public void recount(Collection<Long> categoryIds) {
+        if (!categoryIds.isEmpty()) {
+            jdbcTemplate.update(RECOUNT + " WHERE id IN (:ids)", Map.of("ids", categoryIds));
+            evict(categoryIds);
+        }
+    }
+
+    /**
+     * Count the products of every category again.
+     *
+     * @return the number of categories.
+     */
+    public int recountAll() {
+        int updated = jdbcTemplate.update(RECOUNT, Map.of());
+        entityManagerFactory.getCache().evict(Category.class);
+        return updated;
+    }
+
+    private void updateLinks(Long categoryId, Collection<Long> ancestorIds, Collection<Long> productIds, int sign, int links) {
+        List<Long> ids = List.copyOf(productIds);
+        for (int from = 0; from < ids.size(); from += PRODUCTS_CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + PRODUCTS_CHUNK_SIZE, ids.size()));
+            List<Delta> deltas = new ArrayList<>();
+            jdbcTemplate.query(
+                "SELECT product.status, COUNT(*) FROM product WHERE product.id IN (:productIds) GROUP BY product.status",
+                Map.of("productIds", chunk),
+                resultSet -> {
+                    deltas.add(new Delta("direct", resultSet.getString(1), categoryId, sign * resultSet.getLong(2)));
+                }
+            );
+            if (!ancestorIds.isEmpty()) {
+                jdbcTemplate.query(
+                    "SELECT ancestor.id, product.status, COUNT(*) FROM category ancestor CROSS JOIN product" +
+                    " WHERE ancestor.id IN (:ancestorIds) AND product.id IN (:productIds) AND (" +
+                    "SELECT COUNT(*) FROM category_closure tree JOIN rel_category__product rel ON rel.category_id = tree.descendant_id" +
+                    " WHERE tree.ancestor_id = ancestor.id AND rel.product_id = product.id) = :links" +
+                    " GROUP BY ancestor.id, product.status",
+                    new MapSqlParameterSource()
+                        .addValue("ancestorIds", ancestorIds)
+                        .addValue("productIds", chunk)
+                        .addValue("links", links),
+                    resultSet -> {
+                        deltas.add(new Delta("subtree", resultSet.getString(2), resultSet.getLong(1), sign * resultSet.getLong(3)));
+                    }
+                );
+            }
+            deltas
+                .stream()
+                .collect(Collectors.groupingBy(Delta::column))
+                .forEach((column, columnDeltas) ->
+                    jdbcTemplate.batchUpdate(
+                        "UPDATE category SET " + column + " = " + column + " + :delta WHERE id = :id",
+                        columnDeltas
+                            .stream()
+                            .map(delta -> new MapSqlParameterSource().addValue("id", delta.categoryId()).addValue("delta", delta.delta()))
+                            .toArray(SqlParameterSource[]::new)
+                    )
+                );
+        }
+        List<Long> evicted = new ArrayList<>(ancestorIds);
+        evicted.add(categoryId);
+        evict(evicted);
+    }
+
+    private static String counterColumn(String counts, ProductStatus status) {
+        return counts + "_" + status.name().toLowerCase(Locale.ENGLISH) + "_count";
+    }
+
+    /**
+     * A change of a counter of a category.
+     */
+    private record Delta(String column, Long categoryId, long delta) {
+        Delta(String counts, String status, Long categoryId, long delta) {
+            this(counterColumn(counts, ProductStatus.valueOf(status)), categoryId, delta);
+        }
+    }
+
+    /**
+     * Evict categories from the second-level cache, now and once the transaction is committed, so that a concurrent
+     * read does not cache them again with their previous counts.
+     */
+    private void evict(Collection<Long> categoryIds) {
+        Cache cache = entityManagerFactory.getCache();
+        categoryIds.forEach(id -> cache.evict(Category.class, id));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        categoryIds.forEach(id -> cache.evict(Category.class, id));
+                    }
+                }
+            );
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package myapp.repository;
+
+/**
+ * A row of the {@code rel_category__product} join table.
+ */
+public interface CategoryProductLink {
+    Long getCategoryId();
+
+    Long getProductId();
+}
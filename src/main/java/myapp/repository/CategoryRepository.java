@@ -1,11 +1,15 @@
 package myapp.repository;
 
+import jakarta.persistence.QueryHint;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 import myapp.domain.Category;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -27,4 +31,30 @@ public interface CategoryRepository extends CategoryRepositoryWithBagRelationshi
     default Page<Category> findAllWithEagerRelationships(Pageable pageable) {
         return this.fetchBagRelationships(this.findAll(pageable));
     }
+
+    @Query("select category.id as categoryId, product.id as productId from Category category join category.products product")
+    Stream<CategoryProductLink> streamProductLinks();
+
+    @QueryHints(
+        {
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE")
+        }
+    )
+    Stream<Category> streamAllByOrderByIdAsc();
+
+    @Query(
+        value = "SELECT category.* FROM category JOIN category_closure tree ON tree.descendant_id = category.id" +
+        " WHERE tree.ancestor_id = :id ORDER BY tree.depth, category.sort_order, category.id",
+        nativeQuery = true
+    )
+    List<Category> findSubtree(@Param("id") Long id);
+
+    @Query(
+        value = "SELECT category.* FROM category JOIN category_closure tree ON tree.ancestor_id = category.id" +
+        " WHERE tree.descendant_id = :id ORDER BY tree.depth DESC",
+        nativeQuery = true
+    )
+    List<Category> findPathFromRoot(@Param("id") Long id);
 }
@@ -2,29 +2,49 @@ package myapp.repository;
 
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
-import java.util.Collections;
+import jakarta.persistence.Query;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.stream.IntStream;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import myapp.domain.Category;
+import myapp.domain.Product;
+import org.hibernate.Hibernate;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 
 /**
  * Utility repository to load bag relationships based on https://vladmihalcea.com/hibernate-multiplebagfetchexception/
+ * <p>
+ * A single category is loaded with all its products, from the collection cache when it can be. A list of categories is
+ * loaded with a preview of the products of each category, the first {@link #PRODUCTS_PREVIEW_SIZE} by id, fetched for
+ * {@link #CATEGORIES_CHUNK_SIZE} categories at a time: the categories of the list are detached, so that their partial
+ * products are never flushed. The products of a category are paged with
+ * {@link ProductRepository#findAllByCategoryId(Long, org.springframework.data.domain.Pageable)}.
  */
 public class CategoryRepositoryWithBagRelationshipsImpl implements CategoryRepositoryWithBagRelationships {
 
-    private static final String ID_PARAMETER = "id";
-    private static final String CATEGORIES_PARAMETER = "categories";
+    /**
+     * The number of products loaded with each category of a list.
+     */
+    public static final int PRODUCTS_PREVIEW_SIZE = 20;
+
+    private static final int CATEGORIES_CHUNK_SIZE = 100;
+
+    private static final String PRODUCTS_PARAMETER = "products";
 
     @PersistenceContext
     private EntityManager entityManager;
 
     @Override
     public Optional<Category> fetchBagRelationships(Optional<Category> category) {
-        return category.map(this::fetchProducts);
+        category.ifPresent(result -> Hibernate.initialize(result.getProducts()));
+        return category;
     }
 
     @Override
@@ -34,27 +54,54 @@ public class CategoryRepositoryWithBagRelationshipsImpl implements CategoryRepos
 
     @Override
     public List<Category> fetchBagRelationships(List<Category> categories) {
-        return Optional.of(categories).map(this::fetchProducts).orElse(Collections.emptyList());
+        for (int from = 0; from < categories.size(); from += CATEGORIES_CHUNK_SIZE) {
+            fetchProductsPreview(categories.subList(from, Math.min(from + CATEGORIES_CHUNK_SIZE, categories.size())));
+        }
+        return categories;
     }
 
-    Category fetchProducts(Category result) {
-        return entityManager
-            .createQuery("select category from Category category left join fetch category.products where category.id = :id", Category.class)
-            .setParameter(ID_PARAMETER, result.getId())
-            .getSingleResult();
+    void fetchProductsPreview(List<Category> categories) {
+        Map<Long, List<Long>> productIds = findProductIdsPreview(categories.stream().map(Category::getId).toList());
+        Map<Long, Product> products = productIds.isEmpty()
+            ? Map.of()
+            : entityManager
+                .createQuery("select product from Product product where product.id in :products", Product.class)
+                .setParameter(PRODUCTS_PARAMETER, productIds.values().stream().flatMap(List::stream).distinct().toList())
+                .getResultStream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        for (Category category : categories) {
+            entityManager.detach(category);
+            Set<Product> preview = new LinkedHashSet<>();
+            productIds.getOrDefault(category.getId(), List.of()).stream().sorted().forEach(id -> preview.add(products.get(id)));
+            category.setProducts(preview);
+        }
     }
 
-    List<Category> fetchProducts(List<Category> categories) {
-        HashMap<Object, Integer> order = new HashMap<>();
-        IntStream.range(0, categories.size()).forEach(index -> order.put(categories.get(index).getId(), index));
-        List<Category> result = entityManager
-            .createQuery(
-                "select category from Category category left join fetch category.products where category in :categories",
-                Category.class
-            )
-            .setParameter(CATEGORIES_PARAMETER, categories)
-            .getResultList();
-        Collections.sort(result, (o1, o2) -> Integer.compare(order.get(o1.getId()), order.get(o2.getId())));
-        return result;
+    /**
+     * @return the ids of the first products of each category, in a single statement using the primary key of
+     * {@code rel_category__product} for each category.
+     */
+    private Map<Long, List<Long>> findProductIdsPreview(List<Long> categoryIds) {
+        List<String> selects = new ArrayList<>();
+        for (int i = 1; i <= categoryIds.size(); i++) {
+            selects.add(
+                "(SELECT category_id, product_id FROM rel_category__product WHERE category_id = ?" +
+                i +
+                " ORDER BY product_id FETCH FIRST " +
+                PRODUCTS_PREVIEW_SIZE +
+                " ROWS ONLY)"
+            );
+        }
+        Query query = entityManager.createNativeQuery(String.join(" UNION ALL ", selects));
+        for (int i = 1; i <= categoryIds.size(); i++) {
+            query.setParameter(i, categoryIds.get(i - 1));
+        }
+        Map<Long, List<Long>> productIds = new HashMap<>();
+        for (Object row : query.getResultList()) {
+            Object[] columns = (Object[]) row;
+            Long categoryId = ((Number) columns[0]).longValue();
+            productIds.computeIfAbsent(categoryId, id -> new ArrayList<>()).add(((Number) columns[1]).longValue());
+        }
+        return productIds;
     }
 }
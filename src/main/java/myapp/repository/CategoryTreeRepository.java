@@ -0,0 +1,126 @@
+package myapp.repository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository for the closure of the category tree, in plain SQL.
+ * <p>
+ * The {@code category_closure} table has a row for every category and each of its ancestors, itself included at depth
+ * 0. Its rows are deleted with their categories.
+ */
+@Repository
+public class CategoryTreeRepository {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public CategoryTreeRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Add a new category, without children, to the tree.
+     *
+     * @param id the id of the category, whose row must exist.
+     * @param parentId the id of its parent, or {@code null} for a root.
+     */
+    public void insertLeaf(Long id, Long parentId) {
+        jdbcTemplate.update(
+            "INSERT INTO category_closure (ancestor_id, descendant_id, depth) VALUES (:id, :id, 0)",
+            Map.of("id", id)
+        );
+        if (parentId != null) {
+            jdbcTemplate.update(
+                "INSERT INTO category_closure (ancestor_id, descendant_id, depth)" +
+                " SELECT ancestor_id, :id, depth + 1 FROM category_closure WHERE descendant_id = :parentId",
+                Map.of("id", id, "parentId", parentId)
+            );
+        }
+    }
+
+    /**
+     * Move a category, with its subtree, under another parent.
+     *
+     * @param id the id of the category.
+     * @param parentId the id of its new parent, which must not be in its subtree, or {@code null} to make it a root.
+     */
+    public void move(Long id, Long parentId) {
+        // detach the subtree from the ancestors of the category
+        jdbcTemplate.update(
+            "DELETE FROM category_closure" +
+            " WHERE descendant_id IN (SELECT descendant_id FROM category_closure WHERE ancestor_id = :id)" +
+            " AND ancestor_id NOT IN (SELECT descendant_id FROM category_closure WHERE ancestor_id = :id)",
+            Map.of("id", id)
+        );
+        if (parentId != null) {
+            jdbcTemplate.update(
+                "INSERT INTO category_closure (ancestor_id, descendant_id, depth)" +
+                " SELECT above.ancestor_id, below.descendant_id, above.depth + below.depth + 1" +
+                " FROM category_closure above CROSS JOIN category_closure below" +
+                " WHERE above.descendant_id = :parentId AND below.ancestor_id = :id",
+                Map.of("id", id, "parentId", parentId)
+            );
+        }
+    }
+
+    /**
+     * Find the parent of a category.
+     *
+     * @param id the id of the category.
+     * @return the id of its parent, empty for a root.
+     */
+    public Optional<Long> findParentId(Long id) {
+        List<Long> parents = jdbcTemplate.queryForList(
+            "SELECT ancestor_id FROM category_closure WHERE descendant_id = :id AND depth = 1",
+            Map.of("id", id),
+            Long.class
+        );
+        return parents.stream().findFirst();
+    }
+
+    /**
+     * Find the ancestors of a category.
+     *
+     * @param id the id of the category.
+     * @return the ids of the category and of its ancestors.
+     */
+    public List<Long> findAncestorIds(Long id) {
+        return jdbcTemplate.queryForList(
+            "SELECT ancestor_id FROM category_closure WHERE descendant_id = :id",
+            Map.of("id", id),
+            Long.class
+        );
+    }
+
+    /**
+     * @param ancestorId the id of a category.
+     * @param id the id of another category.
+     * @return true if the second category is the first one or one of its descendants.
+     */
+    public boolean isInSubtree(Long ancestorId, Long id) {
+        return !jdbcTemplate
+            .queryForList(
+                "SELECT 1 FROM category_closure WHERE ancestor_id = :ancestorId AND descendant_id = :id",
+                Map.of("ancestorId", ancestorId, "id", id),
+                Integer.class
+            )
+            .isEmpty();
+    }
+
+    /**
+     * @param id the id of a category.
+     * @return true if the category has children.
+     */
+    public boolean hasChildren(Long id) {
+        return !jdbcTemplate
+            .queryForList(
+                "SELECT 1 FROM category_closure WHERE ancestor_id = :id AND depth = 1 FETCH FIRST 1 ROWS ONLY",
+                Map.of("id", id),
+                Integer.class
+            )
+            .isEmpty();
+    }
+}
@@ -1,6 +1,14 @@
 package myapp.repository;
 
+import java.util.Optional;
 import myapp.domain.Customer;
+import myapp.service.dto.CustomerSummaryDTO;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.stereotype.Repository;
 
@@ -9,4 +17,14 @@ import org.springframework.stereotype.Repository;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface CustomerRepository extends JpaRepository<Customer, Long> {}
+public interface CustomerRepository extends JpaRepository<Customer, Long> {
+    Window<Customer> findAllBy(ScrollPosition position, Sort sort, Limit limit);
+
+    Optional<Customer> findOneByNormalizedEmail(String normalizedEmail);
+
+    @Query(
+        "select new myapp.service.dto.CustomerSummaryDTO(customer.id, customer.firstName, customer.lastName, customer.email)" +
+        " from Customer customer"
+    )
+    Page<CustomerSummaryDTO> findAllSummaries(Pageable pageable);
+}
@@ -0,0 +1,28 @@
+package myapp.repository;
+
+import java.time.Instant;
+
+/**
+ * A row of the {@code idempotency_key} table: the Idempotency-Key of a create request, and the response to replay for it.
+ *
+ * @param login the login of the user who sent the request.
+ * @param key the Idempotency-Key of the request.
+ * @param fingerprint the hash of the method, path and body of the request.
+ * @param createdAt when the first request with this key was received.
+ * @param responseStatus the status of the response, {@code null} while the first request is in progress.
+ * @param responseHeaders the headers of the response to replay, one {@code name: value} per line.
+ * @param responseBody the body of the response, in UTF-8.
+ */
+public record IdempotencyKey(
+    String login,
+    String key,
+    String fingerprint,
+    Instant createdAt,
+    Integer responseStatus,
+    String responseHeaders,
+    String responseBody
+) {
+    public boolean isCompleted() {
+        return responseStatus != null;
+    }
+}
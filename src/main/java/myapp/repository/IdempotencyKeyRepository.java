@@ -0,0 +1,159 @@
+package myapp.repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Optional;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
+
+/**
+ * Repository for the Idempotency-Key of the create requests, in plain SQL.
+ * <p>
+ * A key is claimed by inserting its row, so that the primary key lets a single request in progress have it, across
+ * application instances. Each statement runs in its own transaction, unless called in one, as the connections do not
+ * auto-commit.
+ */
+@Repository
+@Transactional
+public class IdempotencyKeyRepository {
+
+    private static final String SELECT_KEY =
+        "SELECT login, idempotency_key, fingerprint, created_at, response_status, response_headers, response_body FROM idempotency_key";
+
+    private static final String WHERE_KEY = " WHERE login = :login AND idempotency_key = :key";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public IdempotencyKeyRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Claim a key, for a request in progress.
+     *
+     * @param login the login of the user.
+     * @param key the Idempotency-Key.
+     * @param fingerprint the hash of the request.
+     * @param now the current instant.
+     * @return true if the key was claimed, false if it already exists.
+     */
+    public boolean insert(String login, String key, String fingerprint, Instant now) {
+        try {
+            jdbcTemplate.update(
+                "INSERT INTO idempotency_key (login, idempotency_key, fingerprint, created_at) VALUES (:login, :key, :fingerprint, :now)",
+                parameters(login, key).addValue("fingerprint", fingerprint).addValue("now", utc(now))
+            );
+            return true;
+        } catch (DuplicateKeyException e) {
+            // the failed statement aborted the transaction, on some databases
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            return false;
+        }
+    }
+
+    /**
+     * Find a key.
+     *
+     * @param login the login of the user.
+     * @param key the Idempotency-Key.
+     * @return the key, with its response if its request completed.
+     */
+    public Optional<IdempotencyKey> find(String login, String key) {
+        return jdbcTemplate
+            .query(SELECT_KEY + WHERE_KEY, parameters(login, key), IdempotencyKeyRepository::mapKey)
+            .stream()
+            .findFirst();
+    }
+
+    /**
+     * Claim an existing key again, if it expired, or if its request has been in progress for too long to still be.
+     *
+     * @param login the login of the user.
+     * @param key the Idempotency-Key.
+     * @param fingerprint the hash of the request.
+     * @param now the current instant.
+     * @param abandonedBefore the instant before which a request in progress is deemed abandoned.
+     * @param expiredBefore the instant before which a key is expired.
+     * @return true if the key was claimed.
+     */
+    public boolean reclaim(String login, String key, String fingerprint, Instant now, Instant abandonedBefore, Instant expiredBefore) {
+        int updated = jdbcTemplate.update(
+            "UPDATE idempotency_key SET fingerprint = :fingerprint, created_at = :now," +
+            " response_status = NULL, response_headers = NULL, response_body = NULL" +
+            WHERE_KEY +
+            " AND ((response_status IS NULL AND created_at < :abandonedBefore) OR created_at < :expiredBefore)",
+            parameters(login, key)
+                .addValue("fingerprint", fingerprint)
+                .addValue("now", utc(now))
+                .addValue("abandonedBefore", utc(abandonedBefore))
+                .addValue("expiredBefore", utc(expiredBefore))
+        );
+        return updated == 1;
+    }
+
+    /**
+     * Store the response of the request which claimed a key.
+     *
+     * @param login the login of the user.
+     * @param key the Idempotency-Key.
+     * @param status the status of the response.
+     * @param headers the headers of the response to replay, one {@code name: value} per line.
+     * @param body the body of the response.
+     */
+    public void complete(String login, String key, int status, String headers, String body) {
+        jdbcTemplate.update(
+            "UPDATE idempotency_key SET response_status = :status, response_headers = :headers, response_body = :body" + WHERE_KEY,
+            parameters(login, key).addValue("status", status).addValue("headers", headers).addValue("body", body)
+        );
+    }
+
+    /**
+     * Release a key whose request did not complete, so that it can be retried.
+     *
+     * @param login the login of the user.
+     * @param key the Idempotency-Key.
+     */
+    public void deleteInProgress(String login, String key) {
+        jdbcTemplate.update("DELETE FROM idempotency_key" + WHERE_KEY + " AND response_status IS NULL", parameters(login, key));
+    }
+
+    /**
+     * Delete the keys created before an instant.
+     *
+     * @param instant the instant.
+     * @return the number of keys deleted.
+     */
+    public int deleteCreatedBefore(Instant instant) {
+        return jdbcTemplate.update(
+            "DELETE FROM idempotency_key WHERE created_at < :instant",
+            new MapSqlParameterSource("instant", utc(instant))
+        );
+    }
+
+    private static MapSqlParameterSource parameters(String login, String key) {
+        return new MapSqlParameterSource().addValue("login", login).addValue("key", key);
+    }
+
+    private static LocalDateTime utc(Instant instant) {
+        return LocalDateTime.ofInstant(instant, ZoneOffset.UTC);
+    }
+
+    private static IdempotencyKey mapKey(ResultSet resultSet, int rowNum) throws SQLException {
+        return new IdempotencyKey(
+            resultSet.getString("login"),
+            resultSet.getString("idempotency_key"),
+            resultSet.getString("fingerprint"),
+            resultSet.getObject("created_at", LocalDateTime.class).toInstant(ZoneOffset.UTC),
+            resultSet.getObject("response_status", Integer.class),
+            resultSet.getString("response_headers"),
+            resultSet.getString("response_body")
+        );
+    }
+}
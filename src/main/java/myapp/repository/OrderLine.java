@@ -0,0 +1,13 @@
+package myapp.repository;
+
+import java.math.BigDecimal;
+
+/**
+ * A row of the {@code order_line} table: a product of an order placed by checkout.
+ *
+ * @param orderId the id of the order.
+ * @param productId the id of the product.
+ * @param quantity the ordered quantity.
+ * @param unitPrice the price of the product when the order was placed.
+ */
+public record OrderLine(Long orderId, Long productId, int quantity, BigDecimal unitPrice) {}
@@ -0,0 +1,82 @@
+package myapp.repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository for the lines of the orders, in plain SQL so that the lines of an order are written in one JDBC batch.
+ */
+@Repository
+public class OrderLineRepository {
+
+    private static final String INSERT_LINE =
+        "INSERT INTO order_line (order_id, product_id, quantity, unit_price) VALUES (:orderId, :productId, :quantity, :unitPrice)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public OrderLineRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Insert order lines, in one JDBC batch. Their orders must have been flushed already.
+     *
+     * @param lines the lines to insert.
+     */
+    public void insertAll(List<OrderLine> lines) {
+        jdbcTemplate.batchUpdate(
+            INSERT_LINE,
+            lines
+                .stream()
+                .map(line ->
+                    new MapSqlParameterSource()
+                        .addValue("orderId", line.orderId())
+                        .addValue("productId", line.productId())
+                        .addValue("quantity", line.quantity())
+                        .addValue("unitPrice", line.unitPrice())
+                )
+                .toArray(SqlParameterSource[]::new)
+        );
+    }
+
+    /**
+     * Check if a product was ordered.
+     *
+     * @param productId the id of the product.
+     * @return true if some order line refers to the product.
+     */
+    public boolean existsByProductId(Long productId) {
+        return !jdbcTemplate
+            .queryForList(
+                "SELECT 1 FROM order_line WHERE product_id = :productId FETCH FIRST 1 ROWS ONLY",
+                Map.of("productId", productId),
+                Integer.class
+            )
+            .isEmpty();
+    }
+
+    /**
+     * Find the lines of an order.
+     *
+     * @param orderId the id of the order.
+     * @return the lines, by product id.
+     */
+    public List<OrderLine> findAllByOrderId(Long orderId) {
+        return jdbcTemplate.query(
+            "SELECT order_id, product_id, quantity, unit_price FROM order_line WHERE order_id = :orderId ORDER BY product_id",
+            Map.of("orderId", orderId),
+            (resultSet, rowNum) ->
+                new OrderLine(
+                    resultSet.getLong("order_id"),
+                    resultSet.getLong("product_id"),
+                    resultSet.getInt("quantity"),
+                    resultSet.getObject("unit_price", BigDecimal.class)
+                )
+        );
+    }
+}
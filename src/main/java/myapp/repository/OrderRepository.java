@@ -1,7 +1,17 @@
 package myapp.repository;
 
+import java.time.Instant;
 import myapp.domain.Order;
+import myapp.domain.enumeration.OrderStatus;
+import myapp.service.dto.OrderSummaryDTO;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -9,4 +19,28 @@ import org.springframework.stereotype.Repository;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface OrderRepository extends JpaRepository<Order, Long> {}
+public interface OrderRepository extends JpaRepository<Order, Long> {
+    Window<Order> findAllBy(ScrollPosition position, Sort sort, Limit limit);
+
+    @Query(
+        "select new myapp.service.dto.OrderSummaryDTO(customerOrder.id, customerOrder.orderDate, customerOrder.status," +
+        " customerOrder.statusChangedAt, customerOrder.totalAmount, customerOrder.customer.id) from Order customerOrder"
+    )
+    Page<OrderSummaryDTO> findAllSummaries(Pageable pageable);
+
+    @Query(
+        "select new myapp.service.dto.OrderSummaryDTO(customerOrder.id, customerOrder.orderDate, customerOrder.status," +
+        " customerOrder.statusChangedAt, customerOrder.totalAmount, customerOrder.customer.id) from Order customerOrder" +
+        " where customerOrder.customer.id = :customerId"
+    )
+    Page<OrderSummaryDTO> findAllSummariesByCustomerId(@Param("customerId") Long customerId, Pageable pageable);
+
+    Page<Order> findAllByStatusAndStatusChangedAtGreaterThanEqual(OrderStatus status, Instant since, Pageable pageable);
+
+    Page<Order> findAllByStatusAndStatusChangedAtGreaterThanEqualAndStatusChangedAtLessThan(
+        OrderStatus status,
+        Instant since,
+        Instant before,
+        Pageable pageable
+    );
+}
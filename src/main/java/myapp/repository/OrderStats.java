@@ -0,0 +1,14 @@
+package myapp.repository;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * The figures of the orders placed in a period, which are not cancelled.
+ *
+ * @param bucketStart the start of the period, in UTC.
+ * @param orderCount the number of orders.
+ * @param revenue the sum of their total amounts.
+ * @param shipping the sum of their shipping costs.
+ */
+public record OrderStats(Instant bucketStart, long orderCount, BigDecimal revenue, BigDecimal shipping) {}
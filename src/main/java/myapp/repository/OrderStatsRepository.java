@@ -0,0 +1,144 @@
+package myapp.repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import myapp.domain.enumeration.OrderStatus;
+import myapp.domain.enumeration.StatsGranularity;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository for the rollups of the orders by hour and by day, in plain SQL.
+ * <p>
+ * Each rollup row holds the figures of the orders which are not cancelled, whose order date is in its period. Periods
+ * start in UTC, as the timestamps are stored.
+ */
+@Repository
+public class OrderStatsRepository {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public OrderStatsRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Add figures to a period, creating its row if needed.
+     *
+     * @param granularity the rollup.
+     * @param stats the figures to add, which may be negative, and their period.
+     */
+    public void add(StatsGranularity granularity, OrderStats stats) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource()
+            .addValue("bucketStart", utc(stats.bucketStart()))
+            .addValue("orderCount", stats.orderCount())
+            .addValue("revenue", stats.revenue())
+            .addValue("shipping", stats.shipping());
+        int updated = jdbcTemplate.update(
+            "UPDATE " +
+            table(granularity) +
+            " SET order_count = order_count + :orderCount, revenue = revenue + :revenue, shipping = shipping + :shipping" +
+            " WHERE bucket_start = :bucketStart",
+            parameters
+        );
+        if (updated == 0) {
+            jdbcTemplate.update(
+                "INSERT INTO " +
+                table(granularity) +
+                " (bucket_start, order_count, revenue, shipping) VALUES (:bucketStart, :orderCount, :revenue, :shipping)",
+                parameters
+            );
+        }
+    }
+
+    /**
+     * Delete both rollups, over a period.
+     *
+     * @param from the start of the period, inclusive, at the start of a day.
+     * @param to the end of the period, exclusive, at the start of a day.
+     */
+    public void deleteAll(Instant from, Instant to) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource().addValue("from", utc(from)).addValue("to", utc(to));
+        for (StatsGranularity granularity : StatsGranularity.values()) {
+            jdbcTemplate.update(
+                "DELETE FROM " + table(granularity) + " WHERE bucket_start >= :from AND bucket_start < :to",
+                parameters
+            );
+        }
+    }
+
+    /**
+     * Compute both rollups from the orders, over a period whose rollups were deleted.
+     *
+     * @param from the start of the period, inclusive, at the start of a day.
+     * @param to the end of the period, exclusive, at the start of a day.
+     */
+    public void insertFromOrders(Instant from, Instant to) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource()
+            .addValue("from", utc(from))
+            .addValue("to", utc(to))
+            .addValue("cancelled", OrderStatus.CANCELLED.getCode());
+        jdbcTemplate.update(
+            "INSERT INTO order_stats_hourly (bucket_start, order_count, revenue, shipping)" +
+            " SELECT DATE_TRUNC('HOUR', order_date), COUNT(*), SUM(total_amount), COALESCE(SUM(shipping_cost), 0) FROM jhi_order" +
+            " WHERE order_date >= :from AND order_date < :to AND status <> :cancelled GROUP BY DATE_TRUNC('HOUR', order_date)",
+            parameters
+        );
+        jdbcTemplate.update(
+            "INSERT INTO order_stats_daily (bucket_start, order_count, revenue, shipping)" +
+            " SELECT DATE_TRUNC('DAY', bucket_start), SUM(order_count), SUM(revenue), SUM(shipping) FROM order_stats_hourly" +
+            " WHERE bucket_start >= :from AND bucket_start < :to GROUP BY DATE_TRUNC('DAY', bucket_start)",
+            parameters
+        );
+    }
+
+    /**
+     * Find the figures of the periods which have orders, in a range.
+     *
+     * @param granularity the rollup.
+     * @param from the start of the range, inclusive.
+     * @param to the end of the range, exclusive.
+     * @return the figures, by period.
+     */
+    public List<OrderStats> findAll(StatsGranularity granularity, Instant from, Instant to) {
+        return jdbcTemplate.query(
+            "SELECT bucket_start, order_count, revenue, shipping FROM " +
+            table(granularity) +
+            " WHERE bucket_start >= :from AND bucket_start < :to AND order_count <> 0 ORDER BY bucket_start",
+            new MapSqlParameterSource().addValue("from", utc(from)).addValue("to", utc(to)),
+            OrderStatsRepository::mapStats
+        );
+    }
+
+    /**
+     * @return true if the rollups have no row.
+     */
+    public boolean isEmpty() {
+        return jdbcTemplate.queryForList("SELECT 1 FROM order_stats_daily FETCH FIRST 1 ROWS ONLY", new MapSqlParameterSource()).isEmpty();
+    }
+
+    private static String table(StatsGranularity granularity) {
+        return switch (granularity) {
+            case HOUR -> "order_stats_hourly";
+            case DAY -> "order_stats_daily";
+        };
+    }
+
+    private static LocalDateTime utc(Instant instant) {
+        return LocalDateTime.ofInstant(instant, ZoneOffset.UTC);
+    }
+
+    private static OrderStats mapStats(ResultSet resultSet, int rowNum) throws SQLException {
+        return new OrderStats(
+            resultSet.getObject("bucket_start", LocalDateTime.class).toInstant(ZoneOffset.UTC),
+            resultSet.getLong("order_count"),
+            resultSet.getBigDecimal("revenue"),
+            resultSet.getBigDecimal("shipping")
+        );
+    }
+}
@@ -1,7 +1,19 @@
 package myapp.repository;
 
+import jakarta.persistence.QueryHint;
+import java.util.stream.Stream;
 import myapp.domain.Product;
+import myapp.service.dto.ProductCardDTO;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -9,4 +21,48 @@ import org.springframework.stereotype.Repository;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {}
+public interface ProductRepository extends JpaRepository<Product, Long> {
+    /**
+     * The ids of the products of a category and of its descendants.
+     */
+    String PRODUCTS_IN_SUBTREE =
+        "SELECT rel.product_id FROM rel_category__product rel" +
+        " JOIN category_closure tree ON tree.descendant_id = rel.category_id WHERE tree.ancestor_id = :categoryId";
+
+    Slice<Product> findAllByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    Window<Product> findAllBy(ScrollPosition position, Sort sort, Limit limit);
+
+    @Query(
+        "select new myapp.service.dto.ProductCardDTO(product.id, product.title, product.price, product.rating, product.status)" +
+        " from Product product"
+    )
+    Page<ProductCardDTO> findAllCards(Pageable pageable);
+
+    // exports bypass the second-level cache, which would otherwise be flushed by the whole table
+    @QueryHints(
+        {
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE")
+        }
+    )
+    Stream<Product> streamAllByOrderByIdAsc();
+
+    @Query(
+        value = "SELECT product.* FROM product WHERE product.id IN (" +
+        PRODUCTS_IN_SUBTREE +
+        ") ORDER BY product.id",
+        countQuery = "SELECT COUNT(*) FROM product WHERE product.id IN (" + PRODUCTS_IN_SUBTREE + ")",
+        nativeQuery = true
+    )
+    Page<Product> findAllInCategorySubtree(@Param("categoryId") Long categoryId, Pageable pageable);
+
+    @Query(
+        value = "SELECT product.* FROM product JOIN rel_category__product rel ON rel.product_id = product.id" +
+        " WHERE rel.category_id = :categoryId ORDER BY rel.product_id",
+        countQuery = "SELECT COUNT(*) FROM rel_category__product rel WHERE rel.category_id = :categoryId",
+        nativeQuery = true
+    )
+    Page<Product> findAllByCategoryId(@Param("categoryId") Long categoryId, Pageable pageable);
+}
@@ -0,0 +1,188 @@
+package myapp.repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.IntStream;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository for the stock of the products and its reservations, in plain SQL.
+ * <p>
+ * The stock is decremented by conditional updates, so that concurrent writers can never take it below zero. A null stock
+ * means that the product does not track its stock: it can always be taken, and stays null. The updates bypass
+ * the persistence context and the second-level cache, from which the caller must evict the updated products.
+ * Timestamps are stored in UTC, as Hibernate does.
+ */
+@Repository
+public class StockRepository {
+
+    private static final String DECREMENT_STOCK =
+        "UPDATE product SET quantity_in_stock = quantity_in_stock - :quantity " +
+        "WHERE id = :productId AND (quantity_in_stock IS NULL OR quantity_in_stock >= :quantity)";
+
+    private static final String INCREMENT_STOCK =
+        "UPDATE product SET quantity_in_stock = quantity_in_stock + :quantity WHERE id = :productId AND quantity_in_stock IS NOT NULL";
+
+    private static final String INSERT_RESERVATION =
+        "INSERT INTO stock_reservation (id, product_id, quantity, expires_at) VALUES (:id, :productId, :quantity, :expiresAt)";
+
+    private static final String SELECT_RESERVATION = "SELECT id, product_id, quantity, expires_at FROM stock_reservation";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public StockRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Take stock from a product, if it has enough of it or does not track its stock.
+     *
+     * @param productId the id of the product.
+     * @param quantity the quantity to take.
+     * @return true if the stock was taken, false if the product does not exist or has less than {@code quantity} in stock.
+     */
+    public boolean decrementStock(Long productId, int quantity) {
+        return jdbcTemplate.update(DECREMENT_STOCK, Map.of("productId", productId, "quantity", quantity)) == 1;
+    }
+
+    /**
+     * Take stock from products, in one JDBC batch, in the iteration order of {@code quantities}.
+     *
+     * @param quantities the quantities to take, by product id.
+     * @return the ids of the products which do not exist or have less than their quantity in stock, from which nothing
+     * was taken.
+     */
+    public List<Long> decrementStocks(Map<Long, Integer> quantities) {
+        List<Map.Entry<Long, Integer>> entries = List.copyOf(quantities.entrySet());
+        int[] counts = jdbcTemplate.batchUpdate(
+            DECREMENT_STOCK,
+            entries
+                .stream()
+                .map(entry -> new MapSqlParameterSource().addValue("productId", entry.getKey()).addValue("quantity", entry.getValue()))
+                .toArray(SqlParameterSource[]::new)
+        );
+        return IntStream.range(0, counts.length).filter(i -> counts[i] == 0).mapToObj(i -> entries.get(i).getKey()).toList();
+    }
+
+    /**
+     * Give stock back to a product. Products whose stock is not tracked (null) are left untouched.
+     *
+     * @param productId the id of the product.
+     * @param quantity the quantity to give back.
+     * @return true if the stock was given back, false if the product does not exist or does not track its stock.
+     */
+    public boolean incrementStock(Long productId, int quantity) {
+        return jdbcTemplate.update(INCREMENT_STOCK, Map.of("productId", productId, "quantity", quantity)) == 1;
+    }
+
+    /**
+     * Insert reservations, in one JDBC batch.
+     *
+     * @param reservations the reservations to insert.
+     */
+    public void insertReservations(List<StockReservation> reservations) {
+        jdbcTemplate.batchUpdate(
+            INSERT_RESERVATION,
+            reservations
+                .stream()
+                .map(reservation ->
+                    new MapSqlParameterSource()
+                        .addValue("id", reservation.id())
+                        .addValue("productId", reservation.productId())
+                        .addValue("quantity", reservation.quantity())
+                        .addValue("expiresAt", utc(reservation.expiresAt()))
+                )
+                .toArray(SqlParameterSource[]::new)
+        );
+    }
+
+    /**
+     * Get the stock of a product.
+     *
+     * @param productId the id of the product.
+     * @return the quantity in stock, 0 if the product does not exist, {@link Integer#MAX_VALUE} if its stock is not tracked.
+     */
+    public int findStock(Long productId) {
+        List<Integer> stock = jdbcTemplate.queryForList(
+            "SELECT quantity_in_stock FROM product WHERE id = :productId",
+            Map.of("productId", productId),
+            Integer.class
+        );
+        if (stock.isEmpty()) {
+            return 0;
+        }
+        return stock.get(0) == null ? Integer.MAX_VALUE : stock.get(0);
+    }
+
+    /**
+     * Find a reservation.
+     *
+     * @param id the id of the reservation.
+     * @return the reservation, empty if it was confirmed, released or never existed.
+     */
+    public Optional<StockReservation> findReservation(UUID id) {
+        return jdbcTemplate
+            .query(SELECT_RESERVATION + " WHERE id = :id", Map.of("id", id), StockRepository::mapReservation)
+            .stream()
+            .findFirst();
+    }
+
+    /**
+     * Find the oldest expired reservations.
+     *
+     * @param now the current instant.
+     * @param limit the maximum number of reservations to return.
+     * @return the reservations which expired before {@code now}, by expiry.
+     */
+    public List<StockReservation> findExpiredReservations(Instant now, int limit) {
+        return jdbcTemplate.query(
+            SELECT_RESERVATION + " WHERE expires_at < :now ORDER BY expires_at FETCH FIRST " + limit + " ROWS ONLY",
+            Map.of("now", utc(now)),
+            StockRepository::mapReservation
+        );
+    }
+
+    /**
+     * Delete a reservation, whose stock is then not given back by this repository.
+     *
+     * @param id the id of the reservation.
+     * @return true if this call deleted the reservation, false if it did not exist (anymore).
+     */
+    public boolean deleteReservation(UUID id) {
+        return jdbcTemplate.update("DELETE FROM stock_reservation WHERE id = :id", Map.of("id", id)) == 1;
+    }
+
+    /**
+     * Delete reservations, whose stock is then not given back by this repository.
+     *
+     * @param ids the ids of the reservations.
+     * @return the number of reservations deleted by this call.
+     */
+    public int deleteReservations(Collection<UUID> ids) {
+        return jdbcTemplate.update("DELETE FROM stock_reservation WHERE id IN (:ids)", Map.of("ids", ids));
+    }
+
+    private static LocalDateTime utc(Instant instant) {
+        return LocalDateTime.ofInstant(instant, ZoneOffset.UTC);
+    }
+
+    private static StockReservation mapReservation(ResultSet resultSet, int rowNum) throws SQLException {
+        return new StockReservation(
+            resultSet.getObject("id", UUID.class),
+            resultSet.getLong("product_id"),
+            resultSet.getInt("quantity"),
+            resultSet.getObject("expires_at", LocalDateTime.class).toInstant(ZoneOffset.UTC)
+        );
+    }
+}
@@ -0,0 +1,14 @@
+package myapp.repository;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A row of the {@code stock_reservation} table: stock taken from a product for a pending checkout.
+ *
+ * @param id the id of the reservation.
+ * @param productId the id of the reserved product.
+ * @param quantity the reserved quantity.
+ * @param expiresAt the instant after which the stock is given back to the product.
+ */
+public record StockReservation(UUID id, Long productId, int quantity, Instant expiresAt) {}
@@ -1,7 +1,17 @@
 package myapp.repository;
 
+import jakarta.persistence.QueryHint;
+import java.util.List;
+import java.util.stream.Stream;
 import myapp.domain.WishList;
+import myapp.service.dto.WishListSummaryDTO;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -9,4 +19,21 @@ import org.springframework.stereotype.Repository;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface WishListRepository extends JpaRepository<WishList, Long> {}
+public interface WishListRepository extends JpaRepository<WishList, Long> {
+    Window<WishList> findAllBy(ScrollPosition position, Sort sort, Limit limit);
+
+    @Query(
+        "select new myapp.service.dto.WishListSummaryDTO(wishList.id, wishList.title, wishList.restricted, count(product.id))" +
+        " from WishList wishList left join wishList.products product where wishList.customer.id = :customerId" +
+        " group by wishList.id, wishList.title, wishList.restricted order by wishList.id"
+    )
+    List<WishListSummaryDTO> findAllSummariesByCustomerId(@Param("customerId") Long customerId);
+
+    @QueryHints(
+        {
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+        }
+    )
+    Stream<WishList> streamAllByOrderByIdAsc();
+}
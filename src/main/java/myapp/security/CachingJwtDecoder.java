@@ -0,0 +1,86 @@
+package myapp.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import myapp.management.SecurityMetersService;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+/**
+ * A {@link JwtDecoder} remembering the tokens already verified by its delegate.
+ * <p>
+ * Tokens are keyed by their SHA-256 digest, and each one is kept until it expires (plus the clock skew tolerated by
+ * {@link TokenLifetimeValidator}). Expired or unknown tokens, and so tampered ones, always go through the delegate,
+ * which rejects them exactly as without the cache.
+ */
+public class CachingJwtDecoder implements JwtDecoder {
+
+    private final JwtDecoder delegate;
+
+    private final SecurityMetersService metersService;
+
+    private final Cache<ByteBuffer, Jwt> verifiedTokens;
+
+    public CachingJwtDecoder(JwtDecoder delegate, SecurityMetersService metersService, long maxEntries) {
+        this.delegate = delegate;
+        this.metersService = metersService;
+        this.verifiedTokens = Caffeine.newBuilder().maximumSize(maxEntries).expireAfter(new UntilTokenExpiry()).build();
+    }
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        ByteBuffer key = digest(token);
+        Jwt jwt = verifiedTokens.getIfPresent(key);
+        if (jwt != null && isUsable(jwt)) {
+            metersService.trackTokenCacheHit();
+            return jwt;
+        }
+        if (jwt != null) {
+            verifiedTokens.invalidate(key);
+        }
+        metersService.trackTokenCacheMiss();
+        jwt = delegate.decode(token);
+        if (jwt.getExpiresAt() != null) {
+            verifiedTokens.put(key, jwt);
+        }
+        return jwt;
+    }
+
+    private static boolean isUsable(Jwt jwt) {
+        return Instant.now().isBefore(jwt.getExpiresAt().plus(TokenLifetimeValidator.CLOCK_SKEW));
+    }
+
+    private static ByteBuffer digest(String token) {
+        try {
+            return ByteBuffer.wrap(MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static final class UntilTokenExpiry implements Expiry<ByteBuffer, Jwt> {
+
+        @Override
+        public long expireAfterCreate(ByteBuffer key, Jwt jwt, long currentTime) {
+            return Math.max(0, Duration.between(Instant.now(), jwt.getExpiresAt().plus(TokenLifetimeValidator.CLOCK_SKEW)).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(ByteBuffer key, Jwt jwt, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, jwt, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(ByteBuffer key, Jwt jwt, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -7,8 +7,11 @@ import myapp.repository.UserRepository;
 import org.hibernate.validator.internal.constraintvalidators.hv.EmailValidator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Component;
@@ -16,16 +19,28 @@ import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Authenticate a user from the database.
+ * <p>
+ * Resolved users are kept in the {@link #USER_DETAILS_CACHE} cache, keyed by the lower-cased login or email used to
+ * authenticate. {@link myapp.service.UserService} evicts them whenever a user is changed.
+ * <p>
+ * Password hashes made with an outdated algorithm or cost are upgraded on the next successful login.
  */
 @Component("userDetailsService")
-public class DomainUserDetailsService implements UserDetailsService {
+public class DomainUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
+
+    public static final String USER_DETAILS_CACHE = "userDetails";
 
     private static final Logger LOG = LoggerFactory.getLogger(DomainUserDetailsService.class);
 
+    private static final EmailValidator EMAIL_VALIDATOR = new EmailValidator();
+
     private final UserRepository userRepository;
 
-    public DomainUserDetailsService(UserRepository userRepository) {
+    private final Cache userDetailsCache;
+
+    public DomainUserDetailsService(UserRepository userRepository, CacheManager cacheManager) {
         this.userRepository = userRepository;
+        this.userDetailsCache = Objects.requireNonNull(cacheManager.getCache(USER_DETAILS_CACHE));
     }
 
     @Override
@@ -33,20 +48,46 @@ public class DomainUserDetailsService implements UserDetailsService {
     public UserDetails loadUserByUsername(final String login) {
         LOG.debug("Authenticating {}", login);
 
-        if (new EmailValidator().isValid(login, null)) {
+        String lowercaseLogin = login.toLowerCase(Locale.ENGLISH);
+        UserDetails cached = userDetailsCache.get(lowercaseLogin, UserDetails.class);
+        if (cached == null) {
+            cached = loadFromDatabase(login, lowercaseLogin);
+            userDetailsCache.put(lowercaseLogin, cached);
+        }
+        // Authentication erases the credentials of the returned user, so never hand out the cached instance
+        return org.springframework.security.core.userdetails.User.withUserDetails(cached).build();
+    }
+
+    private UserDetails loadFromDatabase(String login, String lowercaseLogin) {
+        if (EMAIL_VALIDATOR.isValid(login, null)) {
             return userRepository
                 .findOneWithAuthoritiesByEmailIgnoreCase(login)
                 .map(user -> createSpringSecurityUser(login, user))
                 .orElseThrow(() -> new UsernameNotFoundException("User with email " + login + " was not found in the database"));
         }
 
-        String lowercaseLogin = login.toLowerCase(Locale.ENGLISH);
         return userRepository
             .findOneWithAuthoritiesByLogin(lowercaseLogin)
             .map(user -> createSpringSecurityUser(lowercaseLogin, user))
             .orElseThrow(() -> new UsernameNotFoundException("User " + lowercaseLogin + " was not found in the database"));
     }
 
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        userRepository
+            .findOneByLogin(userDetails.getUsername())
+            .ifPresent(user -> {
+                LOG.debug("Upgrading the password hash of user {}", user.getLogin());
+                user.setPassword(newPassword);
+                userDetailsCache.evict(user.getLogin());
+                if (user.getEmail() != null) {
+                    userDetailsCache.evict(user.getEmail().toLowerCase(Locale.ENGLISH));
+                }
+            });
+        return org.springframework.security.core.userdetails.User.withUserDetails(userDetails).password(newPassword).build();
+    }
+
     private org.springframework.security.core.userdetails.User createSpringSecurityUser(String lowercaseLogin, User user) {
         if (!user.isActivated()) {
             throw new UserNotActivatedException("User " + lowercaseLogin + " was not activated");
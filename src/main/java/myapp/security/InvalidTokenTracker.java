@@ -0,0 +1,69 @@
+package myapp.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import myapp.config.ApplicationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Counts the invalid bearer tokens presented by each client (remote address) over a fixed window.
+ * <p>
+ * A client is blocked once it reaches the configured number of failures, until its window ends.
+ */
+@Component
+public class InvalidTokenTracker {
+
+    private final int maxFailures;
+
+    private final Cache<String, AtomicInteger> failures;
+
+    public InvalidTokenTracker(ApplicationProperties applicationProperties) {
+        ApplicationProperties.Security.InvalidTokens properties = applicationProperties.getSecurity().getInvalidTokens();
+        this.maxFailures = properties.getMaxFailures();
+        this.failures = Caffeine.newBuilder()
+            .maximumSize(properties.getMaxClients())
+            .expireAfter(new FixedWindow(Duration.ofSeconds(properties.getWindowSeconds())))
+            .build();
+    }
+
+    /**
+     * Record an invalid token presented by a client.
+     *
+     * @param client the remote address of the client.
+     * @return the number of failures of the client in its current window.
+     */
+    public int recordFailure(String client) {
+        return failures.get(client, key -> new AtomicInteger()).incrementAndGet();
+    }
+
+    /**
+     * Check if a client has presented too many invalid tokens in its current window.
+     *
+     * @param client the remote address of the client.
+     * @return true if the requests of the client should be rejected.
+     */
+    public boolean isBlocked(String client) {
+        AtomicInteger count = failures.getIfPresent(client);
+        return count != null && count.get() >= maxFailures;
+    }
+
+    private record FixedWindow(Duration window) implements Expiry<String, AtomicInteger> {
+        @Override
+        public long expireAfterCreate(String key, AtomicInteger value, long currentTime) {
+            return window.toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, AtomicInteger value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(String key, AtomicInteger value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package myapp.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
+import java.util.Locale;
+import myapp.config.ApplicationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Token buckets limiting the authentication attempts per login and per remote address.
+ * <p>
+ * Every attempt takes a token from both buckets, before any password is verified. A login failing
+ * {@code max-consecutive-failures} times in a row has its bucket emptied, and refilled only after {@code lockout-seconds},
+ * so that its next attempts are rejected without verifying the password.
+ */
+@Component
+public class LoginAttemptLimiter {
+
+    private static final long NANOS_PER_MINUTE = Duration.ofMinutes(1).toNanos();
+
+    private final ApplicationProperties.Security.LoginLimiter properties;
+
+    private final long lockoutNanos;
+
+    private final Cache<String, TokenBucket> loginBuckets;
+
+    private final Cache<String, TokenBucket> addressBuckets;
+
+    public LoginAttemptLimiter(ApplicationProperties applicationProperties) {
+        this.properties = applicationProperties.getSecurity().getLoginLimiter();
+        this.lockoutNanos = Duration.ofSeconds(properties.getLockoutSeconds()).toNanos();
+        this.loginBuckets = buckets(properties.getLogin());
+        this.addressBuckets = buckets(properties.getAddress());
+    }
+
+    private Cache<String, TokenBucket> buckets(ApplicationProperties.Security.LoginLimiter.Bucket bucket) {
+        // an idle bucket is full again once it has been refilled, so it can be forgotten
+        long refillNanos = NANOS_PER_MINUTE * bucket.getCapacity() / Math.max(1, bucket.getRefillPerMinute());
+        return Caffeine.newBuilder()
+            .maximumSize(properties.getMaxKeys())
+            .expireAfterAccess(Duration.ofNanos(refillNanos + lockoutNanos))
+            .build();
+    }
+
+    /**
+     * Take a token for an authentication attempt.
+     *
+     * @param login the login (or email) used to authenticate.
+     * @param address the remote address of the client.
+     * @return the time to wait before the next attempt, {@link Duration#ZERO} if this one is allowed.
+     */
+    public Duration tryAcquire(String login, String address) {
+        long now = System.nanoTime();
+        long wait = bucket(addressBuckets, address, properties.getAddress()).tryConsume(now);
+        if (wait == 0) {
+            wait = bucket(loginBuckets, key(login), properties.getLogin()).tryConsume(now);
+        }
+        return Duration.ofNanos(wait);
+    }
+
+    /**
+     * Record a failed authentication attempt.
+     *
+     * @param login the login (or email) used to authenticate.
+     */
+    public void loginFailed(String login) {
+        TokenBucket bucket = loginBuckets.getIfPresent(key(login));
+        if (bucket != null) {
+            bucket.failed(System.nanoTime(), properties.getMaxConsecutiveFailures(), lockoutNanos);
+        }
+    }
+
+    /**
+     * Record a successful authentication attempt.
+     *
+     * @param login the login (or email) used to authenticate.
+     */
+    public void loginSucceeded(String login) {
+        TokenBucket bucket = loginBuckets.getIfPresent(key(login));
+        if (bucket != null) {
+            bucket.succeeded();
+        }
+    }
+
+    private static String key(String login) {
+        return login == null ? "" : login.toLowerCase(Locale.ENGLISH);
+    }
+
+    private static TokenBucket bucket(
+        Cache<String, TokenBucket> buckets,
+        String key,
+        ApplicationProperties.Security.LoginLimiter.Bucket bucket
+    ) {
+        return buckets.get(key, k -> new TokenBucket(bucket.getCapacity(), bucket.getRefillPerMinute(), System.nanoTime()));
+    }
+
+    private static final class TokenBucket {
+
+        private final int capacity;
+
+        private final double tokensPerNano;
+
+        private double tokens;
+
+        private long refilledAt;
+
+        private int consecutiveFailures;
+
+        TokenBucket(int capacity, int refillPerMinute, long now) {
+            this.capacity = capacity;
+            this.tokensPerNano = (double) refillPerMinute / NANOS_PER_MINUTE;
+            this.tokens = capacity;
+            this.refilledAt = now;
+        }
+
+        /**
+         * @return 0 if a token was taken, else the nanoseconds to wait for the next token.
+         */
+        synchronized long tryConsume(long now) {
+            if (now > refilledAt) {
+                tokens = Math.min(capacity, tokens + (now - refilledAt) * tokensPerNano);
+                refilledAt = now;
+            }
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0;
+            }
+            if (tokensPerNano == 0) {
+                return Long.MAX_VALUE;
+            }
+            return Math.max(1, (refilledAt - now) + (long) Math.ceil((1 - tokens) / tokensPerNano));
+        }
+
+        synchronized void failed(long now, int maxConsecutiveFailures, long lockoutNanos) {
+            if (++consecutiveFailures >= maxConsecutiveFailures) {
+                tokens = 0;
+                refilledAt = Math.max(refilledAt, now + lockoutNanos);
+            }
+        }
+
+        synchronized void succeeded() {
+            consecutiveFailures = 0;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package myapp.security;
+
+import java.time.Duration;
+import java.time.Instant;
+import org.springframework.security.oauth2.core.OAuth2Error;
+import org.springframework.security.oauth2.core.OAuth2TokenValidator;
+import org.springframework.security.oauth2.core.OAuth2TokenValidatorResult;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+/**
+ * Validates the {@code exp} and {@code nbf} claims of a token, like
+ * {@link org.springframework.security.oauth2.jwt.JwtTimestampValidator}, but reports each failure with its own error
+ * code so that it can be told apart without parsing the description.
+ */
+public class TokenLifetimeValidator implements OAuth2TokenValidator<Jwt> {
+
+    public static final Duration CLOCK_SKEW = Duration.ofSeconds(60);
+
+    public static final String TOKEN_EXPIRED = "token_expired";
+
+    public static final String TOKEN_NOT_YET_VALID = "token_not_yet_valid";
+
+    private static final OAuth2TokenValidatorResult EXPIRED = OAuth2TokenValidatorResult.failure(
+        new OAuth2Error(TOKEN_EXPIRED, "Jwt expired", null)
+    );
+
+    private static final OAuth2TokenValidatorResult NOT_YET_VALID = OAuth2TokenValidatorResult.failure(
+        new OAuth2Error(TOKEN_NOT_YET_VALID, "Jwt used before its not-before time", null)
+    );
+
+    @Override
+    public OAuth2TokenValidatorResult validate(Jwt jwt) {
+        Instant now = Instant.now();
+        if (jwt.getExpiresAt() != null && now.minus(CLOCK_SKEW).isAfter(jwt.getExpiresAt())) {
+            return EXPIRED;
+        }
+        if (jwt.getNotBefore() != null && now.plus(CLOCK_SKEW).isBefore(jwt.getNotBefore())) {
+            return NOT_YET_VALID;
+        }
+        return OAuth2TokenValidatorResult.success();
+    }
+}
@@ -0,0 +1,40 @@
+package myapp.service;
+
+import myapp.repository.CategoryProductCountRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service recounting the product counters of the categories.
+ * <p>
+ * {@link CategoryService} updates the counters of a category and of its ancestors as its products change. They drift
+ * when the status of a product changes, or when concurrent changes link the same product to categories of a subtree:
+ * the recount corrects them.
+ */
+@Service
+public class CategoryProductCountReconciler {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CategoryProductCountReconciler.class);
+
+    private final CategoryProductCountRepository categoryProductCountRepository;
+
+    public CategoryProductCountReconciler(CategoryProductCountRepository categoryProductCountRepository) {
+        this.categoryProductCountRepository = categoryProductCountRepository;
+    }
+
+    /**
+     * Recount the product counters of every category.
+     * <p>
+     * This is scheduled by default to run every night, see {@code application.category-counts.reconcile-cron}.
+     */
+    @Scheduled(cron = "${application.category-counts.reconcile-cron:0 45 3 * * ?}")
+    @Transactional
+    public void reconcile() {
+        long start = System.currentTimeMillis();
+        int categories = categoryProductCountRepository.recountAll();
+        LOG.debug("Recounted the products of {} categories in {} ms", categories, System.currentTimeMillis() - start);
+    }
+}
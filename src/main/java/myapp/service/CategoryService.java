@@ -1,17 +1,34 @@
 package myapp.service;
 
+import jakarta.persistence.EntityManager;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 import myapp.domain.Category;
+import myapp.domain.Product;
+import myapp.repository.CategoryProductCountRepository;
 import myapp.repository.CategoryRepository;
+import myapp.repository.CategoryTreeRepository;
+import myapp.repository.ProductRepository;
+import myapp.service.search.CategoryChangedEvent;
+import org.hibernate.Hibernate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Service Implementation for managing {@link myapp.domain.Category}.
+ * <p>
+ * The closure of the category tree is maintained as categories are created, moved and deleted, so that subtrees and
+ * ancestors are read with a single query, and so are the product counters of the categories as their products change.
  */
 @Service
 @Transactional
@@ -21,30 +38,82 @@ public class CategoryService {
 
     private final CategoryRepository categoryRepository;
 
-    public CategoryService(CategoryRepository categoryRepository) {
+    private final CategoryTreeRepository categoryTreeRepository;
+
+    private final CategoryProductCountRepository categoryProductCountRepository;
+
+    private final ProductRepository productRepository;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final EntityManager entityManager;
+
+    public CategoryService(
+        CategoryRepository categoryRepository,
+        CategoryTreeRepository categoryTreeRepository,
+        CategoryProductCountRepository categoryProductCountRepository,
+        ProductRepository productRepository,
+        ApplicationEventPublisher eventPublisher,
+        EntityManager entityManager
+    ) {
         this.categoryRepository = categoryRepository;
+        this.categoryTreeRepository = categoryTreeRepository;
+        this.categoryProductCountRepository = categoryProductCountRepository;
+        this.productRepository = productRepository;
+        this.eventPublisher = eventPublisher;
+        this.entityManager = entityManager;
     }
 
     /**
      * Save a category.
      *
      * @param category the entity to save.
-     * @return the persisted entity.
+     * @return the persisted entity, with its product counters.
      */
     public Category save(Category category) {
         LOG.debug("Request to save Category : {}", category);
-        return categoryRepository.save(category);
+        // the row of the category must exist for its closure
+        Category result = categoryRepository.saveAndFlush(category);
+        categoryTreeRepository.insertLeaf(result.getId(), parentId(result));
+        categoryProductCountRepository.addLinks(
+            result.getId(),
+            categoryTreeRepository.findAncestorIds(result.getId()),
+            productIds(result)
+        );
+        eventPublisher.publishEvent(CategoryChangedEvent.saved(result));
+        return refreshCounters(result);
     }
 
     /**
      * Update a category.
      *
      * @param category the entity to save.
-     * @return the persisted entity.
+     * @return the persisted entity, with its product counters.
+     * @throws InvalidCategoryTreeException if the category is moved under itself.
      */
     public Category update(Category category) {
         LOG.debug("Request to update Category : {}", category);
-        return categoryRepository.save(category);
+        Long parentId = parentId(category);
+        boolean moved = !Objects.equals(categoryTreeRepository.findParentId(category.getId()).orElse(null), parentId);
+        if (moved && parentId != null && categoryTreeRepository.isInSubtree(category.getId(), parentId)) {
+            throw new InvalidCategoryTreeException("A category cannot be moved under itself", "parentcycle");
+        }
+        Set<Long> linked = new HashSet<>(categoryProductCountRepository.findProductIds(category.getId()));
+        Category result = categoryRepository.saveAndFlush(category);
+        Set<Long> products = productIds(result);
+        List<Long> ancestorIds = categoryTreeRepository.findAncestorIds(result.getId());
+        categoryProductCountRepository.addLinks(result.getId(), ancestorIds, difference(products, linked));
+        categoryProductCountRepository.removeLinks(result.getId(), ancestorIds, difference(linked, products));
+        if (moved) {
+            categoryTreeRepository.move(result.getId(), parentId);
+            // the subtree of the category is unchanged, but not those of its previous and new ancestors
+            Set<Long> changed = new HashSet<>(ancestorIds);
+            changed.addAll(categoryTreeRepository.findAncestorIds(result.getId()));
+            changed.remove(result.getId());
+            categoryProductCountRepository.recount(changed);
+        }
+        eventPublisher.publishEvent(CategoryChangedEvent.saved(result));
+        return refreshCounters(result);
     }
 
     /**
@@ -113,13 +182,97 @@ public class CategoryService {
         return categoryRepository.findOneWithEagerRelationships(id);
     }
 
+    /**
+     * Get a category and its descendants.
+     *
+     * @param id the id of the category.
+     * @return the categories, by depth then sort order, empty if the category does not exist.
+     */
+    @Transactional(readOnly = true)
+    public List<Category> findSubtree(Long id) {
+        LOG.debug("Request to get the subtree of Category : {}", id);
+        return categoryRepository.findSubtree(id);
+    }
+
+    /**
+     * Get the ancestors of a category.
+     *
+     * @param id the id of the category.
+     * @return the ancestors, from the root to the parent, or empty if the category does not exist.
+     */
+    @Transactional(readOnly = true)
+    public Optional<List<Category>> findAncestors(Long id) {
+        LOG.debug("Request to get the ancestors of Category : {}", id);
+        List<Category> path = categoryRepository.findPathFromRoot(id);
+        return path.isEmpty() ? Optional.empty() : Optional.of(path.subList(0, path.size() - 1));
+    }
+
+    /**
+     * Get the products of a category.
+     *
+     * @param id the id of the category.
+     * @param pageable the pagination information, its sort is ignored: the products are sorted by id.
+     * @return the list of products.
+     */
+    @Transactional(readOnly = true)
+    public Page<Product> findProducts(Long id, Pageable pageable) {
+        LOG.debug("Request to get the products of Category : {}", id);
+        return productRepository.findAllByCategoryId(id, PageRequest.of(pageable.getPageNumber(), pageable.getPageSize()));
+    }
+
+    /**
+     * Get the products of a category and of its descendants.
+     *
+     * @param id the id of the category.
+     * @param pageable the pagination information, its sort is ignored: the products are sorted by id.
+     * @return the list of products.
+     */
+    @Transactional(readOnly = true)
+    public Page<Product> findProductsInSubtree(Long id, Pageable pageable) {
+        LOG.debug("Request to get the products in the subtree of Category : {}", id);
+        return productRepository.findAllInCategorySubtree(id, PageRequest.of(pageable.getPageNumber(), pageable.getPageSize()));
+    }
+
     /**
      * Delete the category by id.
      *
      * @param id the id of the entity.
+     * @throws InvalidCategoryTreeException if the category has children.
      */
     public void delete(Long id) {
         LOG.debug("Request to delete Category : {}", id);
+        if (categoryTreeRepository.hasChildren(id)) {
+            throw new InvalidCategoryTreeException("A category with children cannot be deleted", "categoryhaschildren");
+        }
+        List<Long> productIds = categoryProductCountRepository.findProductIds(id);
+        List<Long> ancestorIds = categoryTreeRepository.findAncestorIds(id);
         categoryRepository.deleteById(id);
+        categoryRepository.flush();
+        categoryProductCountRepository.removeLinks(id, ancestorIds, productIds);
+        eventPublisher.publishEvent(CategoryChangedEvent.deleted(id));
+    }
+
+    /**
+     * Read the product counters of a category again, as they are only updated in the database.
+     */
+    private Category refreshCounters(Category category) {
+        entityManager.refresh(category);
+        // loaded again, as the response shows them
+        Hibernate.initialize(category.getProducts());
+        return category;
+    }
+
+    private static Set<Long> productIds(Category category) {
+        return category.getProducts().stream().map(Product::getId).collect(Collectors.toSet());
+    }
+
+    private static Set<Long> difference(Set<Long> ids, Set<Long> removed) {
+        Set<Long> difference = new HashSet<>(ids);
+        difference.removeAll(removed);
+        return difference;
+    }
+
+    private static Long parentId(Category category) {
+        return category.getParent() != null ? category.getParent().getId() : null;
     }
 }
@@ -0,0 +1,210 @@
+package myapp.service;
+
+import jakarta.persistence.EntityManager;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import myapp.config.ApplicationProperties;
+import myapp.domain.Address;
+import myapp.domain.Customer;
+import myapp.domain.Order;
+import myapp.domain.Product;
+import myapp.domain.enumeration.OrderStatus;
+import myapp.domain.enumeration.ProductStatus;
+import myapp.repository.AddressRepository;
+import myapp.repository.CustomerRepository;
+import myapp.repository.OrderLine;
+import myapp.repository.OrderLineRepository;
+import myapp.repository.ProductRepository;
+import myapp.repository.StockReservation;
+import myapp.service.analytics.OrderChangedEvent;
+import myapp.service.dto.CartDTO;
+import myapp.service.dto.OrderLineDTO;
+import myapp.service.dto.OrderSummaryDTO;
+import myapp.service.dto.PlacedOrderDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service placing orders from carts.
+ * <p>
+ * The products of the cart are loaded with one query, and their stock reserved with one JDBC batch. Then the order is
+ * inserted in a transaction of its own, with its lines in one JDBC batch, confirming the reservations with one statement.
+ * The number of statements thus does not depend on the size of the cart. The totals are computed from the current
+ * prices of the products, never taken from the client.
+ * <p>
+ * The stock is reserved before the transaction of the order begins, so that a checkout never holds two connections at
+ * once. The reservations are released if the order cannot be placed.
+ */
+@Service
+public class CheckoutService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CheckoutService.class);
+
+    private final ProductRepository productRepository;
+
+    private final CustomerRepository customerRepository;
+
+    private final AddressRepository addressRepository;
+
+    private final OrderLineRepository orderLineRepository;
+
+    private final StockReservationService stockReservationService;
+
+    private final EntityManager entityManager;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final TransactionTemplate readOnlyTransactionTemplate;
+
+    private final ApplicationProperties.Checkout properties;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public CheckoutService(
+        ProductRepository productRepository,
+        CustomerRepository customerRepository,
+        AddressRepository addressRepository,
+        OrderLineRepository orderLineRepository,
+        StockReservationService stockReservationService,
+        EntityManager entityManager,
+        PlatformTransactionManager transactionManager,
+        ApplicationProperties applicationProperties,
+        ApplicationEventPublisher eventPublisher
+    ) {
+        this.productRepository = productRepository;
+        this.customerRepository = customerRepository;
+        this.addressRepository = addressRepository;
+        this.orderLineRepository = orderLineRepository;
+        this.stockReservationService = stockReservationService;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.properties = applicationProperties.getCheckout();
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Place the order of a cart.
+     *
+     * @param cart the cart to check out.
+     * @return the placed order, with its lines.
+     * @throws InvalidCartException if the cart is too large, or refers to unknown or discontinued products, an unknown
+     * customer, or an address which is not one of the customer.
+     * @throws InsufficientStockException if a product does not have enough stock, in which case nothing is ordered.
+     */
+    public PlacedOrderDTO checkout(CartDTO cart) {
+        LOG.debug("Request to check out Cart : {}", cart);
+        Map<Long, Integer> quantities = new TreeMap<>();
+        cart.getItems().forEach(item -> quantities.merge(item.productId(), item.quantity(), Integer::sum));
+        if (quantities.size() > properties.getMaxItems()) {
+            throw new InvalidCartException("A cart cannot have more than " + properties.getMaxItems() + " products", "carttoolarge");
+        }
+
+        Map<Long, Product> products = new HashMap<>();
+        Order order = readOnlyTransactionTemplate.execute(status -> {
+            products.putAll(loadProducts(quantities));
+            return newOrder(cart);
+        });
+        List<OrderLine> lines = quantities
+            .entrySet()
+            .stream()
+            .map(entry -> new OrderLine(null, entry.getKey(), entry.getValue(), products.get(entry.getKey()).getPrice()))
+            .toList();
+        BigDecimal subtotal = lines
+            .stream()
+            .map(line -> line.unitPrice().multiply(BigDecimal.valueOf(line.quantity())))
+            .reduce(BigDecimal.ZERO, BigDecimal::add);
+        BigDecimal shippingCost = shippingCost(subtotal);
+        order
+            .shippingCost(shippingCost.setScale(2, RoundingMode.HALF_EVEN))
+            .totalAmount(subtotal.add(shippingCost).setScale(2, RoundingMode.HALF_EVEN));
+
+        Map<Long, StockReservation> reservations = stockReservationService.reserve(quantities);
+        try {
+            return transactionTemplate.execute(status -> {
+                entityManager.persist(order);
+                // the lines are inserted by JDBC, which needs the order row
+                entityManager.flush();
+                List<OrderLine> orderLines = lines
+                    .stream()
+                    .map(line -> new OrderLine(order.getId(), line.productId(), line.quantity(), line.unitPrice()))
+                    .toList();
+                orderLineRepository.insertAll(orderLines);
+                stockReservationService.confirm(reservations.values().stream().map(StockReservation::id).toList());
+                eventPublisher.publishEvent(OrderChangedEvent.created(order));
+                LOG.debug("Placed Order {} of {} products for {}", order.getId(), orderLines.size(), order.getTotalAmount());
+                return placedOrder(order, orderLines);
+            });
+        } catch (RuntimeException e) {
+            reservations.values().forEach(reservation -> stockReservationService.release(reservation.id()));
+            throw e;
+        }
+    }
+
+    private static PlacedOrderDTO placedOrder(Order order, List<OrderLine> lines) {
+        return new PlacedOrderDTO(
+            new OrderSummaryDTO(
+                order.getId(),
+                order.getOrderDate(),
+                order.getStatus(),
+                order.getStatusChangedAt(),
+                order.getTotalAmount(),
+                order.getCustomer().getId()
+            ),
+            order.getShippingCost(),
+            order.getShippingAddress() != null ? order.getShippingAddress().getId() : null,
+            lines.stream().map(line -> new OrderLineDTO(line.productId(), line.quantity(), line.unitPrice())).toList()
+        );
+    }
+
+    private Order newOrder(CartDTO cart) {
+        Customer customer = customerRepository
+            .findById(cart.getCustomerId())
+            .orElseThrow(() -> new InvalidCartException("Customer not found", "customernotfound"));
+        Instant now = Instant.now();
+        Order order = new Order().orderDate(now).status(OrderStatus.PENDING).statusChangedAt(now).customer(customer);
+        if (cart.getShippingAddressId() != null) {
+            Address address = addressRepository
+                .findById(cart.getShippingAddressId())
+                .filter(found -> found.getCustomer() != null && Objects.equals(found.getCustomer().getId(), customer.getId()))
+                .orElseThrow(() -> new InvalidCartException("Shipping address not found for this customer", "addressnotfound"));
+            order.shippingAddress(address);
+        }
+        return order;
+    }
+
+    private Map<Long, Product> loadProducts(Map<Long, Integer> quantities) {
+        Map<Long, Product> products = productRepository
+            .findAllById(quantities.keySet())
+            .stream()
+            .collect(Collectors.toMap(Product::getId, Function.identity()));
+        for (Long productId : quantities.keySet()) {
+            Product product = products.get(productId);
+            if (product == null) {
+                throw new InvalidCartException("Product " + productId + " not found", "productnotfound");
+            }
+            if (product.getStatus() == ProductStatus.DISCONTINUED) {
+                throw new InvalidCartException("Product " + productId + " is discontinued", "productdiscontinued");
+            }
+        }
+        return products;
+    }
+
+    private BigDecimal shippingCost(BigDecimal subtotal) {
+        BigDecimal threshold = properties.getFreeShippingThreshold();
+        return threshold != null && subtotal.compareTo(threshold) >= 0 ? BigDecimal.ZERO : properties.getShippingCost();
+    }
+}
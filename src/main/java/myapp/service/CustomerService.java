@@ -1,14 +1,34 @@
 package myapp.service;
 
+import java.util.Objects;
 import java.util.Optional;
 import myapp.domain.Customer;
+import myapp.repository.AddressRepository;
 import myapp.repository.CustomerRepository;
+import myapp.repository.OrderRepository;
+import myapp.repository.WishListRepository;
+import myapp.service.dto.CustomerOverviewDTO;
+import myapp.service.dto.CustomerSummaryDTO;
+import myapp.service.dto.OrderSummaryDTO;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 /**
  * Service Implementation for managing {@link myapp.domain.Customer}.
@@ -19,10 +39,44 @@ public class CustomerService {
 
     private static final Logger LOG = LoggerFactory.getLogger(CustomerService.class);
 
+    /**
+     * The maximum number of latest orders in the overview of a customer.
+     */
+    public static final int MAX_LATEST_ORDERS = 100;
+
+    public static final String CUSTOMER_ID_BY_EMAIL_CACHE = "customerIdByEmail";
+
     private final CustomerRepository customerRepository;
 
-    public CustomerService(CustomerRepository customerRepository) {
+    private final AddressRepository addressRepository;
+
+    private final OrderRepository orderRepository;
+
+    private final WishListRepository wishListRepository;
+
+    private final Cache customerIdByEmailCache;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public CustomerService(
+        CustomerRepository customerRepository,
+        AddressRepository addressRepository,
+        OrderRepository orderRepository,
+        WishListRepository wishListRepository,
+        CacheManager cacheManager,
+        PlatformTransactionManager transactionManager
+    ) {
         this.customerRepository = customerRepository;
+        this.addressRepository = addressRepository;
+        this.orderRepository = orderRepository;
+        this.wishListRepository = wishListRepository;
+        // a customer created by findOrCreate is committed before returning, to detect a concurrent creation
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        // ids are only cached once their customer is committed
+        this.customerIdByEmailCache = new TransactionAwareCacheDecorator(
+            Objects.requireNonNull(cacheManager.getCache(CUSTOMER_ID_BY_EMAIL_CACHE))
+        );
     }
 
     /**
@@ -33,7 +87,9 @@ public class CustomerService {
      */
     public Customer save(Customer customer) {
         LOG.debug("Request to save Customer : {}", customer);
-        return customerRepository.save(customer);
+        Customer result = customerRepository.save(customer);
+        customerIdByEmailCache.put(result.getNormalizedEmail(), result.getId());
+        return result;
     }
 
     /**
@@ -89,6 +145,42 @@ public class CustomerService {
         return customerRepository.findAll(pageable);
     }
 
+    /**
+     * Get all the customers, as summaries.
+     *
+     * @param pageable the pagination information.
+     * @return the list of summaries.
+     */
+    @Transactional(readOnly = true)
+    public Page<CustomerSummaryDTO> findAllSummaries(Pageable pageable) {
+        LOG.debug("Request to get all Customer summaries");
+        return customerRepository.findAllSummaries(pageable);
+    }
+
+    /**
+     * Get a window of the customers by keyset (seek) pagination.
+     *
+     * @param position the keys of the last customer already read.
+     * @param sort the sort, ending with a unique key.
+     * @param limit the maximum number of customers to read.
+     * @return the window of entities.
+     */
+    @Transactional(readOnly = true)
+    public Window<Customer> findAll(ScrollPosition position, Sort sort, Limit limit) {
+        LOG.debug("Request to get a window of Customers");
+        return customerRepository.findAllBy(position, sort, limit);
+    }
+
+    /**
+     * Count the customers.
+     *
+     * @return the number of entities.
+     */
+    @Transactional(readOnly = true)
+    public long count() {
+        return customerRepository.count();
+    }
+
     /**
      * Get one customer by id.
      *
@@ -101,6 +193,103 @@ public class CustomerService {
         return customerRepository.findById(id);
     }
 
+    /**
+     * Get one customer by email, whatever its case.
+     * <p>
+     * The id of the customer is cached by normalized email, and the customer itself is in the second-level cache: a
+     * lookup costs at most a single probe of the unique index of the normalized email. A cached id is checked against
+     * its customer, so that a customer whose email changed, or which was deleted, is looked up again.
+     *
+     * @param email the email address.
+     * @return the entity.
+     */
+    @Transactional(readOnly = true)
+    public Optional<Customer> findOneByEmail(String email) {
+        LOG.debug("Request to get Customer by email : {}", email);
+        String normalizedEmail = Customer.normalizeEmail(email);
+        Long id = customerIdByEmailCache.get(normalizedEmail, Long.class);
+        if (id != null) {
+            Optional<Customer> customer = customerRepository
+                .findById(id)
+                .filter(found -> normalizedEmail.equals(found.getNormalizedEmail()));
+            if (customer.isPresent()) {
+                return customer;
+            }
+            customerIdByEmailCache.evict(normalizedEmail);
+        }
+        Optional<Customer> customer = customerRepository.findOneByNormalizedEmail(normalizedEmail);
+        customer.ifPresent(found -> customerIdByEmailCache.put(normalizedEmail, found.getId()));
+        return customer;
+    }
+
+    /**
+     * A customer found by email, or created.
+     *
+     * @param customer the customer.
+     * @param created true if the customer was created.
+     */
+    public record FoundOrCreated(Customer customer, boolean created) {}
+
+    /**
+     * Get the customer with the email of a customer, whatever its case, or create it.
+     * <p>
+     * The customer is looked up as by {@link #findOneByEmail(String)}. A new customer is committed in a transaction of its
+     * own, so that a customer created concurrently with the same email is found instead.
+     *
+     * @param customer the customer to create, unless one has its email.
+     * @return the existing customer, or the new one.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public FoundOrCreated findOrCreate(Customer customer) {
+        LOG.debug("Request to find or create Customer : {}", customer);
+        Optional<Customer> existing = findOneByEmail(customer.getEmail());
+        if (existing.isPresent()) {
+            return new FoundOrCreated(existing.get(), false);
+        }
+        try {
+            return new FoundOrCreated(transactionTemplate.execute(status -> save(customer)), true);
+        } catch (DataIntegrityViolationException e) {
+            // created concurrently with the same email
+            return findOneByEmail(customer.getEmail()).map(found -> new FoundOrCreated(found, false)).orElseThrow(() -> e);
+        }
+    }
+
+    /**
+     * Get the overview of a customer: the customer, its addresses, its latest orders and its wish lists.
+     * <p>
+     * Each part is read with a single statement on the index of its customer, whatever the number of addresses, orders
+     * or wish lists: the orders are counted only when there are more than requested.
+     *
+     * @param id the id of the customer.
+     * @param orders the number of latest orders, at most {@link #MAX_LATEST_ORDERS}.
+     * @return the overview.
+     */
+    @Transactional(readOnly = true)
+    public Optional<CustomerOverviewDTO> findOverview(Long id, int orders) {
+        LOG.debug("Request to get the overview of Customer : {}", id);
+        Pageable latest = PageRequest.of(
+            0,
+            Math.max(1, Math.min(orders, MAX_LATEST_ORDERS)),
+            Sort.by(Sort.Order.desc("orderDate"), Sort.Order.desc("id"))
+        );
+        return customerRepository
+            .findById(id)
+            .map(customer -> {
+                Page<OrderSummaryDTO> latestOrders = orderRepository.findAllSummariesByCustomerId(id, latest);
+                return new CustomerOverviewDTO(
+                    customer.getId(),
+                    customer.getFirstName(),
+                    customer.getLastName(),
+                    customer.getEmail(),
+                    customer.getTelephone(),
+                    addressRepository.findAllSummariesByCustomerId(id),
+                    latestOrders.getTotalElements(),
+                    latestOrders.getContent(),
+                    wishListRepository.findAllSummariesByCustomerId(id)
+                );
+            });
+    }
+
     /**
      * Delete the customer by id.
      *
@@ -0,0 +1,268 @@
+package myapp.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import myapp.config.ApplicationProperties;
+import myapp.repository.IdempotencyKey;
+import myapp.repository.IdempotencyKeyRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service storing the responses of the requests sent with an Idempotency-Key, so that retries of a request are answered
+ * with its response instead of being executed again.
+ * <p>
+ * The keys are scoped by user. The completed responses are kept in an LRU cache, in front of the {@code idempotency_key}
+ * table which is the reference across application instances, for {@code application.idempotency.ttl-seconds}.
+ * <p>
+ * A key is claimed by the first request using it. A duplicate arriving while that request is in progress in the same
+ * instance waits for its response, up to {@code application.idempotency.in-flight-wait-seconds}; in another instance, it
+ * is told to retry later. A request which does not complete successfully releases its key.
+ */
+@Service
+public class IdempotencyService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(IdempotencyService.class);
+
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+
+    private final Duration ttl;
+
+    private final Duration inFlightWait;
+
+    private final Duration claimTimeout;
+
+    private final Cache<Key, StoredResponse> responses;
+
+    private final ConcurrentMap<Key, InFlight> inFlight = new ConcurrentHashMap<>();
+
+    public IdempotencyService(IdempotencyKeyRepository idempotencyKeyRepository, ApplicationProperties applicationProperties) {
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+        ApplicationProperties.Idempotency properties = applicationProperties.getIdempotency();
+        this.ttl = Duration.ofSeconds(properties.getTtlSeconds());
+        this.inFlightWait = Duration.ofSeconds(properties.getInFlightWaitSeconds());
+        this.claimTimeout = Duration.ofSeconds(properties.getClaimTimeoutSeconds());
+        this.responses = Caffeine.newBuilder().maximumSize(properties.getMaxEntries()).expireAfterWrite(ttl).build();
+    }
+
+    /**
+     * What to do with a request sent with an Idempotency-Key.
+     */
+    public enum ClaimStatus {
+        /** The key is claimed by this request, which must be executed, then completed or abandoned. */
+        CLAIMED,
+        /** A previous request with this key completed: its response must be replayed. */
+        COMPLETED,
+        /** A previous request with this key is still in progress. */
+        IN_PROGRESS,
+        /** The key was used for a different request. */
+        REUSED,
+    }
+
+    /**
+     * @param status what to do with the request.
+     * @param response the response to replay, for {@link ClaimStatus#COMPLETED}.
+     */
+    public record Claim(ClaimStatus status, StoredResponse response) {
+        static final Claim CLAIMED = new Claim(ClaimStatus.CLAIMED, null);
+        static final Claim IN_PROGRESS = new Claim(ClaimStatus.IN_PROGRESS, null);
+        static final Claim REUSED = new Claim(ClaimStatus.REUSED, null);
+    }
+
+    /**
+     * A response to replay.
+     *
+     * @param fingerprint the hash of the request it answered.
+     * @param status the status of the response.
+     * @param headers the headers to replay, by name.
+     * @param body the body of the response.
+     */
+    public record StoredResponse(String fingerprint, int status, Map<String, String> headers, String body) {}
+
+    private record Key(String login, String key) {}
+
+    private static final class InFlight {
+
+        private final String fingerprint;
+
+        /**
+         * Completed with the response of the request, or with {@code null} if it released its key.
+         */
+        private final CompletableFuture<StoredResponse> done = new CompletableFuture<>();
+
+        InFlight(String fingerprint) {
+            this.fingerprint = fingerprint;
+        }
+    }
+
+    /**
+     * Claim the key of a request.
+     *
+     * @param login the login of the user sending the request.
+     * @param key the Idempotency-Key of the request.
+     * @param fingerprint the hash of the request, telling whether a key is reused for a different request.
+     * @return what to do with the request.
+     */
+    public Claim claim(String login, String key, String fingerprint) {
+        Key id = new Key(login, key);
+        long deadline = System.nanoTime() + inFlightWait.toNanos();
+        while (true) {
+            StoredResponse stored = responses.getIfPresent(id);
+            if (stored != null) {
+                return replay(stored, fingerprint);
+            }
+            InFlight mine = new InFlight(fingerprint);
+            InFlight other = inFlight.putIfAbsent(id, mine);
+            if (other == null) {
+                Claim claim;
+                try {
+                    claim = claimInDatabase(id, fingerprint);
+                } catch (RuntimeException e) {
+                    inFlight.remove(id, mine);
+                    mine.done.complete(null);
+                    throw e;
+                }
+                if (claim.status() != ClaimStatus.CLAIMED) {
+                    inFlight.remove(id, mine);
+                    mine.done.complete(claim.response());
+                }
+                return claim;
+            }
+            if (!other.fingerprint.equals(fingerprint)) {
+                return Claim.REUSED;
+            }
+            try {
+                StoredResponse response = other.done.get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                if (response != null) {
+                    return replay(response, fingerprint);
+                }
+                // the other request released the key, or left it to another instance: try to claim it again
+            } catch (TimeoutException e) {
+                return Claim.IN_PROGRESS;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return Claim.IN_PROGRESS;
+            } catch (ExecutionException e) {
+                throw new IllegalStateException(e.getCause());
+            }
+        }
+    }
+
+    /**
+     * Store the response of a request which claimed its key, and answer its duplicates with it.
+     *
+     * @param login the login of the user who sent the request.
+     * @param key the Idempotency-Key of the request.
+     * @param response the response to replay.
+     */
+    public void complete(String login, String key, StoredResponse response) {
+        Key id = new Key(login, key);
+        try {
+            idempotencyKeyRepository.complete(login, key, response.status(), encodeHeaders(response.headers()), response.body());
+            responses.put(id, response);
+        } finally {
+            InFlight claimed = inFlight.remove(id);
+            if (claimed != null) {
+                claimed.done.complete(response);
+            }
+        }
+    }
+
+    /**
+     * Release the key of a request which claimed it but did not complete successfully, so that it can be retried.
+     *
+     * @param login the login of the user who sent the request.
+     * @param key the Idempotency-Key of the request.
+     */
+    public void abandon(String login, String key) {
+        Key id = new Key(login, key);
+        try {
+            idempotencyKeyRepository.deleteInProgress(login, key);
+        } finally {
+            InFlight claimed = inFlight.remove(id);
+            if (claimed != null) {
+                claimed.done.complete(null);
+            }
+        }
+    }
+
+    /**
+     * Delete the expired keys.
+     * <p>
+     * This is scheduled to run every hour, by default.
+     */
+    @Scheduled(cron = "${application.idempotency.purge-cron:0 0 * * * ?}")
+    public void removeExpiredKeys() {
+        int deleted = idempotencyKeyRepository.deleteCreatedBefore(Instant.now().minus(ttl));
+        LOG.debug("Deleted {} expired idempotency keys", deleted);
+    }
+
+    private Claim claimInDatabase(Key id, String fingerprint) {
+        Instant now = Instant.now();
+        if (idempotencyKeyRepository.insert(id.login(), id.key(), fingerprint, now)) {
+            return Claim.CLAIMED;
+        }
+        IdempotencyKey existing = idempotencyKeyRepository.find(id.login(), id.key()).orElse(null);
+        if (existing == null) {
+            // released meanwhile
+            return idempotencyKeyRepository.insert(id.login(), id.key(), fingerprint, now) ? Claim.CLAIMED : Claim.IN_PROGRESS;
+        }
+        Instant expiredBefore = now.minus(ttl);
+        Instant abandonedBefore = now.minus(claimTimeout);
+        if (existing.createdAt().isBefore(expiredBefore) || (!existing.isCompleted() && existing.createdAt().isBefore(abandonedBefore))) {
+            boolean reclaimed = idempotencyKeyRepository.reclaim(id.login(), id.key(), fingerprint, now, abandonedBefore, expiredBefore);
+            return reclaimed ? Claim.CLAIMED : Claim.IN_PROGRESS;
+        }
+        if (!existing.fingerprint().equals(fingerprint)) {
+            return Claim.REUSED;
+        }
+        if (!existing.isCompleted()) {
+            return Claim.IN_PROGRESS;
+        }
+        StoredResponse response = new StoredResponse(
+            existing.fingerprint(),
+            existing.responseStatus(),
+            decodeHeaders(existing.responseHeaders()),
+            existing.responseBody()
+        );
+        responses.put(id, response);
+        return new Claim(ClaimStatus.COMPLETED, response);
+    }
+
+    private static Claim replay(StoredResponse response, String fingerprint) {
+        return response.fingerprint().equals(fingerprint) ? new Claim(ClaimStatus.COMPLETED, response) : Claim.REUSED;
+    }
+
+    private static String encodeHeaders(Map<String, String> headers) {
+        StringBuilder encoded = new StringBuilder();
+        headers.forEach((name, value) -> encoded.append(name).append(": ").append(value).append('\n'));
+        return encoded.toString();
+    }
+
+    private static Map<String, String> decodeHeaders(String encoded) {
+        Map<String, String> headers = new LinkedHashMap<>();
+        if (encoded != null) {
+            encoded
+                .lines()
+                .forEach(line -> {
+                    int colon = line.indexOf(": ");
+                    if (colon > 0) {
+                        headers.put(line.substring(0, colon), line.substring(colon + 2));
+                    }
+                });
+        }
+        return headers;
+    }
+}
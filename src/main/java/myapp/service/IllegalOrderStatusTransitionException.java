@@ -0,0 +1,30 @@
+package myapp.service;
+
+import myapp.domain.enumeration.OrderStatus;
+
+public class IllegalOrderStatusTransitionException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final OrderStatus from;
+
+    private final OrderStatus to;
+
+    /**
+     * @param from the status of the order, {@code null} for a new order.
+     * @param to the status requested.
+     */
+    public IllegalOrderStatusTransitionException(OrderStatus from, OrderStatus to) {
+        super(from == null ? "A new order cannot be " + to : "An order cannot go from " + from + " to " + to);
+        this.from = from;
+        this.to = to;
+    }
+
+    public OrderStatus getFrom() {
+        return from;
+    }
+
+    public OrderStatus getTo() {
+        return to;
+    }
+}
@@ -0,0 +1,17 @@
+package myapp.service;
+
+public class InsufficientStockException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Long productId;
+
+    public InsufficientStockException(Long productId) {
+        super("Insufficient stock for product " + productId);
+        this.productId = productId;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+}
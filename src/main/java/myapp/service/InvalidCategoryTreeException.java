@@ -0,0 +1,17 @@
+package myapp.service;
+
+public class InvalidCategoryTreeException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String errorKey;
+
+    public InvalidCategoryTreeException(String message, String errorKey) {
+        super(message);
+        this.errorKey = errorKey;
+    }
+
+    public String getErrorKey() {
+        return errorKey;
+    }
+}
@@ -1,17 +1,31 @@
 package myapp.service;
 
+import java.time.Instant;
 import java.util.Optional;
 import myapp.domain.Order;
+import myapp.domain.enumeration.OrderStatus;
 import myapp.repository.OrderRepository;
+import myapp.service.analytics.OrderChangedEvent;
+import myapp.service.analytics.OrderFigures;
+import myapp.service.dto.OrderSummaryDTO;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Service Implementation for managing {@link myapp.domain.Order}.
+ * <p>
+ * The status of an order follows its lifecycle: an order is created {@link OrderStatus#PENDING}, and its status can
+ * only change as {@link OrderStatus#canTransitionTo} allows. The service stamps when the order entered its status, and
+ * when it was shipped unless given.
  */
 @Service
 @Transactional
@@ -21,8 +35,11 @@ public class OrderService {
 
     private final OrderRepository orderRepository;
 
-    public OrderService(OrderRepository orderRepository) {
+    private final ApplicationEventPublisher eventPublisher;
+
+    public OrderService(OrderRepository orderRepository, ApplicationEventPublisher eventPublisher) {
         this.orderRepository = orderRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -30,10 +47,17 @@ public class OrderService {
      *
      * @param order the entity to save.
      * @return the persisted entity.
+     * @throws IllegalOrderStatusTransitionException if the order is not {@link OrderStatus#PENDING}.
      */
     public Order save(Order order) {
         LOG.debug("Request to save Order : {}", order);
-        return orderRepository.save(order);
+        if (order.getStatus() != OrderStatus.PENDING) {
+            throw new IllegalOrderStatusTransitionException(null, order.getStatus());
+        }
+        order.setStatusChangedAt(Instant.now());
+        Order result = orderRepository.save(order);
+        eventPublisher.publishEvent(OrderChangedEvent.created(result));
+        return result;
     }
 
     /**
@@ -41,10 +65,22 @@ public class OrderService {
      *
      * @param order the entity to save.
      * @return the persisted entity.
+     * @throws IllegalOrderStatusTransitionException if the order cannot go from its current status to the new one.
      */
     public Order update(Order order) {
         LOG.debug("Request to update Order : {}", order);
-        return orderRepository.save(order);
+        Order existingOrder = orderRepository.findById(order.getId()).orElse(null);
+        OrderFigures before = OrderFigures.of(existingOrder);
+        if (existingOrder != null) {
+            order.setStatusChangedAt(existingOrder.getStatusChangedAt());
+            if (order.getShippedDate() == null) {
+                order.setShippedDate(existingOrder.getShippedDate());
+            }
+            changeStatus(order, existingOrder.getStatus(), order.getStatus());
+        }
+        Order result = orderRepository.save(order);
+        eventPublisher.publishEvent(OrderChangedEvent.updated(before, result));
+        return result;
     }
 
     /**
@@ -52,6 +88,7 @@ public class OrderService {
      *
      * @param order the entity to update partially.
      * @return the persisted entity.
+     * @throws IllegalOrderStatusTransitionException if the order cannot go from its current status to the new one.
      */
     public Optional<Order> partialUpdate(Order order) {
         LOG.debug("Request to partially update Order : {}", order);
@@ -59,6 +96,7 @@ public class OrderService {
         return orderRepository
             .findById(order.getId())
             .map(existingOrder -> {
+                OrderFigures before = OrderFigures.of(existingOrder);
                 if (order.getOrderDate() != null) {
                     existingOrder.setOrderDate(order.getOrderDate());
                 }
@@ -66,7 +104,7 @@ public class OrderService {
                     existingOrder.setShippedDate(order.getShippedDate());
                 }
                 if (order.getStatus() != null) {
-                    existingOrder.setStatus(order.getStatus());
+                    changeStatus(existingOrder, existingOrder.getStatus(), order.getStatus());
                 }
                 if (order.getTotalAmount() != null) {
                     existingOrder.setTotalAmount(order.getTotalAmount());
@@ -78,9 +116,10 @@ public class OrderService {
                     existingOrder.setTrackingNumber(order.getTrackingNumber());
                 }
 
-                return existingOrder;
-            })
-            .map(orderRepository::save);
+                Order result = orderRepository.save(existingOrder);
+                eventPublisher.publishEvent(OrderChangedEvent.updated(before, result));
+                return result;
+            });
     }
 
     /**
@@ -95,6 +134,61 @@ public class OrderService {
         return orderRepository.findAll(pageable);
     }
 
+    /**
+     * Get all the orders, as summaries.
+     *
+     * @param pageable the pagination information.
+     * @return the list of summaries.
+     */
+    @Transactional(readOnly = true)
+    public Page<OrderSummaryDTO> findAllSummaries(Pageable pageable) {
+        LOG.debug("Request to get all Order summaries");
+        return orderRepository.findAllSummaries(pageable);
+    }
+
+    /**
+     * Get the orders which entered a status in a period, and are still in it.
+     *
+     * @param status the status.
+     * @param since the start of the period, inclusive, or {@code null} for none.
+     * @param before the end of the period, exclusive, or {@code null} for none.
+     * @param pageable the pagination information.
+     * @return the list of entities.
+     */
+    @Transactional(readOnly = true)
+    public Page<Order> findAllByStatus(OrderStatus status, Instant since, Instant before, Pageable pageable) {
+        LOG.debug("Request to get all Orders {} since {} before {}", status, since, before);
+        Instant from = since != null ? since : Instant.EPOCH;
+        if (before == null) {
+            return orderRepository.findAllByStatusAndStatusChangedAtGreaterThanEqual(status, from, pageable);
+        }
+        return orderRepository.findAllByStatusAndStatusChangedAtGreaterThanEqualAndStatusChangedAtLessThan(status, from, before, pageable);
+    }
+
+    /**
+     * Get a window of the orders by keyset (seek) pagination.
+     *
+     * @param position the keys of the last order already read.
+     * @param sort the sort, ending with a unique key.
+     * @param limit the maximum number of orders to read.
+     * @return the window of entities.
+     */
+    @Transactional(readOnly = true)
+    public Window<Order> findAll(ScrollPosition position, Sort sort, Limit limit) {
+        LOG.debug("Request to get a window of Orders");
+        return orderRepository.findAllBy(position, sort, limit);
+    }
+
+    /**
+     * Count the orders.
+     *
+     * @return the number of entities.
+     */
+    @Transactional(readOnly = true)
+    public long count() {
+        return orderRepository.count();
+    }
+
     /**
      * Get one order by id.
      *
@@ -114,6 +208,32 @@ public class OrderService {
      */
     public void delete(Long id) {
         LOG.debug("Request to delete Order : {}", id);
-        orderRepository.deleteById(id);
+        orderRepository
+            .findById(id)
+            .ifPresent(order -> {
+                OrderFigures before = OrderFigures.of(order);
+                orderRepository.delete(order);
+                eventPublisher.publishEvent(OrderChangedEvent.deleted(id, before));
+            });
+    }
+
+    /**
+     * Move an order to a status, stamping when it entered it, and when it was shipped unless already known.
+     *
+     * @param order the order to update.
+     * @param current the status the order is in.
+     * @param status the new status, which may be {@code current}.
+     */
+    private static void changeStatus(Order order, OrderStatus current, OrderStatus status) {
+        if (status != current) {
+            if (!current.canTransitionTo(status)) {
+                throw new IllegalOrderStatusTransitionException(current, status);
+            }
+            order.setStatus(status);
+            order.setStatusChangedAt(Instant.now());
+        }
+        if (status.isShipped() && order.getShippedDate() == null) {
+            order.setShippedDate(order.getStatusChangedAt());
+        }
     }
 }
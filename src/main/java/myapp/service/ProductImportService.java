@@ -0,0 +1,249 @@
+package myapp.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import myapp.config.ApplicationProperties;
+import myapp.domain.Product;
+import myapp.service.dto.ProductImportReportDTO;
+import myapp.service.search.ProductChangedEvent;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service importing products in bulk from a CSV or NDJSON stream, such as supplier feeds.
+ * <p>
+ * Rows are read in batches of {@code application.product-import.batch-size}. Each batch is parsed and validated against
+ * the {@link Product} constraints in parallel, then its valid rows are inserted in a transaction and a JDBC batch of
+ * their own, after which the persistence context is cleared. Invalid rows are reported, they do not fail the import.
+ * <p>
+ * Only the fields of the product itself are imported, ignoring its relationships. The rows must not have an id.
+ */
+@Service
+public class ProductImportService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ProductImportService.class);
+
+    private final EntityManager entityManager;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Validator validator;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final ObjectMapper objectMapper;
+
+    private final ObjectReader productReader;
+
+    private final ObjectReader csvReader;
+
+    private final ApplicationProperties.ProductImport properties;
+
+    public ProductImportService(
+        EntityManager entityManager,
+        PlatformTransactionManager transactionManager,
+        Validator validator,
+        ApplicationEventPublisher eventPublisher,
+        ObjectMapper objectMapper,
+        ApplicationProperties applicationProperties
+    ) {
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.validator = validator;
+        this.eventPublisher = eventPublisher;
+        this.objectMapper = objectMapper;
+        this.productReader = objectMapper.readerFor(Product.class);
+        this.csvReader = new CsvMapper().readerForMapOf(String.class).with(CsvSchema.emptySchema().withHeader());
+        this.properties = applicationProperties.getProductImport();
+    }
+
+    /**
+     * Import products from newline-delimited JSON, one product per line. Blank lines are skipped.
+     *
+     * @param in the UTF-8 stream to read, left open.
+     * @return the report of the import.
+     */
+    public ProductImportReportDTO importNdjson(InputStream in) {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        return importRows(reader.lines().iterator(), line -> line.isBlank() ? null : productReader.readValue(line));
+    }
+
+    /**
+     * Import products from CSV (RFC 4180), with a header row naming the product fields, as written by the CSV export.
+     * Unknown columns are ignored, and empty values are read as {@code null}.
+     *
+     * @param in the UTF-8 stream to read, left open.
+     * @return the report of the import.
+     */
+    public ProductImportReportDTO importCsv(InputStream in) {
+        MappingIterator<Map<String, String>> records;
+        try {
+            records = csvReader.readValues(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return importRows(records, record -> {
+            record.values().removeIf(String::isEmpty);
+            return objectMapper.convertValue(record, Product.class);
+        });
+    }
+
+    private <R> ProductImportReportDTO importRows(Iterator<R> records, RowParser<R> parser) {
+        long start = System.currentTimeMillis();
+        ProductImportReportDTO report = new ProductImportReportDTO();
+        List<RawRow<R>> batch = new ArrayList<>(properties.getBatchSize());
+        long row = 0;
+        while (true) {
+            R record;
+            try {
+                if (!records.hasNext()) {
+                    break;
+                }
+                record = records.next();
+            } catch (RuntimeException e) {
+                if (!(e.getCause() instanceof JsonProcessingException cause)) {
+                    throw e;
+                }
+                // the rest of a malformed CSV stream cannot be read reliably
+                reject(report, row + 1, "Malformed row, import stopped: " + cause.getOriginalMessage());
+                break;
+            }
+            batch.add(new RawRow<>(++row, record));
+            if (batch.size() == properties.getBatchSize()) {
+                importBatch(batch, parser, report);
+                batch.clear();
+            }
+        }
+        importBatch(batch, parser, report);
+        LOG.info(
+            "Imported {} products, rejected {} rows, in {} ms",
+            report.getImported(),
+            report.getRejected(),
+            System.currentTimeMillis() - start
+        );
+        return report;
+    }
+
+    private <R> void importBatch(List<RawRow<R>> batch, RowParser<R> parser, ProductImportReportDTO report) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<ParsedRow> parsed = batch.parallelStream().map(raw -> parse(raw, parser)).toList();
+        List<Product> products = new ArrayList<>(parsed.size());
+        for (ParsedRow row : parsed) {
+            if (row.error() != null) {
+                reject(report, row.row(), row.error());
+            } else if (row.product() != null) {
+                products.add(row.product());
+            }
+        }
+        if (products.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                Session session = entityManager.unwrap(Session.class);
+                session.setJdbcBatchSize(properties.getBatchSize());
+                // imported rows are not worth evicting the products being read from the second-level cache
+                session.setCacheMode(CacheMode.IGNORE);
+                for (Product product : products) {
+                    entityManager.persist(product);
+                    eventPublisher.publishEvent(ProductChangedEvent.saved(product));
+                }
+                entityManager.flush();
+                entityManager.clear();
+            });
+            report.setImported(report.getImported() + products.size());
+        } catch (PersistenceException | DataAccessException e) {
+            LOG.warn("Could not insert a batch of {} products: {}", products.size(), e.getMessage());
+            for (ParsedRow row : parsed) {
+                if (row.product() != null) {
+                    reject(report, row.row(), "Batch not inserted: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    private <R> ParsedRow parse(RawRow<R> raw, RowParser<R> parser) {
+        Product product;
+        try {
+            product = parser.parse(raw.record());
+        } catch (JsonProcessingException e) {
+            return ParsedRow.rejected(raw.row(), e.getOriginalMessage());
+        } catch (IllegalArgumentException e) {
+            // thrown by convertValue, wrapping the mapping error
+            String message = e.getCause() instanceof JsonProcessingException cause ? cause.getOriginalMessage() : e.getMessage();
+            return ParsedRow.rejected(raw.row(), message);
+        }
+        if (product == null) {
+            return new ParsedRow(raw.row(), null, null);
+        }
+        if (product.getId() != null) {
+            return ParsedRow.rejected(raw.row(), "A new product cannot already have an ID");
+        }
+        product.wishList(null).order(null).setCategories(new HashSet<>());
+        Set<ConstraintViolation<Product>> violations = validator.validate(product);
+        if (!violations.isEmpty()) {
+            return ParsedRow.rejected(
+                raw.row(),
+                violations
+                    .stream()
+                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining(", "))
+            );
+        }
+        return new ParsedRow(raw.row(), product, null);
+    }
+
+    private void reject(ProductImportReportDTO report, long row, String message) {
+        report.setRejected(report.getRejected() + 1);
+        if (report.getErrors().size() < properties.getMaxReportedErrors()) {
+            report.getErrors().add(new ProductImportReportDTO.RowError(row, message));
+        }
+    }
+
+    @FunctionalInterface
+    private interface RowParser<R> {
+        /**
+         * @return the product of the record, or {@code null} if the record should be skipped.
+         */
+        Product parse(R record) throws JsonProcessingException;
+    }
+
+    private record RawRow<R>(long row, R record) {}
+
+    private record ParsedRow(long row, Product product, String error) {
+        static ParsedRow rejected(long row, String error) {
+            return new ParsedRow(row, null, error);
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package myapp.service;
+
+public class ProductOrderedException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public ProductOrderedException(Long productId) {
+        super("Product " + productId + " was ordered, and cannot be deleted");
+    }
+}
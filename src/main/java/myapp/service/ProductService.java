@@ -2,11 +2,19 @@ package myapp.service;
 
 import java.util.Optional;
 import myapp.domain.Product;
+import myapp.repository.OrderLineRepository;
 import myapp.repository.ProductRepository;
+import myapp.service.dto.ProductCardDTO;
+import myapp.service.search.ProductChangedEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -21,8 +29,18 @@ public class ProductService {
 
     private final ProductRepository productRepository;
 
-    public ProductService(ProductRepository productRepository) {
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final OrderLineRepository orderLineRepository;
+
+    public ProductService(
+        ProductRepository productRepository,
+        ApplicationEventPublisher eventPublisher,
+        OrderLineRepository orderLineRepository
+    ) {
         this.productRepository = productRepository;
+        this.eventPublisher = eventPublisher;
+        this.orderLineRepository = orderLineRepository;
     }
 
     /**
@@ -33,22 +51,27 @@ public class ProductService {
      */
     public Product save(Product product) {
         LOG.debug("Request to save Product : {}", product);
-        return productRepository.save(product);
+        Product result = productRepository.save(product);
+        eventPublisher.publishEvent(ProductChangedEvent.saved(result));
+        return result;
     }
 
     /**
-     * Update a product.
+     * Update a product. Its stock is kept: it is changed through {@link StockReservationService} only.
      *
      * @param product the entity to save.
      * @return the persisted entity.
      */
     public Product update(Product product) {
         LOG.debug("Request to update Product : {}", product);
-        return productRepository.save(product);
+        productRepository.findById(product.getId()).ifPresent(existing -> product.setQuantityInStock(existing.getQuantityInStock()));
+        Product result = productRepository.save(product);
+        eventPublisher.publishEvent(ProductChangedEvent.saved(result));
+        return result;
     }
 
     /**
-     * Partially update a product.
+     * Partially update a product. Its stock is kept: it is changed through {@link StockReservationService} only.
      *
      * @param product the entity to update partially.
      * @return the persisted entity.
@@ -74,9 +97,6 @@ public class ProductService {
                 if (product.getPrice() != null) {
                     existingProduct.setPrice(product.getPrice());
                 }
-                if (product.getQuantityInStock() != null) {
-                    existingProduct.setQuantityInStock(product.getQuantityInStock());
-                }
                 if (product.getStatus() != null) {
                     existingProduct.setStatus(product.getStatus());
                 }
@@ -95,7 +115,11 @@ public class ProductService {
 
                 return existingProduct;
             })
-            .map(productRepository::save);
+            .map(productRepository::save)
+            .map(result -> {
+                eventPublisher.publishEvent(ProductChangedEvent.saved(result));
+                return result;
+            });
     }
 
     /**
@@ -110,6 +134,42 @@ public class ProductService {
         return productRepository.findAll(pageable);
     }
 
+    /**
+     * Get all the products, as cards.
+     *
+     * @param pageable the pagination information.
+     * @return the list of cards.
+     */
+    @Transactional(readOnly = true)
+    public Page<ProductCardDTO> findAllCards(Pageable pageable) {
+        LOG.debug("Request to get all Product cards");
+        return productRepository.findAllCards(pageable);
+    }
+
+    /**
+     * Get a window of the products by keyset (seek) pagination.
+     *
+     * @param position the keys of the last product already read.
+     * @param sort the sort, ending with a unique key.
+     * @param limit the maximum number of products to read.
+     * @return the window of entities.
+     */
+    @Transactional(readOnly = true)
+    public Window<Product> findAll(ScrollPosition position, Sort sort, Limit limit) {
+        LOG.debug("Request to get a window of Products");
+        return productRepository.findAllBy(position, sort, limit);
+    }
+
+    /**
+     * Count the products.
+     *
+     * @return the number of entities.
+     */
+    @Transactional(readOnly = true)
+    public long count() {
+        return productRepository.count();
+    }
+
     /**
      * Get one product by id.
      *
@@ -126,9 +186,14 @@ public class ProductService {
      * Delete the product by id.
      *
      * @param id the id of the entity.
+     * @throws ProductOrderedException if the product was ordered: the lines of the orders refer to it.
      */
     public void delete(Long id) {
         LOG.debug("Request to delete Product : {}", id);
+        if (orderLineRepository.existsByProductId(id)) {
+            throw new ProductOrderedException(id);
+        }
         productRepository.deleteById(id);
+        eventPublisher.publishEvent(ProductChangedEvent.deleted(id));
     }
 }
@@ -0,0 +1,17 @@
+package myapp.service;
+
+import java.util.Collection;
+import java.util.UUID;
+
+public class StockReservationExpiredException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public StockReservationExpiredException(UUID reservationId) {
+        super("Stock reservation " + reservationId + " expired or was released");
+    }
+
+    public StockReservationExpiredException(Collection<UUID> reservationIds) {
+        super("Some of the stock reservations " + reservationIds + " expired or were released");
+    }
+}
@@ -0,0 +1,393 @@
+package myapp.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.persistence.EntityManagerFactory;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import myapp.config.ApplicationProperties;
+import myapp.domain.Product;
+import myapp.repository.StockRepository;
+import myapp.repository.StockReservation;
+import myapp.service.search.ProductChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service reserving the stock of products for checkouts.
+ * <p>
+ * A reservation takes its quantity from the product at once, with a conditional update which cannot take the stock below
+ * zero, even across application instances. Products with a null stock do not track it, and can always be reserved. A
+ * reservation is then either confirmed, keeping the stock taken, or released, giving it back. A reservation neither
+ * confirmed nor released expires after {@code application.stock.reservation-ttl-seconds}.
+ * <p>
+ * Reservations are queued on a lock stripe of their product, and the thread holding the stripe takes all the queued
+ * reservations of a product with a single update, in one short transaction of its own. A hot product thus costs one
+ * update per batch of reservations, instead of one per reservation waiting on the lock of its row. Products found out of
+ * stock are remembered for {@code application.stock.sold-out-seconds}, rejecting their reservations without a query.
+ * <p>
+ * Rows are always locked in product id order, so that concurrent transactions cannot deadlock.
+ */
+@Service
+public class StockReservationService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(StockReservationService.class);
+
+    private final StockRepository stockRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final jakarta.persistence.Cache secondLevelCache;
+
+    private final ApplicationProperties.Stock properties;
+
+    private final Stripe[] stripes;
+
+    private final Cache<Long, Boolean> soldOut;
+
+    public StockReservationService(
+        StockRepository stockRepository,
+        PlatformTransactionManager transactionManager,
+        EntityManagerFactory entityManagerFactory,
+        ApplicationProperties applicationProperties
+    ) {
+        this.stockRepository = stockRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // the row locks are held for the reservations only, not for the transaction of the caller
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.secondLevelCache = entityManagerFactory.getCache();
+        this.properties = applicationProperties.getStock();
+        this.stripes = IntStream.range(0, properties.getLockStripes()).mapToObj(i -> new Stripe()).toArray(Stripe[]::new);
+        this.soldOut = Caffeine.newBuilder().expireAfterWrite(Duration.ofSeconds(properties.getSoldOutSeconds())).build();
+    }
+
+    /**
+     * Reserve stock of a product, committed before returning.
+     *
+     * @param productId the id of the product.
+     * @param quantity the quantity to reserve.
+     * @return the reservation, to confirm or release before it expires.
+     * @throws InsufficientStockException if the product does not exist, or has less than {@code quantity} in stock.
+     */
+    public StockReservation reserve(Long productId, int quantity) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("The quantity to reserve must be positive");
+        }
+        if (soldOut.getIfPresent(productId) != null) {
+            throw new InsufficientStockException(productId);
+        }
+        Request request = new Request(productId, quantity);
+        Stripe stripe = stripes[stripe(productId)];
+        stripe.queue.add(request);
+        stripe.lock.lock();
+        try {
+            // unless the previous holder of the stripe took it already
+            if (request.isPending()) {
+                reserve(stripe.drain());
+            }
+        } finally {
+            stripe.lock.unlock();
+        }
+        return request.result();
+    }
+
+    /**
+     * Reserve stock of several products at once, such as the lines of a cart: either all of them are reserved, or none.
+     * <p>
+     * The stock is taken with one JDBC batch, in one transaction committed before returning, holding the lock stripes of
+     * the products.
+     *
+     * @param quantities the quantities to reserve, by product id.
+     * @return the reservations, by product id.
+     * @throws InsufficientStockException for the first product which does not exist, or has less than its quantity
+     * in stock.
+     */
+    public Map<Long, StockReservation> reserve(Map<Long, Integer> quantities) {
+        SortedMap<Long, Integer> sorted = new TreeMap<>(quantities);
+        sorted.forEach((productId, quantity) -> {
+            if (quantity <= 0) {
+                throw new IllegalArgumentException("The quantity to reserve must be positive");
+            }
+            if (soldOut.getIfPresent(productId) != null) {
+                throw new InsufficientStockException(productId);
+            }
+        });
+        // always locked in ascending order, and the stripe of a single reservation on its own
+        int[] locked = sorted.keySet().stream().mapToInt(this::stripe).distinct().sorted().toArray();
+        for (int i = 0; i < locked.length; i++) {
+            stripes[locked[i]].lock.lock();
+        }
+        Map<Long, StockReservation> reservations;
+        try {
+            Instant expiresAt = Instant.now().plusSeconds(properties.getReservationTtlSeconds());
+            reservations = transactionTemplate.execute(status -> {
+                List<Long> insufficient = stockRepository.decrementStocks(sorted);
+                if (!insufficient.isEmpty()) {
+                    Long productId = insufficient.get(0);
+                    if (stockRepository.findStock(productId) == 0) {
+                        soldOut.put(productId, Boolean.TRUE);
+                    }
+                    throw new InsufficientStockException(productId);
+                }
+                Map<Long, StockReservation> reserved = new TreeMap<>();
+                sorted.forEach((productId, quantity) ->
+                    reserved.put(productId, new StockReservation(UUID.randomUUID(), productId, quantity, expiresAt))
+                );
+                stockRepository.insertReservations(List.copyOf(reserved.values()));
+                return reserved;
+            });
+        } finally {
+            for (int i = locked.length - 1; i >= 0; i--) {
+                stripes[locked[i]].lock.unlock();
+            }
+        }
+        sorted.keySet().forEach(productId -> secondLevelCache.evict(Product.class, productId));
+        return reservations;
+    }
+
+    /**
+     * Confirm a reservation, in the current transaction: its stock is kept by the product it was taken from.
+     *
+     * @param reservationId the id of the reservation.
+     * @throws StockReservationExpiredException if the reservation expired, or was already confirmed or released.
+     */
+    @Transactional
+    public void confirm(UUID reservationId) {
+        if (!stockRepository.deleteReservation(reservationId)) {
+            throw new StockReservationExpiredException(reservationId);
+        }
+    }
+
+    /**
+     * Confirm reservations, in the current transaction and a single statement.
+     *
+     * @param reservationIds the ids of the reservations.
+     * @throws StockReservationExpiredException if any of the reservations expired, or was already confirmed or released.
+     */
+    @Transactional
+    public void confirm(Collection<UUID> reservationIds) {
+        if (reservationIds.isEmpty()) {
+            return;
+        }
+        if (stockRepository.deleteReservations(reservationIds) != reservationIds.size()) {
+            // the caller is expected to roll back, restoring the reservations deleted here
+            throw new StockReservationExpiredException(reservationIds);
+        }
+    }
+
+    /**
+     * Release a reservation, giving its stock back to the product.
+     *
+     * @param reservationId the id of the reservation.
+     * @return true if the reservation was released, false if it expired, or was already confirmed or released.
+     */
+    public boolean release(UUID reservationId) {
+        Long productId = transactionTemplate.execute(status ->
+            stockRepository
+                .findReservation(reservationId)
+                .filter(reservation -> stockRepository.deleteReservation(reservation.id()))
+                .map(reservation -> {
+                    stockRepository.incrementStock(reservation.productId(), reservation.quantity());
+                    return reservation.productId();
+                })
+                .orElse(null)
+        );
+        if (productId == null) {
+            return false;
+        }
+        stockChanged(productId);
+        return true;
+    }
+
+    /**
+     * Add stock to a product, such as a delivery from a supplier.
+     *
+     * @param productId the id of the product.
+     * @param quantity the quantity to add.
+     * @return true if the stock was added, false if the product does not exist or does not track its stock.
+     */
+    public boolean restock(Long productId, int quantity) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("The quantity to restock must be positive");
+        }
+        boolean restocked = Boolean.TRUE.equals(
+            transactionTemplate.execute(status -> stockRepository.incrementStock(productId, quantity))
+        );
+        if (restocked) {
+            stockChanged(productId);
+        }
+        return restocked;
+    }
+
+    /**
+     * Release the expired reservations, giving their stock back to the products.
+     * <p>
+     * This is scheduled to run every {@code application.stock.expiry-interval-seconds}.
+     */
+    @Scheduled(fixedDelayString = "${application.stock.expiry-interval-seconds:60}", timeUnit = TimeUnit.SECONDS)
+    public void releaseExpiredReservations() {
+        long released = 0;
+        List<StockReservation> expired;
+        do {
+            expired = stockRepository.findExpiredReservations(Instant.now(), properties.getExpiryBatchSize());
+            List<StockReservation> batch = expired;
+            Map<Long, Integer> restocked = transactionTemplate.execute(status -> {
+                Map<Long, Integer> quantities = new TreeMap<>();
+                for (StockReservation reservation : batch) {
+                    // unless it was confirmed or released meanwhile
+                    if (stockRepository.deleteReservation(reservation.id())) {
+                        quantities.merge(reservation.productId(), reservation.quantity(), Integer::sum);
+                    }
+                }
+                quantities.forEach(stockRepository::incrementStock);
+                return quantities;
+            });
+            restocked.keySet().forEach(this::stockChanged);
+            released += expired.size();
+        } while (expired.size() == properties.getExpiryBatchSize());
+        if (released > 0) {
+            LOG.info("Released {} expired stock reservations", released);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        // its stock may have been replenished
+        soldOut.invalidate(event.productId());
+    }
+
+    private void reserve(List<Request> requests) {
+        Map<Long, List<Request>> byProduct = requests
+            .stream()
+            .collect(Collectors.groupingBy(Request::productId, TreeMap::new, Collectors.toList()));
+        Instant expiresAt = Instant.now().plusSeconds(properties.getReservationTtlSeconds());
+        List<Long> exhausted = new ArrayList<>();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                List<StockReservation> reservations = new ArrayList<>(requests.size());
+                byProduct.forEach((productId, productRequests) -> {
+                    int total = productRequests.stream().mapToInt(Request::quantity).sum();
+                    if (productRequests.size() > 1 && stockRepository.decrementStock(productId, total)) {
+                        productRequests.forEach(request -> reservations.add(request.reserved(expiresAt)));
+                        return;
+                    }
+                    // not enough stock for all of them: take it for as many as possible, in order of arrival
+                    boolean denied = false;
+                    for (Request request : productRequests) {
+                        if (stockRepository.decrementStock(productId, request.quantity())) {
+                            reservations.add(request.reserved(expiresAt));
+                        } else {
+                            denied = true;
+                        }
+                    }
+                    if (denied && stockRepository.findStock(productId) == 0) {
+                        exhausted.add(productId);
+                    }
+                });
+                stockRepository.insertReservations(reservations);
+            });
+        } catch (RuntimeException e) {
+            requests.forEach(request -> request.failed(e));
+            throw e;
+        }
+        for (Request request : requests) {
+            if (request.reservation == null) {
+                request.failed(new InsufficientStockException(request.productId()));
+            }
+        }
+        exhausted.forEach(productId -> soldOut.put(productId, Boolean.TRUE));
+        byProduct.keySet().forEach(productId -> secondLevelCache.evict(Product.class, productId));
+    }
+
+    private int stripe(Long productId) {
+        return Math.floorMod(productId.hashCode(), stripes.length);
+    }
+
+    private void stockChanged(Long productId) {
+        soldOut.invalidate(productId);
+        secondLevelCache.evict(Product.class, productId);
+    }
+
+    private static final class Stripe {
+
+        private final ReentrantLock lock = new ReentrantLock();
+
+        private final Queue<Request> queue = new ConcurrentLinkedQueue<>();
+
+        List<Request> drain() {
+            List<Request> requests = new ArrayList<>();
+            for (Request request = queue.poll(); request != null; request = queue.poll()) {
+                requests.add(request);
+            }
+            return requests;
+        }
+    }
+
+    /**
+     * A queued reservation, completed by whichever thread holds the lock of its stripe.
+     */
+    private static final class Request {
+
+        private final Long productId;
+
+        private final int quantity;
+
+        private StockReservation reservation;
+
+        private RuntimeException failure;
+
+        Request(Long productId, int quantity) {
+            this.productId = productId;
+            this.quantity = quantity;
+        }
+
+        Long productId() {
+            return productId;
+        }
+
+        int quantity() {
+            return quantity;
+        }
+
+        StockReservation reserved(Instant expiresAt) {
+            reservation = new StockReservation(UUID.randomUUID(), productId, quantity, expiresAt);
+            return reservation;
+        }
+
+        void failed(RuntimeException e) {
+            reservation = null;
+            failure = e;
+        }
+
+        boolean isPending() {
+            return reservation == null && failure == null;
+        }
+
+        StockReservation result() {
+            if (failure != null) {
+                throw failure;
+            }
+            return reservation;
+        }
+    }
+}
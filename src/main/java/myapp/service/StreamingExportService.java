@@ -0,0 +1,163 @@
+package myapp.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.persistence.EntityManager;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service writing whole tables to an output stream, without holding them in memory.
+ * <p>
+ * Rows are read through a repository {@link Stream} (a forward-only cursor using the fetch size hinted on the query), in
+ * a read-only transaction of their own. The persistence context is cleared every {@link #CLEAR_INTERVAL} rows, so that
+ * neither the written entities nor the proxies of their associations pile up in it.
+ */
+@Service
+public class StreamingExportService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(StreamingExportService.class);
+
+    /**
+     * Rows kept in the persistence context at most, matching the fetch size hinted on the export queries.
+     */
+    public static final int CLEAR_INTERVAL = 500;
+
+    /**
+     * Media type of the CSV exports, always encoded in UTF-8.
+     */
+    public static final String TEXT_CSV_VALUE = "text/csv";
+
+    private static final int CSV_BUFFER_SIZE = 8192;
+
+    private final EntityManager entityManager;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ObjectWriter ndjsonWriter;
+
+    private final ObjectMapper objectMapper;
+
+    public StreamingExportService(EntityManager entityManager, PlatformTransactionManager transactionManager, ObjectMapper objectMapper) {
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.objectMapper = objectMapper;
+        // flushing is left to the generator, which writes to the response whenever its buffer is full
+        this.ndjsonWriter = objectMapper
+            .writer()
+            .without(SerializationFeature.INDENT_OUTPUT, SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    /**
+     * A column of a CSV export.
+     *
+     * @param name the name of the column, written in the header row.
+     * @param value the function extracting the value of the column from an entity, which may return {@code null}.
+     */
+    public record CsvColumn<T>(String name, Function<? super T, ?> value) {}
+
+    /**
+     * Write the entities of a query as newline-delimited JSON.
+     *
+     * @param query the repository query to stream.
+     * @param out the stream to write to, left open.
+     * @return the number of entities written.
+     */
+    public <T> long writeNdjson(Supplier<Stream<T>> query, OutputStream out) {
+        return transactionTemplate.execute(status -> {
+            long count = 0;
+            try (Stream<T> entities = query.get(); JsonGenerator generator = objectMapper.createGenerator(out)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                generator.setPrettyPrinter(new MinimalPrettyPrinter("\n"));
+                for (Iterator<T> it = entities.iterator(); it.hasNext();) {
+                    ndjsonWriter.writeValue(generator, it.next());
+                    rowWritten(++count);
+                }
+                generator.writeRaw('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            LOG.debug("Streamed {} entities as NDJSON", count);
+            return count;
+        });
+    }
+
+    /**
+     * Write the entities of a query as UTF-8 CSV (RFC 4180), with a header row.
+     *
+     * @param query the repository query to stream.
+     * @param columns the columns to write.
+     * @param out the stream to write to, left open.
+     * @return the number of entities written.
+     */
+    public <T> long writeCsv(Supplier<Stream<T>> query, List<CsvColumn<T>> columns, OutputStream out) {
+        return transactionTemplate.execute(status -> {
+            long count = 0;
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), CSV_BUFFER_SIZE);
+            try (Stream<T> entities = query.get()) {
+                writeCsvRow(writer, columns, CsvColumn::name);
+                for (Iterator<T> it = entities.iterator(); it.hasNext();) {
+                    T entity = it.next();
+                    writeCsvRow(writer, columns, column -> column.value().apply(entity));
+                    rowWritten(++count);
+                }
+                writer.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            LOG.debug("Streamed {} entities as CSV", count);
+            return count;
+        });
+    }
+
+    private void rowWritten(long count) {
+        if (count % CLEAR_INTERVAL == 0) {
+            entityManager.clear();
+        }
+    }
+
+    private static <T> void writeCsvRow(Writer writer, List<CsvColumn<T>> columns, Function<CsvColumn<T>, Object> values)
+        throws IOException {
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writeCsvField(writer, values.apply(columns.get(i)));
+        }
+        writer.write("\r\n");
+    }
+
+    private static void writeCsvField(Writer writer, Object value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        String text = value instanceof BigDecimal decimal ? decimal.toPlainString() : value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            writer.write(text);
+            return;
+        }
+        writer.write('"');
+        writer.write(text.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
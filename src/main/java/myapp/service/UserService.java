@@ -10,13 +10,21 @@ import myapp.domain.User;
 import myapp.repository.AuthorityRepository;
 import myapp.repository.UserRepository;
 import myapp.security.AuthoritiesConstants;
+import myapp.security.DomainUserDetailsService;
 import myapp.security.SecurityUtils;
 import myapp.service.dto.AdminUserDTO;
 import myapp.service.dto.UserDTO;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -38,10 +46,21 @@ public class UserService {
 
     private final AuthorityRepository authorityRepository;
 
-    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder, AuthorityRepository authorityRepository) {
+    private final Cache userDetailsCache;
+
+    public UserService(
+        UserRepository userRepository,
+        PasswordEncoder passwordEncoder,
+        AuthorityRepository authorityRepository,
+        CacheManager cacheManager
+    ) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.authorityRepository = authorityRepository;
+        // evictions only apply once the change is committed, so that a concurrent login cannot cache the old user again
+        this.userDetailsCache = new TransactionAwareCacheDecorator(
+            Objects.requireNonNull(cacheManager.getCache(DomainUserDetailsService.USER_DETAILS_CACHE))
+        );
     }
 
     public Optional<User> activateRegistration(String key) {
@@ -52,6 +71,7 @@ public class UserService {
                 // activate given user for the registration key.
                 user.setActivated(true);
                 user.setActivationKey(null);
+                this.clearUserCaches(user);
                 LOG.debug("Activated user: {}", user);
                 return user;
             });
@@ -66,6 +86,7 @@ public class UserService {
                 user.setPassword(passwordEncoder.encode(newPassword));
                 user.setResetKey(null);
                 user.setResetDate(null);
+                this.clearUserCaches(user);
                 return user;
             });
     }
@@ -128,6 +149,7 @@ public class UserService {
         }
         userRepository.delete(existingUser);
         userRepository.flush();
+        this.clearUserCaches(existingUser);
         return true;
     }
 
@@ -176,6 +198,7 @@ public class UserService {
             .filter(Optional::isPresent)
             .map(Optional::get)
             .map(user -> {
+                this.clearUserCaches(user);
                 user.setLogin(userDTO.getLogin().toLowerCase());
                 user.setFirstName(userDTO.getFirstName());
                 user.setLastName(userDTO.getLastName());
@@ -195,6 +218,7 @@ public class UserService {
                     .map(Optional::get)
                     .forEach(managedAuthorities::add);
                 userRepository.save(user);
+                this.clearUserCaches(user);
                 LOG.debug("Changed Information for User: {}", user);
                 return user;
             })
@@ -206,6 +230,7 @@ public class UserService {
             .findOneByLogin(login)
             .ifPresent(user -> {
                 userRepository.delete(user);
+                this.clearUserCaches(user);
                 LOG.debug("Deleted User: {}", user);
             });
     }
@@ -223,6 +248,7 @@ public class UserService {
         SecurityUtils.getCurrentUserLogin()
             .flatMap(userRepository::findOneByLogin)
             .ifPresent(user -> {
+                this.clearUserCaches(user);
                 user.setFirstName(firstName);
                 user.setLastName(lastName);
                 if (email != null) {
@@ -231,6 +257,7 @@ public class UserService {
                 user.setLangKey(langKey);
                 user.setImageUrl(imageUrl);
                 userRepository.save(user);
+                this.clearUserCaches(user);
                 LOG.debug("Changed Information for User: {}", user);
             });
     }
@@ -246,6 +273,7 @@ public class UserService {
                 }
                 String encryptedPassword = passwordEncoder.encode(newPassword);
                 user.setPassword(encryptedPassword);
+                this.clearUserCaches(user);
                 LOG.debug("Changed password for User: {}", user);
             });
     }
@@ -255,6 +283,16 @@ public class UserService {
         return userRepository.findAll(pageable).map(AdminUserDTO::new);
     }
 
+    @Transactional(readOnly = true)
+    public Window<AdminUserDTO> getAllManagedUsers(ScrollPosition position, Sort sort, Limit limit) {
+        return userRepository.findAllBy(position, sort, limit).map(AdminUserDTO::new);
+    }
+
+    @Transactional(readOnly = true)
+    public long countManagedUsers() {
+        return userRepository.count();
+    }
+
     @Transactional(readOnly = true)
     public Page<UserDTO> getAllPublicUsers(Pageable pageable) {
         return userRepository.findAllByIdNotNullAndActivatedIsTrue(pageable).map(UserDTO::new);
@@ -282,6 +320,7 @@ public class UserService {
             .forEach(user -> {
                 LOG.debug("Deleting not activated user {}", user.getLogin());
                 userRepository.delete(user);
+                this.clearUserCaches(user);
             });
     }
 
@@ -293,4 +332,11 @@ public class UserService {
     public List<String> getAuthorities() {
         return authorityRepository.findAll().stream().map(Authority::getName).toList();
     }
+
+    private void clearUserCaches(User user) {
+        userDetailsCache.evict(user.getLogin().toLowerCase(Locale.ENGLISH));
+        if (user.getEmail() != null) {
+            userDetailsCache.evict(user.getEmail().toLowerCase(Locale.ENGLISH));
+        }
+    }
 }
@@ -0,0 +1,25 @@
+package myapp.service.analytics;
+
+import myapp.domain.Order;
+
+/**
+ * Published by {@link myapp.service.OrderService} and {@link myapp.service.CheckoutService} whenever an order is written
+ * or deleted.
+ *
+ * @param orderId the id of the changed order.
+ * @param before the figures of the order before the change, or {@code null} if it did not count.
+ * @param after the figures of the order after the change, or {@code null} if it does not count anymore.
+ */
+public record OrderChangedEvent(Long orderId, OrderFigures before, OrderFigures after) {
+    public static OrderChangedEvent created(Order order) {
+        return new OrderChangedEvent(order.getId(), null, OrderFigures.of(order));
+    }
+
+    public static OrderChangedEvent updated(OrderFigures before, Order order) {
+        return new OrderChangedEvent(order.getId(), before, OrderFigures.of(order));
+    }
+
+    public static OrderChangedEvent deleted(Long orderId, OrderFigures before) {
+        return new OrderChangedEvent(orderId, before, null);
+    }
+}
@@ -0,0 +1,30 @@
+package myapp.service.analytics;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import myapp.domain.Order;
+import myapp.domain.enumeration.OrderStatus;
+
+/**
+ * The figures an order adds to the rollups.
+ *
+ * @param orderDate the order date, which gives the period of the order.
+ * @param totalAmount the total amount, added to the revenue.
+ * @param shippingCost the shipping cost, zero if unknown.
+ */
+public record OrderFigures(Instant orderDate, BigDecimal totalAmount, BigDecimal shippingCost) {
+    /**
+     * @param order an order, or {@code null}.
+     * @return the figures of the order, or {@code null} if it does not count: cancelled, or missing.
+     */
+    public static OrderFigures of(Order order) {
+        if (order == null || order.getStatus() == OrderStatus.CANCELLED || order.getOrderDate() == null || order.getTotalAmount() == null) {
+            return null;
+        }
+        return new OrderFigures(
+            order.getOrderDate(),
+            order.getTotalAmount(),
+            order.getShippingCost() != null ? order.getShippingCost() : BigDecimal.ZERO
+        );
+    }
+}
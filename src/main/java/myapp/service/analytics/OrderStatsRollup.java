@@ -0,0 +1,172 @@
+package myapp.service.analytics;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import myapp.config.ApplicationProperties;
+import myapp.domain.enumeration.StatsGranularity;
+import myapp.repository.OrderStats;
+import myapp.repository.OrderStatsRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Keeps the rollups of the orders in sync with the {@code jhi_order} table.
+ * <p>
+ * Committed writes are summed in memory by hour, and added to the rollups every
+ * {@code application.order-stats.flush-interval-seconds}, so that orders placed concurrently do not contend on the row
+ * of their period. The recent days are recomputed from the orders every night, repairing any drift (e.g. from the
+ * writes of an instance stopped before it flushed them); the whole history is, at startup, if the rollups are empty.
+ * <p>
+ * A rebuild drops the pending figures of its period, which it reads from the orders instead. The writes committed just
+ * before it reads them, or pending in other instances, may still be counted twice, until the next rebuild.
+ */
+@Component
+public class OrderStatsRollup {
+
+    private static final Logger LOG = LoggerFactory.getLogger(OrderStatsRollup.class);
+
+    private final OrderStatsRepository orderStatsRepository;
+
+    private final ApplicationProperties applicationProperties;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ConcurrentMap<Instant, Delta> pending = new ConcurrentHashMap<>();
+
+    public OrderStatsRollup(
+        OrderStatsRepository orderStatsRepository,
+        ApplicationProperties applicationProperties,
+        PlatformTransactionManager transactionManager
+    ) {
+        this.orderStatsRepository = orderStatsRepository;
+        this.applicationProperties = applicationProperties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * The figures to add to a period.
+     */
+    private record Delta(long orderCount, BigDecimal revenue, BigDecimal shipping) {
+        static Delta of(OrderFigures figures, int sign) {
+            return new Delta(
+                sign,
+                sign < 0 ? figures.totalAmount().negate() : figures.totalAmount(),
+                sign < 0 ? figures.shippingCost().negate() : figures.shippingCost()
+            );
+        }
+
+        Delta plus(Delta other) {
+            return new Delta(orderCount + other.orderCount, revenue.add(other.revenue), shipping.add(other.shipping));
+        }
+
+        boolean isZero() {
+            return orderCount == 0 && revenue.signum() == 0 && shipping.signum() == 0;
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderChanged(OrderChangedEvent event) {
+        if (event.before() != null) {
+            pending.merge(hour(event.before().orderDate()), Delta.of(event.before(), -1), Delta::plus);
+        }
+        if (event.after() != null) {
+            pending.merge(hour(event.after().orderDate()), Delta.of(event.after(), 1), Delta::plus);
+        }
+    }
+
+    /**
+     * Add the pending figures to the rollups. If that fails, they are kept for the next flush.
+     * <p>
+     * This is scheduled to run every 10 seconds, by default.
+     */
+    @Scheduled(fixedDelayString = "${application.order-stats.flush-interval-seconds:10}", timeUnit = TimeUnit.SECONDS)
+    public synchronized void flush() {
+        // sorted, for concurrent instances to lock the rows in the same order
+        Map<Instant, Delta> hours = new TreeMap<>();
+        for (Instant hour : pending.keySet()) {
+            Delta delta = pending.remove(hour);
+            if (delta != null && !delta.isZero()) {
+                hours.put(hour, delta);
+            }
+        }
+        if (hours.isEmpty()) {
+            return;
+        }
+        Map<Instant, Delta> days = new TreeMap<>();
+        hours.forEach((hour, delta) -> days.merge(hour.truncatedTo(ChronoUnit.DAYS), delta, Delta::plus));
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                hours.forEach((hour, delta) -> orderStatsRepository.add(StatsGranularity.HOUR, stats(hour, delta)));
+                days.forEach((day, delta) -> orderStatsRepository.add(StatsGranularity.DAY, stats(day, delta)));
+            });
+            LOG.debug("Added the orders of {} hours to the rollups", hours.size());
+        } catch (RuntimeException e) {
+            hours.forEach((hour, delta) -> pending.merge(hour, delta, Delta::plus));
+            LOG.warn("Could not add the orders of {} hours to the rollups, will retry", hours.size(), e);
+        }
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (orderStatsRepository.isEmpty()) {
+            rebuild(Instant.EPOCH, tomorrow());
+        }
+    }
+
+    /**
+     * Recompute the rollups of the last {@code application.order-stats.rebuild-days} days.
+     * <p>
+     * This is scheduled by default to run every night, see {@code application.order-stats.rebuild-cron}.
+     */
+    @Scheduled(cron = "${application.order-stats.rebuild-cron:0 15 3 * * ?}")
+    public void scheduledRebuild() {
+        Instant to = tomorrow();
+        rebuild(to.minus(applicationProperties.getOrderStats().getRebuildDays() + 1L, ChronoUnit.DAYS), to);
+    }
+
+    /**
+     * Recompute the rollups from the orders, over whole days.
+     *
+     * @param from the start of the period, rounded down to its day.
+     * @param to the end of the period, exclusive, rounded down to its day.
+     */
+    public synchronized void rebuild(Instant from, Instant to) {
+        Instant start = from.truncatedTo(ChronoUnit.DAYS);
+        Instant end = to.truncatedTo(ChronoUnit.DAYS);
+        long begin = System.currentTimeMillis();
+        transactionTemplate.executeWithoutResult(status -> {
+            orderStatsRepository.deleteAll(start, end);
+            // the writes committed so far are read from the orders
+            pending.keySet().removeIf(hour -> !hour.isBefore(start) && hour.isBefore(end));
+            orderStatsRepository.insertFromOrders(start, end);
+        });
+        LOG.info("Rebuilt the order rollups from {} to {} in {} ms", start, end, System.currentTimeMillis() - begin);
+    }
+
+    private static Instant hour(Instant instant) {
+        return instant.truncatedTo(ChronoUnit.HOURS);
+    }
+
+    private static Instant tomorrow() {
+        return Instant.now().truncatedTo(ChronoUnit.DAYS).plus(1, ChronoUnit.DAYS);
+    }
+
+    private static OrderStats stats(Instant bucketStart, Delta delta) {
+        return new OrderStats(bucketStart, delta.orderCount(), delta.revenue(), delta.shipping());
+    }
+}
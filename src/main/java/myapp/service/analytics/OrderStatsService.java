@@ -0,0 +1,71 @@
+package myapp.service.analytics;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.util.List;
+import myapp.domain.enumeration.StatsGranularity;
+import myapp.repository.OrderStats;
+import myapp.repository.OrderStatsRepository;
+import myapp.service.dto.OrderStatsDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service answering the order analytics from the rollups, which lag the orders by up to
+ * {@code application.order-stats.flush-interval-seconds}.
+ */
+@Service
+@Transactional(readOnly = true)
+public class OrderStatsService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(OrderStatsService.class);
+
+    private final OrderStatsRepository orderStatsRepository;
+
+    public OrderStatsService(OrderStatsRepository orderStatsRepository) {
+        this.orderStatsRepository = orderStatsRepository;
+    }
+
+    /**
+     * Get the figures of the orders over a range, widened to whole periods.
+     *
+     * @param granularity the periods to sum the orders by.
+     * @param from the start of the range, rounded down to its period.
+     * @param to the end of the range, exclusive, rounded up to its period.
+     * @return the figures in total, and of the periods which have orders.
+     */
+    public OrderStatsDTO getStats(StatsGranularity granularity, Instant from, Instant to) {
+        LOG.debug("Request to get the Order stats by {} from {} to {}", granularity, from, to);
+        Instant start = from.truncatedTo(granularity.getUnit());
+        Instant end = to.truncatedTo(granularity.getUnit());
+        if (end.isBefore(to)) {
+            end = end.plus(1, granularity.getUnit());
+        }
+        List<OrderStats> rows = orderStatsRepository.findAll(granularity, start, end);
+        long orderCount = 0;
+        BigDecimal revenue = BigDecimal.ZERO;
+        BigDecimal shipping = BigDecimal.ZERO;
+        for (OrderStats row : rows) {
+            orderCount += row.orderCount();
+            revenue = revenue.add(row.revenue());
+            shipping = shipping.add(row.shipping());
+        }
+        return new OrderStatsDTO(
+            granularity,
+            start,
+            end,
+            bucket(new OrderStats(start, orderCount, revenue, shipping)),
+            rows.stream().map(OrderStatsService::bucket).toList()
+        );
+    }
+
+    private static OrderStatsDTO.Bucket bucket(OrderStats stats) {
+        BigDecimal averageBasket = stats.orderCount() == 0
+            ? null
+            : stats.revenue().divide(BigDecimal.valueOf(stats.orderCount()), 2, RoundingMode.HALF_EVEN);
+        return new OrderStatsDTO.Bucket(stats.bucketStart(), stats.orderCount(), stats.revenue(), stats.shipping(), averageBasket);
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Order analytics, answered from rollups of the orders by hour and by day.
+ */
+package myapp.service.analytics;
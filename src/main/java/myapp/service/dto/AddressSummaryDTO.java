@@ -0,0 +1,16 @@
+package myapp.service.dto;
+
+import java.io.Serializable;
+
+/**
+ * A read-only view of an {@link myapp.domain.Address}, for the overview of its customer.
+ *
+ * @param id the id of the address.
+ * @param address1 the first line.
+ * @param address2 the second line, if any.
+ * @param city the city.
+ * @param postcode the postcode.
+ * @param country the country code.
+ */
+public record AddressSummaryDTO(Long id, String address1, String address2, String city, String postcode, String country)
+    implements Serializable {}
@@ -0,0 +1,91 @@
+package myapp.service.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A DTO representing a cart to check out: the products to order, and who orders them. Prices and totals are not part of
+ * it, they are computed by the server.
+ */
+public class CartDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @NotNull
+    private Long customerId;
+
+    private Long shippingAddressId;
+
+    @NotEmpty
+    private List<@Valid @NotNull Item> items = new ArrayList<>();
+
+    public Long getCustomerId() {
+        return customerId;
+    }
+
+    public void setCustomerId(Long customerId) {
+        this.customerId = customerId;
+    }
+
+    public Long getShippingAddressId() {
+        return shippingAddressId;
+    }
+
+    public void setShippingAddressId(Long shippingAddressId) {
+        this.shippingAddressId = shippingAddressId;
+    }
+
+    public List<Item> getItems() {
+        return items;
+    }
+
+    public void setItems(List<Item> items) {
+        this.items = items;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+
+        CartDTO that = (CartDTO) o;
+        return (
+            Objects.equals(customerId, that.customerId) &&
+            Objects.equals(shippingAddressId, that.shippingAddressId) &&
+            Objects.equals(items, that.items)
+        );
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(customerId, shippingAddressId, items);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "CartDTO{" +
+            "customerId=" + customerId +
+            ", shippingAddressId=" + shippingAddressId +
+            ", items=" + items +
+            "}";
+    }
+
+    /**
+     * A product of the cart. A product may be listed several times, its quantities are added up.
+     *
+     * @param productId the id of the product.
+     * @param quantity the quantity to order.
+     */
+    public record Item(@NotNull Long productId, @NotNull @Min(1) Integer quantity) implements Serializable {}
+}
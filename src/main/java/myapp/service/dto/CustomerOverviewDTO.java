@@ -0,0 +1,30 @@
+package myapp.service.dto;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * A read-only view of a {@link myapp.domain.Customer} with its addresses, its latest orders and its wish lists.
+ *
+ * @param id the id of the customer.
+ * @param firstName the first name.
+ * @param lastName the last name.
+ * @param email the email address.
+ * @param telephone the telephone number.
+ * @param addresses all its addresses.
+ * @param orderCount the number of its orders.
+ * @param latestOrders its latest orders, the most recent first.
+ * @param wishLists all its wish lists.
+ */
+public record CustomerOverviewDTO(
+    Long id,
+    String firstName,
+    String lastName,
+    String email,
+    String telephone,
+    List<AddressSummaryDTO> addresses,
+    long orderCount,
+    List<OrderSummaryDTO> latestOrders,
+    List<WishListSummaryDTO> wishLists
+)
+    implements Serializable {}
@@ -0,0 +1,13 @@
+package myapp.service.dto;
+
+import java.io.Serializable;
+
+/**
+ * A read-only view of a {@link myapp.domain.Customer}, for lists.
+ *
+ * @param id the id of the customer.
+ * @param firstName the first name.
+ * @param lastName the last name.
+ * @param email the email address.
+ */
+public record CustomerSummaryDTO(Long id, String firstName, String lastName, String email) implements Serializable {}
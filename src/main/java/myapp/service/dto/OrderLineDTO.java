@@ -0,0 +1,13 @@
+package myapp.service.dto;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+
+/**
+ * A product of an order placed by checkout.
+ *
+ * @param productId the id of the product.
+ * @param quantity the ordered quantity.
+ * @param unitPrice the price of the product when the order was placed.
+ */
+public record OrderLineDTO(Long productId, int quantity, BigDecimal unitPrice) implements Serializable {}
@@ -0,0 +1,126 @@
+package myapp.service.dto;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
+import myapp.domain.enumeration.StatsGranularity;
+
+/**
+ * A DTO representing the figures of the orders over a range, in total and by period.
+ */
+public class OrderStatsDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private StatsGranularity granularity;
+
+    private Instant from;
+
+    private Instant to;
+
+    private Bucket total;
+
+    private List<Bucket> buckets;
+
+    public OrderStatsDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public OrderStatsDTO(StatsGranularity granularity, Instant from, Instant to, Bucket total, List<Bucket> buckets) {
+        this.granularity = granularity;
+        this.from = from;
+        this.to = to;
+        this.total = total;
+        this.buckets = buckets;
+    }
+
+    /**
+     * The figures of the orders which are not cancelled, placed in a period.
+     *
+     * @param start the start of the period, or of the range for the total.
+     * @param orderCount the number of orders.
+     * @param revenue the sum of their total amounts.
+     * @param shipping the sum of their shipping costs.
+     * @param averageBasket the average total amount, {@code null} without orders.
+     */
+    public record Bucket(Instant start, long orderCount, BigDecimal revenue, BigDecimal shipping, BigDecimal averageBasket)
+        implements Serializable {}
+
+    public StatsGranularity getGranularity() {
+        return granularity;
+    }
+
+    public void setGranularity(StatsGranularity granularity) {
+        this.granularity = granularity;
+    }
+
+    public Instant getFrom() {
+        return from;
+    }
+
+    public void setFrom(Instant from) {
+        this.from = from;
+    }
+
+    public Instant getTo() {
+        return to;
+    }
+
+    public void setTo(Instant to) {
+        this.to = to;
+    }
+
+    public Bucket getTotal() {
+        return total;
+    }
+
+    public void setTotal(Bucket total) {
+        this.total = total;
+    }
+
+    public List<Bucket> getBuckets() {
+        return buckets;
+    }
+
+    public void setBuckets(List<Bucket> buckets) {
+        this.buckets = buckets;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+
+        OrderStatsDTO that = (OrderStatsDTO) o;
+        return (
+            granularity == that.granularity &&
+            Objects.equals(from, that.from) &&
+            Objects.equals(to, that.to) &&
+            Objects.equals(total, that.total) &&
+            Objects.equals(buckets, that.buckets)
+        );
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(granularity, from, to, total, buckets);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "OrderStatsDTO{" +
+            "granularity=" + granularity +
+            ", from=" + from +
+            ", to=" + to +
+            ", total=" + total +
+            ", buckets=" + buckets +
+            "}";
+    }
+}
@@ -0,0 +1,26 @@
+package myapp.service.dto;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.Instant;
+import myapp.domain.enumeration.OrderStatus;
+
+/**
+ * A read-only view of an {@link myapp.domain.Order}, for lists.
+ *
+ * @param id the id of the order.
+ * @param orderDate the date it was placed.
+ * @param status its status.
+ * @param statusChangedAt when it entered its status.
+ * @param totalAmount its total amount.
+ * @param customerId the id of its customer, if any.
+ */
+public record OrderSummaryDTO(
+    Long id,
+    Instant orderDate,
+    OrderStatus status,
+    Instant statusChangedAt,
+    BigDecimal totalAmount,
+    Long customerId
+)
+    implements Serializable {}
@@ -0,0 +1,100 @@
+package myapp.service.dto;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A DTO representing an order placed by checkout, with its lines.
+ */
+public class PlacedOrderDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private OrderSummaryDTO order;
+
+    private BigDecimal shippingCost;
+
+    private Long shippingAddressId;
+
+    private List<OrderLineDTO> lines = new ArrayList<>();
+
+    public PlacedOrderDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public PlacedOrderDTO(OrderSummaryDTO order, BigDecimal shippingCost, Long shippingAddressId, List<OrderLineDTO> lines) {
+        this.order = order;
+        this.shippingCost = shippingCost;
+        this.shippingAddressId = shippingAddressId;
+        this.lines = lines;
+    }
+
+    public OrderSummaryDTO getOrder() {
+        return order;
+    }
+
+    public void setOrder(OrderSummaryDTO order) {
+        this.order = order;
+    }
+
+    public BigDecimal getShippingCost() {
+        return shippingCost;
+    }
+
+    public void setShippingCost(BigDecimal shippingCost) {
+        this.shippingCost = shippingCost;
+    }
+
+    public Long getShippingAddressId() {
+        return shippingAddressId;
+    }
+
+    public void setShippingAddressId(Long shippingAddressId) {
+        this.shippingAddressId = shippingAddressId;
+    }
+
+    public List<OrderLineDTO> getLines() {
+        return lines;
+    }
+
+    public void setLines(List<OrderLineDTO> lines) {
+        this.lines = lines;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+
+        PlacedOrderDTO that = (PlacedOrderDTO) o;
+        return (
+            Objects.equals(order, that.order) &&
+            Objects.equals(shippingCost, that.shippingCost) &&
+            Objects.equals(shippingAddressId, that.shippingAddressId) &&
+            Objects.equals(lines, that.lines)
+        );
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(order, shippingCost, shippingAddressId, lines);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "PlacedOrderDTO{" +
+            "order=" + order +
+            ", shippingCost=" + shippingCost +
+            ", shippingAddressId=" + shippingAddressId +
+            ", lines=" + lines +
+            "}";
+    }
+}
@@ -0,0 +1,16 @@
+package myapp.service.dto;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import myapp.domain.enumeration.ProductStatus;
+
+/**
+ * A read-only view of a {@link myapp.domain.Product}, for lists: what a product card shows.
+ *
+ * @param id the id of the product.
+ * @param title its title.
+ * @param price its price.
+ * @param rating its rating, if any.
+ * @param status its status.
+ */
+public record ProductCardDTO(Long id, String title, BigDecimal price, Integer rating, ProductStatus status) implements Serializable {}
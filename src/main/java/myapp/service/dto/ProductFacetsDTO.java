@@ -0,0 +1,83 @@
+package myapp.service.dto;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import myapp.domain.Product;
+
+/**
+ * A DTO representing a page of products matching facet filters, along with the counts of every facet value.
+ */
+public class ProductFacetsDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private long total;
+
+    private Map<String, Map<String, Long>> facets;
+
+    private List<Product> products;
+
+    public ProductFacetsDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public ProductFacetsDTO(long total, Map<String, Map<String, Long>> facets, List<Product> products) {
+        this.total = total;
+        this.facets = facets;
+        this.products = products;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public void setTotal(long total) {
+        this.total = total;
+    }
+
+    public Map<String, Map<String, Long>> getFacets() {
+        return facets;
+    }
+
+    public void setFacets(Map<String, Map<String, Long>> facets) {
+        this.facets = facets;
+    }
+
+    public List<Product> getProducts() {
+        return products;
+    }
+
+    public void setProducts(List<Product> products) {
+        this.products = products;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+
+        ProductFacetsDTO that = (ProductFacetsDTO) o;
+        return total == that.total && Objects.equals(facets, that.facets) && Objects.equals(products, that.products);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(total, facets, products);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "ProductFacetsDTO{" +
+            "total=" + total +
+            ", facets=" + facets +
+            ", products=" + products +
+            "}";
+    }
+}
@@ -0,0 +1,80 @@
+package myapp.service.dto;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A DTO representing the outcome of a bulk product import: the rows imported, and the rows rejected with their errors.
+ */
+public class ProductImportReportDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private long imported;
+
+    private long rejected;
+
+    private List<RowError> errors = new ArrayList<>();
+
+    public long getImported() {
+        return imported;
+    }
+
+    public void setImported(long imported) {
+        this.imported = imported;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public void setRejected(long rejected) {
+        this.rejected = rejected;
+    }
+
+    public List<RowError> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<RowError> errors) {
+        this.errors = errors;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+
+        ProductImportReportDTO that = (ProductImportReportDTO) o;
+        return imported == that.imported && rejected == that.rejected && Objects.equals(errors, that.errors);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(imported, rejected, errors);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "ProductImportReportDTO{" +
+            "imported=" + imported +
+            ", rejected=" + rejected +
+            ", errors=" + errors +
+            "}";
+    }
+
+    /**
+     * A rejected row.
+     *
+     * @param row the number of the row: its line for NDJSON, its record (header excluded) for CSV.
+     * @param message why the row was rejected.
+     */
+    public record RowError(long row, String message) implements Serializable {}
+}
@@ -0,0 +1,68 @@
+package myapp.service.dto;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * A DTO representing a type-ahead suggestion for products.
+ */
+public class ProductSuggestionDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private String text;
+
+    private double weight;
+
+    public ProductSuggestionDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public ProductSuggestionDTO(String text, double weight) {
+        this.text = text;
+        this.weight = weight;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public void setText(String text) {
+        this.text = text;
+    }
+
+    public double getWeight() {
+        return weight;
+    }
+
+    public void setWeight(double weight) {
+        this.weight = weight;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+
+        ProductSuggestionDTO that = (ProductSuggestionDTO) o;
+        return Double.compare(weight, that.weight) == 0 && Objects.equals(text, that.text);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(text, weight);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "ProductSuggestionDTO{" +
+            "text='" + text + '\'' +
+            ", weight=" + weight +
+            "}";
+    }
+}
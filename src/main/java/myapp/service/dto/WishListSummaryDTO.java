@@ -0,0 +1,13 @@
+package myapp.service.dto;
+
+import java.io.Serializable;
+
+/**
+ * A read-only view of a {@link myapp.domain.WishList}, for the overview of its customer.
+ *
+ * @param id the id of the wish list.
+ * @param title the title.
+ * @param restricted whether it is restricted.
+ * @param productCount the number of its products.
+ */
+public record WishListSummaryDTO(Long id, String title, Boolean restricted, long productCount) implements Serializable {}
@@ -0,0 +1,29 @@
+package myapp.service.search;
+
+import java.util.Set;
+import java.util.stream.Collectors;
+import myapp.domain.Category;
+import myapp.domain.Product;
+
+/**
+ * Published by {@link myapp.service.CategoryService} whenever a category is written or deleted.
+ *
+ * @param categoryId the id of the changed category.
+ * @param productIds the ids of the products now linked to the category, or {@code null} if it was deleted.
+ */
+public record CategoryChangedEvent(Long categoryId, Set<Long> productIds) {
+    public static CategoryChangedEvent saved(Category category) {
+        return new CategoryChangedEvent(
+            category.getId(),
+            category.getProducts().stream().map(Product::getId).collect(Collectors.toUnmodifiableSet())
+        );
+    }
+
+    public static CategoryChangedEvent deleted(Long categoryId) {
+        return new CategoryChangedEvent(categoryId, null);
+    }
+
+    public boolean isDeletion() {
+        return productIds == null;
+    }
+}
@@ -0,0 +1,13 @@
+package myapp.service.search;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A window of products matching a {@link FacetQuery}, along with the facet counts.
+ *
+ * @param total the number of products matching the query.
+ * @param counts the number of matching products per facet value, by facet name, most frequent value first.
+ * @param productIds the ids of the requested window, in product id order.
+ */
+public record FacetHits(long total, Map<String, Map<String, Long>> counts, List<Long> productIds) {}
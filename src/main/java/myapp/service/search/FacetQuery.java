@@ -0,0 +1,18 @@
+package myapp.service.search;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Facet filters: values of the same facet are OR-ed, facets are AND-ed.
+ *
+ * @param filters the selected values, by facet name (see the {@link ProductFacetIndex} constants).
+ */
+public record FacetQuery(Map<String, Set<String>> filters) {
+    public static final FacetQuery NONE = new FacetQuery(Map.of());
+
+    public Set<String> valuesOf(String facet) {
+        Set<String> values = filters.get(facet);
+        return values == null || values.isEmpty() ? null : values;
+    }
+}
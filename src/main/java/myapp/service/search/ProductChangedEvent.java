@@ -0,0 +1,23 @@
+package myapp.service.search;
+
+import myapp.domain.Product;
+
+/**
+ * Published by {@link myapp.service.ProductService} whenever a product is written or deleted.
+ *
+ * @param productId the id of the changed product.
+ * @param document the new state of the product, or {@code null} if it was deleted.
+ */
+public record ProductChangedEvent(Long productId, ProductDocument document) {
+    public static ProductChangedEvent saved(Product product) {
+        return new ProductChangedEvent(product.getId(), ProductDocument.of(product));
+    }
+
+    public static ProductChangedEvent deleted(Long productId) {
+        return new ProductChangedEvent(productId, null);
+    }
+
+    public boolean isDeletion() {
+        return document == null;
+    }
+}
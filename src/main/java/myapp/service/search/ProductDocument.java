@@ -0,0 +1,35 @@
+package myapp.service.search;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import myapp.domain.Product;
+import myapp.domain.enumeration.ProductStatus;
+
+/**
+ * Immutable snapshot of the {@link Product} fields the in-memory indexes need.
+ * <p>
+ * Snapshots are taken inside the writing transaction, so indexes never touch managed entities or lazy associations.
+ */
+public record ProductDocument(
+    Long id,
+    String title,
+    String keywords,
+    String description,
+    Integer rating,
+    BigDecimal price,
+    ProductStatus status,
+    Instant dateAdded
+) {
+    public static ProductDocument of(Product product) {
+        return new ProductDocument(
+            product.getId(),
+            product.getTitle(),
+            product.getKeywords(),
+            product.getDescription(),
+            product.getRating(),
+            product.getPrice(),
+            product.getStatus(),
+            product.getDateAdded()
+        );
+    }
+}
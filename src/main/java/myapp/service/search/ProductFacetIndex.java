@@ -0,0 +1,397 @@
+package myapp.service.search;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import myapp.config.ApplicationProperties;
+import myapp.repository.CategoryRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Facet postings over products: one bitset per status, category, rating bucket and price band.
+ * <p>
+ * Every product keeps the same document number for its lifetime in the index, and numbers are handed out in increasing
+ * order, so hits come back in product id order. A query ORs the selected values of each facet and ANDs the facets. The
+ * counts of a facet are computed with the filters of the other facets only, so alternative values keep their counts.
+ */
+@Component
+public class ProductFacetIndex implements ProductIndex {
+
+    public static final String STATUS = "status";
+    public static final String CATEGORY = "category";
+    public static final String RATING = "rating";
+    public static final String PRICE = "price";
+
+    public static final String UNRATED = "none";
+
+    private static final List<String> FACETS = List.of(STATUS, CATEGORY, RATING, PRICE);
+
+    private final ApplicationProperties.Search.Facets properties;
+
+    private final CategoryRepository categoryRepository;
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Segment segment = new Segment();
+
+    private List<CategoryChangedEvent> categoryJournal;
+
+    public ProductFacetIndex(
+        ApplicationProperties applicationProperties,
+        CategoryRepository categoryRepository,
+        PlatformTransactionManager transactionManager
+    ) {
+        this.properties = applicationProperties.getSearch().getFacets();
+        this.categoryRepository = categoryRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @Override
+    public void index(ProductDocument document) {
+        String[] values = valuesOf(document);
+        lock.writeLock().lock();
+        try {
+            segment.put(document.id(), values);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Long productId) {
+        lock.writeLock().lock();
+        try {
+            segment.delete(productId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            segment.putCategory(event);
+            if (categoryJournal != null) {
+                categoryJournal.add(event);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Rebuild startRebuild() {
+        Segment fresh = new Segment();
+        lock.writeLock().lock();
+        try {
+            categoryJournal = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return new Rebuild() {
+            @Override
+            public void add(ProductDocument document) {
+                fresh.put(document.id(), valuesOf(document));
+            }
+
+            @Override
+            public void finish() {
+                readOnlyTransaction.executeWithoutResult(status ->
+                    categoryRepository.streamProductLinks().forEach(link -> fresh.link(link.getCategoryId(), link.getProductId()))
+                );
+            }
+
+            @Override
+            public void commit() {
+                lock.writeLock().lock();
+                try {
+                    segment = fresh;
+                    categoryJournal.forEach(segment::putCategory);
+                    categoryJournal = null;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }
+
+            @Override
+            public void abort() {
+                lock.writeLock().lock();
+                try {
+                    categoryJournal = null;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }
+        };
+    }
+
+    /**
+     * Find the products matching the facet filters, along with the facet counts.
+     *
+     * @param query the facet filters.
+     * @param offset the position of the first hit to return.
+     * @param limit the maximum number of hits to return.
+     * @return the hits.
+     */
+    public FacetHits search(FacetQuery query, int offset, int limit) {
+        lock.readLock().lock();
+        try {
+            return segment.search(query, offset, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private String[] valuesOf(ProductDocument document) {
+        String status = document.status() != null ? document.status().name() : null;
+        return new String[] { status, ratingBucketOf(document.rating()), priceBandOf(document.price()) };
+    }
+
+    String ratingBucketOf(Integer rating) {
+        if (rating == null) {
+            return UNRATED;
+        }
+        int width = Math.max(1, properties.getRatingBucketSize());
+        int low = ((rating - 1) / width) * width + 1;
+        return low + "-" + (low + width - 1);
+    }
+
+    String priceBandOf(BigDecimal price) {
+        if (price == null) {
+            return null;
+        }
+        BigDecimal lower = BigDecimal.ZERO;
+        for (BigDecimal bound : properties.getPriceBands()) {
+            if (price.compareTo(bound) < 0) {
+                return lower.toPlainString() + "-" + bound.toPlainString();
+            }
+            lower = bound;
+        }
+        return lower.toPlainString() + "+";
+    }
+
+    /**
+     * A growable bitset with the in-place and counting operations {@link java.util.BitSet} lacks.
+     */
+    static final class Bits {
+
+        private long[] words = new long[0];
+
+        void set(int bit) {
+            int word = bit >>> 6;
+            if (word >= words.length) {
+                words = Arrays.copyOf(words, Math.max(word + 1, words.length * 2));
+            }
+            words[word] |= 1L << bit;
+        }
+
+        void clear(int bit) {
+            int word = bit >>> 6;
+            if (word < words.length) {
+                words[word] &= ~(1L << bit);
+            }
+        }
+
+        Bits copy() {
+            Bits copy = new Bits();
+            copy.words = words.clone();
+            return copy;
+        }
+
+        void and(Bits other) {
+            for (int i = 0; i < words.length; i++) {
+                words[i] &= i < other.words.length ? other.words[i] : 0L;
+            }
+        }
+
+        void or(Bits other) {
+            if (other.words.length > words.length) {
+                words = Arrays.copyOf(words, other.words.length);
+            }
+            for (int i = 0; i < other.words.length; i++) {
+                words[i] |= other.words[i];
+            }
+        }
+
+        long cardinality() {
+            long count = 0;
+            for (long word : words) {
+                count += Long.bitCount(word);
+            }
+            return count;
+        }
+
+        long andCardinality(Bits other) {
+            long count = 0;
+            int length = Math.min(words.length, other.words.length);
+            for (int i = 0; i < length; i++) {
+                count += Long.bitCount(words[i] & other.words[i]);
+            }
+            return count;
+        }
+
+        int nextSetBit(int from) {
+            int word = from >>> 6;
+            if (word >= words.length) {
+                return -1;
+            }
+            long bits = words[word] & (-1L << from);
+            while (true) {
+                if (bits != 0) {
+                    return word * 64 + Long.numberOfTrailingZeros(bits);
+                }
+                if (++word == words.length) {
+                    return -1;
+                }
+                bits = words[word];
+            }
+        }
+    }
+
+    private static final class Segment {
+
+        private final Map<String, Map<String, Bits>> postings = new HashMap<>();
+        private final Map<Long, Integer> docByProduct = new HashMap<>();
+        private final Bits live = new Bits();
+        private long[] productIds = new long[1024];
+        private String[][] valuesByDoc = new String[1024][];
+        private int maxDoc;
+
+        Segment() {
+            FACETS.forEach(facet -> postings.put(facet, new HashMap<>()));
+        }
+
+        /**
+         * @param values the status, rating bucket and price band of the product.
+         */
+        void put(Long productId, String[] values) {
+            Integer doc = docByProduct.get(productId);
+            if (doc == null) {
+                doc = maxDoc++;
+                if (doc == productIds.length) {
+                    productIds = Arrays.copyOf(productIds, doc * 2);
+                    valuesByDoc = Arrays.copyOf(valuesByDoc, doc * 2);
+                }
+                productIds[doc] = productId;
+                docByProduct.put(productId, doc);
+                live.set(doc);
+            } else {
+                clearValues(doc);
+            }
+            valuesByDoc[doc] = values;
+            setValue(STATUS, values[0], doc);
+            setValue(RATING, values[1], doc);
+            setValue(PRICE, values[2], doc);
+        }
+
+        void delete(Long productId) {
+            Integer doc = docByProduct.remove(productId);
+            if (doc != null) {
+                clearValues(doc);
+                valuesByDoc[doc] = null;
+                live.clear(doc);
+            }
+        }
+
+        void link(Long categoryId, Long productId) {
+            Integer doc = docByProduct.get(productId);
+            if (doc != null) {
+                postings.get(CATEGORY).computeIfAbsent(String.valueOf(categoryId), v -> new Bits()).set(doc);
+            }
+        }
+
+        void putCategory(CategoryChangedEvent event) {
+            String value = String.valueOf(event.categoryId());
+            postings.get(CATEGORY).remove(value);
+            if (!event.isDeletion()) {
+                event.productIds().forEach(productId -> link(event.categoryId(), productId));
+            }
+        }
+
+        private void setValue(String facet, String value, int doc) {
+            if (value != null) {
+                postings.get(facet).computeIfAbsent(value, v -> new Bits()).set(doc);
+            }
+        }
+
+        private void clearValues(int doc) {
+            String[] values = valuesByDoc[doc];
+            clearValue(STATUS, values[0], doc);
+            clearValue(RATING, values[1], doc);
+            clearValue(PRICE, values[2], doc);
+        }
+
+        private void clearValue(String facet, String value, int doc) {
+            Bits bits = value != null ? postings.get(facet).get(value) : null;
+            if (bits != null) {
+                bits.clear(doc);
+            }
+        }
+
+        FacetHits search(FacetQuery query, int offset, int limit) {
+            Map<String, Bits> filters = new HashMap<>();
+            for (String facet : FACETS) {
+                Set<String> values = query.valuesOf(facet);
+                if (values != null) {
+                    Bits filter = new Bits();
+                    values.stream().map(postings.get(facet)::get).filter(bits -> bits != null).forEach(filter::or);
+                    filters.put(facet, filter);
+                }
+            }
+
+            Bits matching = live.copy();
+            filters.values().forEach(matching::and);
+
+            Map<String, Map<String, Long>> counts = new LinkedHashMap<>();
+            for (String facet : FACETS) {
+                Bits base = matching;
+                if (filters.containsKey(facet)) {
+                    base = live.copy();
+                    for (Map.Entry<String, Bits> filter : filters.entrySet()) {
+                        if (!filter.getKey().equals(facet)) {
+                            base.and(filter.getValue());
+                        }
+                    }
+                }
+                counts.put(facet, countValues(base, postings.get(facet)));
+            }
+
+            List<Long> ids = new ArrayList<>();
+            int skipped = 0;
+            for (int doc = matching.nextSetBit(0); doc >= 0 && ids.size() < limit; doc = matching.nextSetBit(doc + 1)) {
+                if (skipped++ >= offset) {
+                    ids.add(productIds[doc]);
+                }
+            }
+            return new FacetHits(matching.cardinality(), counts, ids);
+        }
+
+        private static Map<String, Long> countValues(Bits base, Map<String, Bits> values) {
+            List<Map.Entry<String, Long>> counted = new ArrayList<>();
+            values.forEach((value, bits) -> {
+                long count = base.andCardinality(bits);
+                if (count > 0) {
+                    counted.add(Map.entry(value, count));
+                }
+            });
+            counted.sort(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()));
+            Map<String, Long> result = new LinkedHashMap<>();
+            counted.forEach(entry -> result.put(entry.getKey(), entry.getValue()));
+            return result;
+        }
+    }
+}
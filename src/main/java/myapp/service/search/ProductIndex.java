@@ -0,0 +1,43 @@
+package myapp.service.search;
+
+/**
+ * An in-memory index over {@link ProductDocument}s, kept in sync by {@link ProductIndexSynchronizer}.
+ */
+public interface ProductIndex {
+    /**
+     * Add or replace a product in the index.
+     *
+     * @param document the product snapshot.
+     */
+    void index(ProductDocument document);
+
+    /**
+     * Remove a product from the index, if present.
+     *
+     * @param productId the id of the product.
+     */
+    void remove(Long productId);
+
+    /**
+     * Start building a fresh copy of the index. The live index keeps serving until {@link Rebuild#commit()} swaps it.
+     *
+     * @return the rebuild in progress.
+     */
+    Rebuild startRebuild();
+
+    interface Rebuild {
+        void add(ProductDocument document);
+
+        /**
+         * Called once every product was added, before {@link #commit()}; expensive completion work belongs here.
+         */
+        default void finish() {}
+
+        void commit();
+
+        /**
+         * Called instead of {@link #commit()} when the rebuild failed.
+         */
+        default void abort() {}
+    }
+}
@@ -0,0 +1,129 @@
+package myapp.service.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import myapp.config.ApplicationProperties;
+import myapp.domain.Product;
+import myapp.repository.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Keeps every {@link ProductIndex} in sync with the {@code product} table.
+ * <p>
+ * Committed writes are applied incrementally. A full rebuild reads the table once in id order and feeds all indexes;
+ * writes committed while it runs are journaled and replayed once the rebuilt indexes are swapped in.
+ */
+@Component
+public class ProductIndexSynchronizer {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ProductIndexSynchronizer.class);
+
+    private final List<ProductIndex> indexes;
+
+    private final ProductRepository productRepository;
+
+    private final ApplicationProperties applicationProperties;
+
+    private final Object journalLock = new Object();
+
+    private List<ProductChangedEvent> journal;
+
+    public ProductIndexSynchronizer(
+        List<ProductIndex> indexes,
+        ProductRepository productRepository,
+        ApplicationProperties applicationProperties
+    ) {
+        this.indexes = indexes;
+        this.productRepository = productRepository;
+        this.applicationProperties = applicationProperties;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        synchronized (journalLock) {
+            apply(event);
+            if (journal != null) {
+                journal.add(event);
+            }
+        }
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (applicationProperties.getSearch().isRebuildOnStartup()) {
+            rebuildAll();
+        }
+    }
+
+    /**
+     * Periodically rebuild the indexes, purging drift from incremental updates (e.g. suggestions dropped while full).
+     * <p>
+     * This is scheduled by default to run every night, see {@code application.search.rebuild-cron}.
+     */
+    @Scheduled(cron = "${application.search.rebuild-cron:0 30 3 * * ?}")
+    public void scheduledRebuild() {
+        rebuildAll();
+    }
+
+    /**
+     * Rebuild every product index from the database.
+     */
+    public synchronized void rebuildAll() {
+        LOG.debug("Rebuilding {} product indexes", indexes.size());
+        long start = System.currentTimeMillis();
+        synchronized (journalLock) {
+            journal = new ArrayList<>();
+        }
+        List<ProductIndex.Rebuild> rebuilds = indexes.stream().map(ProductIndex::startRebuild).toList();
+        boolean committed = false;
+        try {
+            int batchSize = applicationProperties.getSearch().getBatchSize();
+            long count = 0;
+            Long lastId = Long.MIN_VALUE;
+            Slice<Product> slice;
+            do {
+                slice = productRepository.findAllByIdGreaterThanOrderByIdAsc(lastId, PageRequest.of(0, batchSize));
+                for (Product product : slice) {
+                    ProductDocument document = ProductDocument.of(product);
+                    rebuilds.forEach(rebuild -> rebuild.add(document));
+                    lastId = product.getId();
+                    count++;
+                }
+            } while (slice.hasNext());
+            rebuilds.forEach(ProductIndex.Rebuild::finish);
+            synchronized (journalLock) {
+                rebuilds.forEach(ProductIndex.Rebuild::commit);
+                committed = true;
+                journal.forEach(this::apply);
+            }
+            LOG.info("Rebuilt product indexes from {} products in {} ms", count, System.currentTimeMillis() - start);
+        } finally {
+            if (!committed) {
+                rebuilds.forEach(ProductIndex.Rebuild::abort);
+            }
+            synchronized (journalLock) {
+                journal = null;
+            }
+        }
+    }
+
+    private void apply(ProductChangedEvent event) {
+        for (ProductIndex index : indexes) {
+            if (event.isDeletion()) {
+                index.remove(event.productId());
+            } else {
+                index.index(event.document());
+            }
+        }
+    }
+}
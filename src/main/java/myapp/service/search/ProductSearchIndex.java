@@ -0,0 +1,321 @@
+package myapp.service.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.springframework.stereotype.Component;
+
+/**
+ * Inverted full-text index over {@code Product.title}, {@code keywords} and {@code description}.
+ * <p>
+ * Products get dense internal document numbers in insertion order, so every postings list is sorted and conjunctive
+ * queries are answered by galloping intersection, scored with BM25. Updates and deletions tombstone the previous
+ * document; tombstones are purged by an in-place compaction once they make up a quarter of the index.
+ */
+@Component
+public class ProductSearchIndex implements ProductIndex {
+
+    static final int TITLE_WEIGHT = 3;
+    static final int KEYWORDS_WEIGHT = 2;
+    static final int DESCRIPTION_WEIGHT = 1;
+
+    /**
+     * Deepest rank that can be paged to, bounding the size of the top-k heap.
+     */
+    public static final int MAX_RESULT_WINDOW = 10_000;
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int MIN_TOMBSTONES_FOR_COMPACTION = 1024;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Segment segment = new Segment();
+
+    @Override
+    public void index(ProductDocument document) {
+        lock.writeLock().lock();
+        try {
+            segment.add(document);
+            segment.compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Long productId) {
+        lock.writeLock().lock();
+        try {
+            segment.delete(productId);
+            segment.compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Rebuild startRebuild() {
+        Segment fresh = new Segment();
+        return new Rebuild() {
+            @Override
+            public void add(ProductDocument document) {
+                fresh.add(document);
+            }
+
+            @Override
+            public void commit() {
+                lock.writeLock().lock();
+                try {
+                    segment = fresh;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }
+        };
+    }
+
+    /**
+     * Find the products containing every term of the query, best match first.
+     *
+     * @param query the free-text query.
+     * @param offset the rank of the first hit to return.
+     * @param limit the maximum number of hits to return.
+     * @return the hits.
+     */
+    public SearchHits search(String query, int offset, int limit) {
+        List<String> terms = new ArrayList<>(new LinkedHashSet<>(TextAnalyzer.tokenize(query)));
+        if (terms.isEmpty()) {
+            return SearchHits.EMPTY;
+        }
+        lock.readLock().lock();
+        try {
+            return segment.search(terms, offset, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return the number of live products in the index.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return segment.liveDocs();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private record ScoredDoc(int doc, double score) {}
+
+    private static final Comparator<ScoredDoc> WORST_FIRST = Comparator.comparingDouble(ScoredDoc::score).thenComparing(
+        ScoredDoc::doc,
+        Comparator.reverseOrder()
+    );
+
+    /**
+     * Sorted postings list of one term: document numbers and their field-weighted term frequencies.
+     */
+    private static final class Postings {
+
+        private int[] docs = new int[4];
+        private int[] freqs = new int[4];
+        private int size;
+
+        void add(int doc, int freq) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                freqs = Arrays.copyOf(freqs, size * 2);
+            }
+            docs[size] = doc;
+            freqs[size] = freq;
+            size++;
+        }
+
+        /**
+         * Gallop from {@code from} to the first position whose document is {@code >= target}.
+         */
+        int advance(int from, int target) {
+            int bound = 1;
+            int lo = from;
+            while (lo + bound < size && docs[lo + bound] < target) {
+                lo += bound;
+                bound <<= 1;
+            }
+            int pos = Arrays.binarySearch(docs, lo, Math.min(lo + bound + 1, size), target);
+            return pos >= 0 ? pos : -pos - 1;
+        }
+
+        boolean retain(int[] remap) {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                int doc = remap[docs[i]];
+                if (doc >= 0) {
+                    docs[kept] = doc;
+                    freqs[kept] = freqs[i];
+                    kept++;
+                }
+            }
+            size = kept;
+            return size > 0;
+        }
+    }
+
+    private static final class Segment {
+
+        private final Map<String, Postings> postings = new HashMap<>();
+        private final Map<Long, Integer> docByProduct = new HashMap<>();
+        private final BitSet deleted = new BitSet();
+        private long[] productIds = new long[1024];
+        private int[] docLengths = new int[1024];
+        private int maxDoc;
+        private int deletedCount;
+        private long totalLength;
+
+        int liveDocs() {
+            return maxDoc - deletedCount;
+        }
+
+        void add(ProductDocument document) {
+            delete(document.id());
+            Map<String, Integer> frequencies = new HashMap<>();
+            int length = accumulate(frequencies, document.title(), TITLE_WEIGHT);
+            length += accumulate(frequencies, document.keywords(), KEYWORDS_WEIGHT);
+            length += accumulate(frequencies, document.description(), DESCRIPTION_WEIGHT);
+
+            int doc = maxDoc++;
+            if (doc == productIds.length) {
+                productIds = Arrays.copyOf(productIds, doc * 2);
+                docLengths = Arrays.copyOf(docLengths, doc * 2);
+            }
+            productIds[doc] = document.id();
+            docLengths[doc] = length;
+            totalLength += length;
+            docByProduct.put(document.id(), doc);
+            frequencies.forEach((term, freq) -> postings.computeIfAbsent(term, t -> new Postings()).add(doc, freq));
+        }
+
+        private static int accumulate(Map<String, Integer> frequencies, String text, int weight) {
+            List<String> terms = TextAnalyzer.tokenize(text);
+            for (String term : terms) {
+                frequencies.merge(term, weight, Integer::sum);
+            }
+            return terms.size() * weight;
+        }
+
+        void delete(Long productId) {
+            Integer doc = docByProduct.remove(productId);
+            if (doc != null) {
+                deleted.set(doc);
+                deletedCount++;
+                totalLength -= docLengths[doc];
+            }
+        }
+
+        void compactIfNeeded() {
+            if (deletedCount < MIN_TOMBSTONES_FOR_COMPACTION || deletedCount < maxDoc / 4) {
+                return;
+            }
+            int[] remap = new int[maxDoc];
+            int live = 0;
+            for (int doc = 0; doc < maxDoc; doc++) {
+                if (deleted.get(doc)) {
+                    remap[doc] = -1;
+                } else {
+                    remap[doc] = live;
+                    productIds[live] = productIds[doc];
+                    docLengths[live] = docLengths[doc];
+                    live++;
+                }
+            }
+            Iterator<Postings> it = postings.values().iterator();
+            while (it.hasNext()) {
+                if (!it.next().retain(remap)) {
+                    it.remove();
+                }
+            }
+            docByProduct.replaceAll((productId, doc) -> remap[doc]);
+            deleted.clear();
+            deletedCount = 0;
+            maxDoc = live;
+        }
+
+        SearchHits search(List<String> terms, int offset, int limit) {
+            Postings[] lists = new Postings[terms.size()];
+            for (int i = 0; i < lists.length; i++) {
+                lists[i] = postings.get(terms.get(i));
+                if (lists[i] == null) {
+                    return SearchHits.EMPTY;
+                }
+            }
+            Arrays.sort(lists, Comparator.comparingInt(p -> p.size));
+
+            int docCount = Math.max(1, liveDocs());
+            double avgLength = Math.max(1.0, (double) totalLength / docCount);
+            double[] idf = new double[lists.length];
+            for (int i = 0; i < lists.length; i++) {
+                idf[i] = Math.log(1 + (docCount - lists[i].size + 0.5) / (lists[i].size + 0.5));
+            }
+
+            long end = Math.min((long) offset + limit, MAX_RESULT_WINDOW);
+            int window = (int) Math.max(0, end);
+            PriorityQueue<ScoredDoc> top = new PriorityQueue<>(Math.max(1, window), WORST_FIRST);
+            int[] cursors = new int[lists.length];
+            long total = 0;
+            Postings lead = lists[0];
+
+            candidates: for (int i = 0; i < lead.size; i++) {
+                int doc = lead.docs[i];
+                if (deleted.get(doc)) {
+                    continue;
+                }
+                double norm = K1 * (1 - B + B * docLengths[doc] / avgLength);
+                double score = idf[0] * termScore(lead.freqs[i], norm);
+                for (int j = 1; j < lists.length; j++) {
+                    int pos = lists[j].advance(cursors[j], doc);
+                    cursors[j] = pos;
+                    if (pos == lists[j].size) {
+                        break candidates;
+                    }
+                    if (lists[j].docs[pos] != doc) {
+                        continue candidates;
+                    }
+                    score += idf[j] * termScore(lists[j].freqs[pos], norm);
+                }
+                total++;
+                if (window > 0) {
+                    ScoredDoc hit = new ScoredDoc(doc, score);
+                    if (top.size() < window) {
+                        top.add(hit);
+                    } else if (WORST_FIRST.compare(hit, top.peek()) > 0) {
+                        top.poll();
+                        top.add(hit);
+                    }
+                }
+            }
+
+            ScoredDoc[] ranked = top.toArray(new ScoredDoc[0]);
+            Arrays.sort(ranked, WORST_FIRST.reversed());
+            List<Long> ids = new ArrayList<>();
+            for (int i = offset; i < ranked.length && i < end; i++) {
+                ids.add(productIds[ranked[i].doc()]);
+            }
+            return new SearchHits(total, ids);
+        }
+
+        private static double termScore(int freq, double norm) {
+            return (freq * (K1 + 1)) / (freq + norm);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package myapp.service.search;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import myapp.domain.Product;
+import myapp.repository.ProductRepository;
+import myapp.service.dto.ProductFacetsDTO;
+import myapp.service.dto.ProductSuggestionDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service Implementation for full-text search over {@link myapp.domain.Product}.
+ */
+@Service
+@Transactional(readOnly = true)
+public class ProductSearchService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ProductSearchService.class);
+
+    private final ProductSearchIndex productSearchIndex;
+
+    private final ProductSuggester productSuggester;
+
+    private final ProductFacetIndex productFacetIndex;
+
+    private final ProductRepository productRepository;
+
+    public ProductSearchService(
+        ProductSearchIndex productSearchIndex,
+        ProductSuggester productSuggester,
+        ProductFacetIndex productFacetIndex,
+        ProductRepository productRepository
+    ) {
+        this.productSearchIndex = productSearchIndex;
+        this.productSuggester = productSuggester;
+        this.productFacetIndex = productFacetIndex;
+        this.productRepository = productRepository;
+    }
+
+    /**
+     * Search the products matching every term of the query, best match first.
+     *
+     * @param query the free-text query.
+     * @param pageable the pagination information, its sort is ignored.
+     * @return the page of matching entities.
+     */
+    public Page<Product> search(String query, Pageable pageable) {
+        LOG.debug("Request to search for a page of Products for query {}", query);
+        int offset = (int) Math.min(pageable.getOffset(), Integer.MAX_VALUE);
+        SearchHits hits = productSearchIndex.search(query, offset, pageable.getPageSize());
+        return new PageImpl<>(findAllInOrder(hits.productIds()), pageable, hits.total());
+    }
+
+    /**
+     * Suggest product titles and keywords completing a prefix, heaviest first.
+     *
+     * @param prefix the text typed so far.
+     * @param size the maximum number of suggestions.
+     * @return the suggestions.
+     */
+    public List<ProductSuggestionDTO> suggest(String prefix, int size) {
+        LOG.debug("Request to suggest Products for prefix {}", prefix);
+        return productSuggester
+            .suggest(prefix, size)
+            .stream()
+            .map(suggestion -> new ProductSuggestionDTO(suggestion.text(), suggestion.weight()))
+            .toList();
+    }
+
+    /**
+     * Get the products matching facet filters, along with the count of every facet value.
+     *
+     * @param query the facet filters.
+     * @param pageable the pagination information, its sort is ignored.
+     * @return the page of matching entities and the facet counts.
+     */
+    public ProductFacetsDTO facets(FacetQuery query, Pageable pageable) {
+        LOG.debug("Request to get a page of Products for facets {}", query);
+        int offset = (int) Math.min(pageable.getOffset(), Integer.MAX_VALUE);
+        FacetHits hits = productFacetIndex.search(query, offset, pageable.getPageSize());
+        return new ProductFacetsDTO(hits.total(), hits.counts(), findAllInOrder(hits.productIds()));
+    }
+
+    /**
+     * Load products by id, keeping the order of the given ids and skipping ids that no longer exist.
+     *
+     * @param ids the ids of the products.
+     * @return the entities.
+     */
+    List<Product> findAllInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Integer> rank = new HashMap<>();
+        for (int i = 0; i < ids.size(); i++) {
+            rank.put(ids.get(i), i);
+        }
+        List<Product> products = new ArrayList<>(productRepository.findAllById(ids));
+        products.sort(Comparator.comparing(product -> rank.get(product.getId())));
+        return products;
+    }
+}
@@ -0,0 +1,412 @@
+package myapp.service.search;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import myapp.config.ApplicationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Type-ahead suggestions over product titles and the comma-separated {@code Product.keywords}.
+ * <p>
+ * Suggestions live in a path-compressed (radix) trie. Every node caches the best weight found below it, so the top-k
+ * completions of a prefix are found best-first without visiting the whole subtree. A suggestion weighs the sum of the
+ * contributions of the products using it, each being the field boost plus {@code rating-weight * rating}.
+ * <p>
+ * The trie holds at most {@code max-entries} suggestions: new ones are dropped once it is full, and the periodic rebuild
+ * keeps the heaviest ones.
+ */
+@Component
+public class ProductSuggester implements ProductIndex {
+
+    private static final int MAX_KEY_LENGTH = 100;
+
+    private final ApplicationProperties.Search.Suggest properties;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Trie trie = new Trie();
+
+    public ProductSuggester(ApplicationProperties applicationProperties) {
+        this.properties = applicationProperties.getSearch().getSuggest();
+    }
+
+    @Override
+    public void index(ProductDocument document) {
+        Map<String, Contribution> contributions = contributionsOf(document);
+        lock.writeLock().lock();
+        try {
+            trie.retract(document.id());
+            trie.contribute(document.id(), contributions, properties.getMaxEntries());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Long productId) {
+        lock.writeLock().lock();
+        try {
+            trie.retract(productId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Rebuild startRebuild() {
+        Trie fresh = new Trie();
+        return new Rebuild() {
+            @Override
+            public void add(ProductDocument document) {
+                fresh.contribute(document.id(), contributionsOf(document), Integer.MAX_VALUE);
+            }
+
+            @Override
+            public void commit() {
+                fresh.trimTo(properties.getMaxEntries());
+                lock.writeLock().lock();
+                try {
+                    trie = fresh;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }
+        };
+    }
+
+    /**
+     * Find the heaviest suggestions starting with a prefix.
+     *
+     * @param prefix the text typed so far.
+     * @param size the maximum number of suggestions.
+     * @return the suggestions, heaviest first.
+     */
+    public List<Suggestion> suggest(String prefix, int size) {
+        String key = keyOf(prefix);
+        if (key.isEmpty() || size <= 0) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            return trie.top(key, Math.min(size, properties.getMaxSize()));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return the number of suggestions held.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return trie.size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public record Suggestion(String text, double weight) {}
+
+    private Map<String, Contribution> contributionsOf(ProductDocument document) {
+        double ratingBonus = properties.getRatingWeight() * (document.rating() != null ? document.rating() : 0);
+        Map<String, Contribution> contributions = new LinkedHashMap<>();
+        addContribution(contributions, document.title(), properties.getTitleBoost() + ratingBonus);
+        if (document.keywords() != null) {
+            for (String keyword : document.keywords().split(",")) {
+                addContribution(contributions, keyword, properties.getKeywordBoost() + ratingBonus);
+            }
+        }
+        return contributions;
+    }
+
+    private static void addContribution(Map<String, Contribution> contributions, String text, double weight) {
+        String key = keyOf(text);
+        if (!key.isEmpty()) {
+            contributions.merge(key, new Contribution(key, text.strip(), weight), (a, b) -> a.weight() >= b.weight() ? a : b);
+        }
+    }
+
+    static String keyOf(String text) {
+        String normalized = TextAnalyzer.normalize(text).strip().replaceAll("\\s+", " ");
+        return normalized.length() > MAX_KEY_LENGTH ? normalized.substring(0, MAX_KEY_LENGTH) : normalized;
+    }
+
+    private record Contribution(String key, String text, double weight) {}
+
+    private static final class Entry {
+
+        private final String key;
+        private final String text;
+        private double weight;
+        private int refs;
+        private boolean live = true;
+
+        Entry(String key, String text) {
+            this.key = key;
+            this.text = text;
+        }
+    }
+
+    private record Applied(Entry entry, double weight) {}
+
+    private static final class Node {
+
+        private static final Node[] NO_CHILDREN = new Node[0];
+
+        private String label;
+        private Node[] children = NO_CHILDREN;
+        private Entry entry;
+        private double maxWeight;
+
+        Node(String label) {
+            this.label = label;
+        }
+
+        int indexOf(char c) {
+            int lo = 0;
+            int hi = children.length - 1;
+            while (lo <= hi) {
+                int mid = (lo + hi) >>> 1;
+                char m = children[mid].label.charAt(0);
+                if (m < c) {
+                    lo = mid + 1;
+                } else if (m > c) {
+                    hi = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -(lo + 1);
+        }
+
+        void insertChild(int at, Node child) {
+            Node[] grown = new Node[children.length + 1];
+            System.arraycopy(children, 0, grown, 0, at);
+            grown[at] = child;
+            System.arraycopy(children, at, grown, at + 1, children.length - at);
+            children = grown;
+        }
+
+        void removeChild(Node child) {
+            int at = indexOf(child.label.charAt(0));
+            Node[] shrunk = new Node[children.length - 1];
+            System.arraycopy(children, 0, shrunk, 0, at);
+            System.arraycopy(children, at + 1, shrunk, at, children.length - at - 1);
+            children = shrunk;
+        }
+
+        void refreshMaxWeight() {
+            double max = entry != null ? entry.weight : Double.NEGATIVE_INFINITY;
+            for (Node child : children) {
+                max = Math.max(max, child.maxWeight);
+            }
+            maxWeight = max;
+        }
+    }
+
+    private static final class Trie {
+
+        private final Node root = new Node("");
+        private final Map<Long, Applied[]> appliedByProduct = new HashMap<>();
+        private int size;
+
+        Trie() {
+            root.maxWeight = Double.NEGATIVE_INFINITY;
+        }
+
+        void contribute(Long productId, Map<String, Contribution> contributions, int maxEntries) {
+            Applied[] applied = new Applied[contributions.size()];
+            int i = 0;
+            for (Contribution contribution : contributions.values()) {
+                List<Node> path = pathTo(contribution.key(), size < maxEntries);
+                Entry entry = null;
+                if (path != null) {
+                    Node node = path.get(path.size() - 1);
+                    if (node.entry == null) {
+                        node.entry = new Entry(contribution.key(), contribution.text());
+                        size++;
+                    }
+                    entry = node.entry;
+                    entry.weight += contribution.weight();
+                    entry.refs++;
+                    refresh(path);
+                }
+                applied[i++] = new Applied(entry, contribution.weight());
+            }
+            appliedByProduct.put(productId, applied);
+        }
+
+        void retract(Long productId) {
+            Applied[] applied = appliedByProduct.remove(productId);
+            if (applied == null) {
+                return;
+            }
+            for (Applied a : applied) {
+                Entry entry = a.entry();
+                if (entry == null || !entry.live) {
+                    continue;
+                }
+                entry.weight -= a.weight();
+                entry.refs--;
+                if (entry.refs == 0) {
+                    removeEntry(entry);
+                } else {
+                    refresh(pathTo(entry.key, false));
+                }
+            }
+        }
+
+        void trimTo(int maxEntries) {
+            if (size <= maxEntries) {
+                return;
+            }
+            List<Entry> entries = new ArrayList<>(size);
+            collect(root, entries);
+            entries.sort(Comparator.comparingDouble(e -> e.weight));
+            for (int i = 0; i < entries.size() - maxEntries; i++) {
+                removeEntry(entries.get(i));
+            }
+        }
+
+        private void collect(Node node, List<Entry> entries) {
+            if (node.entry != null) {
+                entries.add(node.entry);
+            }
+            for (Node child : node.children) {
+                collect(child, entries);
+            }
+        }
+
+        private void removeEntry(Entry entry) {
+            List<Node> path = pathTo(entry.key, false);
+            Node node = path.get(path.size() - 1);
+            node.entry = null;
+            entry.live = false;
+            size--;
+            if (node.children.length == 0 && path.size() > 1) {
+                path.remove(path.size() - 1);
+                Node parent = path.get(path.size() - 1);
+                parent.removeChild(node);
+                node = parent;
+            }
+            if (path.size() > 1 && node.entry == null && node.children.length == 1) {
+                Node only = node.children[0];
+                node.label = node.label + only.label;
+                node.children = only.children;
+                node.entry = only.entry;
+            }
+            refresh(path);
+        }
+
+        /**
+         * Walk down to the node of an exact key, optionally creating it.
+         *
+         * @return the nodes from the root to the key, or {@code null} if the key is absent and may not be created.
+         */
+        private List<Node> pathTo(String key, boolean create) {
+            List<Node> path = new ArrayList<>();
+            Node node = root;
+            path.add(node);
+            int i = 0;
+            while (i < key.length()) {
+                int at = node.indexOf(key.charAt(i));
+                if (at < 0) {
+                    if (!create) {
+                        return null;
+                    }
+                    Node leaf = new Node(key.substring(i));
+                    node.insertChild(-at - 1, leaf);
+                    path.add(leaf);
+                    return path;
+                }
+                Node child = node.children[at];
+                int common = commonPrefixLength(child.label, key, i);
+                if (common < child.label.length()) {
+                    if (!create) {
+                        return null;
+                    }
+                    Node split = new Node(child.label.substring(0, common));
+                    child.label = child.label.substring(common);
+                    split.children = new Node[] { child };
+                    split.maxWeight = child.maxWeight;
+                    node.children[at] = split;
+                    child = split;
+                }
+                node = child;
+                path.add(node);
+                i += common;
+            }
+            return path;
+        }
+
+        private static int commonPrefixLength(String label, String key, int offset) {
+            int max = Math.min(label.length(), key.length() - offset);
+            int i = 0;
+            while (i < max && label.charAt(i) == key.charAt(offset + i)) {
+                i++;
+            }
+            return i;
+        }
+
+        private static void refresh(List<Node> path) {
+            for (int i = path.size() - 1; i >= 0; i--) {
+                path.get(i).refreshMaxWeight();
+            }
+        }
+
+        List<Suggestion> top(String prefix, int k) {
+            Node node = root;
+            int i = 0;
+            while (i < prefix.length()) {
+                int at = node.indexOf(prefix.charAt(i));
+                if (at < 0) {
+                    return List.of();
+                }
+                Node child = node.children[at];
+                int common = commonPrefixLength(child.label, prefix, i);
+                if (i + common == prefix.length()) {
+                    node = child;
+                    break;
+                }
+                if (common < child.label.length()) {
+                    return List.of();
+                }
+                node = child;
+                i += common;
+            }
+
+            List<Suggestion> result = new ArrayList<>(k);
+            PriorityQueue<Candidate> queue = new PriorityQueue<>(Candidate.BEST_FIRST);
+            queue.add(new Candidate(node.maxWeight, node, null));
+            while (!queue.isEmpty() && result.size() < k) {
+                Candidate candidate = queue.poll();
+                if (candidate.entry() != null) {
+                    result.add(new Suggestion(candidate.entry().text, candidate.entry().weight));
+                    continue;
+                }
+                Node current = candidate.node();
+                if (current.entry != null) {
+                    queue.add(new Candidate(current.entry.weight, null, current.entry));
+                }
+                for (Node child : current.children) {
+                    queue.add(new Candidate(child.maxWeight, child, null));
+                }
+            }
+            return result;
+        }
+    }
+
+    private record Candidate(double priority, Node node, Entry entry) {
+        static final Comparator<Candidate> BEST_FIRST = Comparator.comparingDouble(Candidate::priority)
+            .reversed()
+            .thenComparing(c -> c.entry() != null ? c.entry().key : "");
+    }
+}
@@ -0,0 +1,13 @@
+package myapp.service.search;
+
+import java.util.List;
+
+/**
+ * A ranked window of matching product ids.
+ *
+ * @param total the number of products matching the query.
+ * @param productIds the ids of the requested window, best match first.
+ */
+public record SearchHits(long total, List<Long> productIds) {
+    public static final SearchHits EMPTY = new SearchHits(0, List.of());
+}
@@ -0,0 +1,67 @@
+package myapp.service.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Splits free text into lower-cased, accent-folded terms.
+ */
+public final class TextAnalyzer {
+
+    public static final int MIN_TERM_LENGTH = 2;
+    public static final int MAX_TERM_LENGTH = 40;
+
+    private TextAnalyzer() {}
+
+    /**
+     * Normalize a text: accents are stripped and letters are lower-cased.
+     *
+     * @param text the text, may be {@code null}.
+     * @return the normalized text, never {@code null}.
+     */
+    public static String normalize(String text) {
+        if (text == null || text.isEmpty()) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        StringBuilder sb = new StringBuilder(decomposed.length());
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) != Character.NON_SPACING_MARK) {
+                sb.append(c);
+            }
+        }
+        return sb.toString().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Tokenize a text into terms, in order of appearance (duplicates kept).
+     *
+     * @param text the text, may be {@code null}.
+     * @return the terms.
+     */
+    public static List<String> tokenize(String text) {
+        String normalized = normalize(text);
+        List<String> terms = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= normalized.length(); i++) {
+            boolean termChar = i < normalized.length() && Character.isLetterOrDigit(normalized.charAt(i));
+            if (termChar && start < 0) {
+                start = i;
+            } else if (!termChar && start >= 0) {
+                addTerm(terms, normalized, start, i);
+                start = -1;
+            }
+        }
+        return terms;
+    }
+
+    private static void addTerm(List<String> terms, String text, int start, int end) {
+        int length = end - start;
+        if (length >= MIN_TERM_LENGTH) {
+            terms.add(text.substring(start, start + Math.min(length, MAX_TERM_LENGTH)));
+        }
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * In-memory product indexes (full-text search, suggestions, facets).
+ */
+package myapp.service.search;
@@ -0,0 +1,242 @@
+package myapp.web.filter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import myapp.service.IdempotencyService;
+import myapp.service.IdempotencyService.Claim;
+import myapp.service.IdempotencyService.StoredResponse;
+import myapp.web.rest.errors.IdempotencyKeyReusedException;
+import myapp.web.rest.errors.IdempotentRequestInProgressException;
+import myapp.web.rest.errors.InvalidIdempotencyKeyException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+/**
+ * Makes the create requests sent with an {@code Idempotency-Key} header safe to retry.
+ * <p>
+ * The first request with a key is executed, and its response stored if it succeeded. The retries of that request, with
+ * the same key and the same method, path and body, are answered with the stored response and an
+ * {@code Idempotent-Replayed: true} header, instead of being executed again. A retry arriving while the first request is
+ * still in progress is answered {@code 409 (Conflict)}, unless that request completes soon enough for its response to be
+ * replayed. A key reused for a different request is answered {@code 422 (Unprocessable Entity)}. These errors are
+ * resolved by the {@link HandlerExceptionResolver}, into the same problem details as the errors of the controllers.
+ */
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyService idempotencyService;
+
+    private final Set<String> paths;
+
+    private final HandlerExceptionResolver handlerExceptionResolver;
+
+    /**
+     * @param idempotencyService the store of the responses.
+     * @param paths the paths of the create requests, which are only handled for {@code POST}.
+     * @param handlerExceptionResolver the resolver writing the errors of this filter.
+     */
+    public IdempotencyFilter(IdempotencyService idempotencyService, Set<String> paths, HandlerExceptionResolver handlerExceptionResolver) {
+        this.idempotencyService = idempotencyService;
+        this.paths = paths;
+        this.handlerExceptionResolver = handlerExceptionResolver;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return (
+            !HttpMethod.POST.matches(request.getMethod()) ||
+            request.getHeader(IDEMPOTENCY_KEY_HEADER) == null ||
+            !paths.contains(request.getRequestURI().substring(request.getContextPath().length()))
+        );
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+        throws ServletException, IOException {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || authentication instanceof AnonymousAuthenticationToken) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        String key = request.getHeader(IDEMPOTENCY_KEY_HEADER);
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            reject(request, response, new InvalidIdempotencyKeyException());
+            return;
+        }
+
+        byte[] body = request.getInputStream().readAllBytes();
+        String fingerprint = fingerprint(request, body);
+        String login = authentication.getName();
+        Claim claim = idempotencyService.claim(login, key, fingerprint);
+        switch (claim.status()) {
+            case COMPLETED -> replay(claim.response(), response);
+            case IN_PROGRESS -> reject(request, response, new IdempotentRequestInProgressException());
+            case REUSED -> reject(request, response, new IdempotencyKeyReusedException());
+            case CLAIMED -> execute(new CachedBodyRequest(request, body), response, filterChain, login, key, fingerprint);
+        }
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, Exception exception) {
+        handlerExceptionResolver.resolveException(request, response, null, exception);
+    }
+
+    private void execute(
+        HttpServletRequest request,
+        HttpServletResponse response,
+        FilterChain filterChain,
+        String login,
+        String key,
+        String fingerprint
+    ) throws ServletException, IOException {
+        ContentCachingResponseWrapper responseWrapper = new ContentCachingResponseWrapper(response);
+        boolean completed = false;
+        try {
+            filterChain.doFilter(request, responseWrapper);
+            int status = responseWrapper.getStatus();
+            if (status >= 200 && status < 300) {
+                String body = new String(responseWrapper.getContentAsByteArray(), StandardCharsets.UTF_8);
+                idempotencyService.complete(login, key, new StoredResponse(fingerprint, status, replayedHeaders(responseWrapper), body));
+                completed = true;
+            }
+        } finally {
+            if (!completed) {
+                idempotencyService.abandon(login, key);
+            }
+            responseWrapper.copyBodyToResponse();
+        }
+    }
+
+    private static void replay(StoredResponse stored, HttpServletResponse response) throws IOException {
+        response.setStatus(stored.status());
+        stored.headers().forEach(response::setHeader);
+        response.setHeader(REPLAYED_HEADER, "true");
+        byte[] body = stored.body().getBytes(StandardCharsets.UTF_8);
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    /**
+     * @return the headers describing the created entity: its location, the content type, and the alerts.
+     */
+    private static Map<String, String> replayedHeaders(HttpServletResponse response) {
+        Map<String, String> headers = new LinkedHashMap<>();
+        if (response.getContentType() != null) {
+            headers.put(HttpHeaders.CONTENT_TYPE, response.getContentType());
+        }
+        for (String name : response.getHeaderNames()) {
+            String lowerCaseName = name.toLowerCase(Locale.ENGLISH);
+            if (lowerCaseName.equals("location") || lowerCaseName.endsWith("-alert") || lowerCaseName.endsWith("-params")) {
+                headers.put(name, response.getHeader(name));
+            }
+        }
+        return headers;
+    }
+
+    private static String fingerprint(HttpServletRequest request, byte[] body) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update((request.getMethod() + ' ' + request.getRequestURI() + '\n').getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest.digest(body));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * A request whose body was already read, to hash it.
+     */
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    // the whole body is in memory: it is available at once, and then all read
+                    try {
+                        if (!isFinished()) {
+                            readListener.onDataAvailable();
+                        }
+                        readListener.onAllDataRead();
+                    } catch (IOException e) {
+                        readListener.onError(e);
+                    }
+                }
+
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            Charset charset = encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8;
+            return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+
+        @Override
+        public int getContentLength() {
+            return body.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return body.length;
+        }
+    }
+}
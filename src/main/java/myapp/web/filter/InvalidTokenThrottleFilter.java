@@ -0,0 +1,47 @@
+package myapp.web.filter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import myapp.management.SecurityMetersService;
+import myapp.security.InvalidTokenTracker;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+public class InvalidTokenThrottleFilter extends OncePerRequestFilter {
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final InvalidTokenTracker invalidTokenTracker;
+
+    private final SecurityMetersService metersService;
+
+    public InvalidTokenThrottleFilter(InvalidTokenTracker invalidTokenTracker, SecurityMetersService metersService) {
+        this.invalidTokenTracker = invalidTokenTracker;
+        this.metersService = metersService;
+    }
+
+    /**
+     * Rejects the bearer token requests of the clients which presented too many invalid tokens, before their token is
+     * decoded.
+     */
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+        throws ServletException, IOException {
+        String authorization = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (
+            authorization != null &&
+            authorization.regionMatches(true, 0, BEARER_PREFIX, 0, BEARER_PREFIX.length()) &&
+            invalidTokenTracker.isBlocked(request.getRemoteAddr())
+        ) {
+            metersService.trackTokenRequestThrottled();
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            return;
+        }
+
+        filterChain.doFilter(request, response);
+    }
+}
@@ -10,11 +10,14 @@ import java.util.Optional;
 import myapp.domain.Address;
 import myapp.repository.AddressRepository;
 import myapp.web.rest.errors.BadRequestAlertException;
+import myapp.web.rest.util.CursorPaginationUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
@@ -36,6 +39,8 @@ public class AddressResource {
 
     private static final String ENTITY_NAME = "address";
 
+    private static final List<String> KEYSET_PROPERTIES = List.of("id", "country", "city", "postcode");
+
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
@@ -168,6 +173,42 @@ public class AddressResource {
         return ResponseEntity.ok().headers(headers).body(page.getContent());
     }
 
+    /**
+     * {@code GET  /addresses?cursor=} : get a window of the addresss by keyset (seek) pagination.
+     * <p>
+     * Send an empty cursor for the first page, then the {@code X-Next-Cursor} of the previous page.
+     *
+     * @param cursor the cursor of the page to read.
+     * @param size the number of addresss per page.
+     * @param sort the sort of the first page, on {@code id, country, city, postcode}.
+     * @param count whether to return the total count as {@code X-Total-Count}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of addresss in body.
+     */
+    @GetMapping(value = "", params = CursorPaginationUtil.CURSOR_PARAMETER)
+    public ResponseEntity<List<Address>> getAllAddressesByCursor(
+        @RequestParam(CursorPaginationUtil.CURSOR_PARAMETER) String cursor,
+        @RequestParam(name = "size", required = false, defaultValue = "20") int size,
+        @org.springdoc.core.annotations.ParameterObject Sort sort,
+        @RequestParam(name = "count", required = false, defaultValue = "false") boolean count
+    ) {
+        LOG.debug("REST request to get a window of Addresses");
+        CursorPaginationUtil.Cursor position = CursorPaginationUtil.decode(
+            cursor,
+            sort,
+            size,
+            Address.class,
+            KEYSET_PROPERTIES,
+            ENTITY_NAME
+        );
+        Window<Address> window = addressRepository.findAllBy(position.position(), position.sort(), position.limit());
+        HttpHeaders headers = CursorPaginationUtil.generateCursorHttpHeaders(
+            ServletUriComponentsBuilder.fromCurrentRequest(),
+            CursorPaginationUtil.encode(window, position.sort()),
+            count ? addressRepository.count() : null
+        );
+        return ResponseEntity.ok().headers(headers).body(window.getContent());
+    }
+
     /**
      * {@code GET  /addresses/:id} : get the "id" address.
      *
@@ -4,12 +4,16 @@ import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import myapp.domain.Category;
+import myapp.domain.Product;
 import myapp.repository.CategoryRepository;
 import myapp.service.CategoryService;
+import myapp.service.InvalidCategoryTreeException;
+import myapp.service.StreamingExportService;
 import myapp.web.rest.errors.BadRequestAlertException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -17,8 +21,10 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.PaginationUtil;
@@ -35,6 +41,16 @@ public class CategoryResource {
 
     private static final String ENTITY_NAME = "category";
 
+    private static final List<StreamingExportService.CsvColumn<Category>> CSV_COLUMNS = List.of(
+        new StreamingExportService.CsvColumn<>("id", Category::getId),
+        new StreamingExportService.CsvColumn<>("description", Category::getDescription),
+        new StreamingExportService.CsvColumn<>("sortOrder", Category::getSortOrder),
+        new StreamingExportService.CsvColumn<>("status", Category::getStatus),
+        new StreamingExportService.CsvColumn<>("parentId", category -> category.getParent() == null ? null : category.getParent().getId()),
+        new StreamingExportService.CsvColumn<>("dateAdded", Category::getDateAdded),
+        new StreamingExportService.CsvColumn<>("dateModified", Category::getDateModified)
+    );
+
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
@@ -42,9 +58,16 @@ public class CategoryResource {
 
     private final CategoryRepository categoryRepository;
 
-    public CategoryResource(CategoryService categoryService, CategoryRepository categoryRepository) {
+    private final StreamingExportService streamingExportService;
+
+    public CategoryResource(
+        CategoryService categoryService,
+        CategoryRepository categoryRepository,
+        StreamingExportService streamingExportService
+    ) {
         this.categoryService = categoryService;
         this.categoryRepository = categoryRepository;
+        this.streamingExportService = streamingExportService;
     }
 
     /**
@@ -72,7 +95,7 @@ public class CategoryResource {
      * @param id the id of the category to save.
      * @param category the category to update.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated category,
-     * or with status {@code 400 (Bad Request)} if the category is not valid,
+     * or with status {@code 400 (Bad Request)} if the category is not valid, or is moved under itself,
      * or with status {@code 500 (Internal Server Error)} if the category couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
@@ -93,7 +116,11 @@ public class CategoryResource {
             throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
         }
 
-        category = categoryService.update(category);
+        try {
+            category = categoryService.update(category);
+        } catch (InvalidCategoryTreeException e) {
+            throw new BadRequestAlertException(e.getMessage(), ENTITY_NAME, e.getErrorKey());
+        }
         return ResponseEntity.ok()
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, category.getId().toString()))
             .body(category);
@@ -139,7 +166,8 @@ public class CategoryResource {
      * {@code GET  /categories} : get all the categories.
      *
      * @param pageable the pagination information.
-     * @param eagerload flag to eager load entities from relationships (This is applicable for many-to-many).
+     * @param eagerload flag to eager load entities from relationships (This is applicable for many-to-many), which loads the
+     * first products of each category: all of them are paged by {@code GET  /categories/:id/products}.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of categories in body.
      */
     @GetMapping("")
@@ -158,6 +186,34 @@ public class CategoryResource {
         return ResponseEntity.ok().headers(headers).body(page.getContent());
     }
 
+    /**
+     * {@code GET  /categories} with {@code Accept: application/x-ndjson} : stream all the categories, one JSON document
+     * per line, ordered by id. Their products are not included.
+     *
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the categories in body.
+     */
+    @GetMapping(value = "", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllCategories() {
+        LOG.debug("REST request to stream all Categories");
+        StreamingResponseBody body = out -> streamingExportService.writeNdjson(categoryRepository::streamAllByOrderByIdAsc, out);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    /**
+     * {@code GET  /categories} with {@code Accept: text/csv} : stream all the categories as CSV, ordered by id.
+     *
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the categories in body.
+     */
+    @GetMapping(value = "", produces = StreamingExportService.TEXT_CSV_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllCategoriesAsCsv() {
+        LOG.debug("REST request to stream all Categories as CSV");
+        StreamingResponseBody body = out -> streamingExportService.writeCsv(categoryRepository::streamAllByOrderByIdAsc, CSV_COLUMNS, out);
+        return ResponseEntity.ok()
+            .contentType(new MediaType("text", "csv", StandardCharsets.UTF_8))
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"categories.csv\"")
+            .body(body);
+    }
+
     /**
      * {@code GET  /categories/:id} : get the "id" category.
      *
@@ -171,16 +227,92 @@ public class CategoryResource {
         return ResponseUtil.wrapOrNotFound(category);
     }
 
+    /**
+     * {@code GET  /categories/:id/subtree} : get the "id" category and its descendants.
+     *
+     * @param id the id of the category.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the categories, by depth then sort order, in body,
+     * or with status {@code 404 (Not Found)}.
+     */
+    @GetMapping("/{id}/subtree")
+    public ResponseEntity<List<Category>> getCategorySubtree(@PathVariable("id") Long id) {
+        LOG.debug("REST request to get the subtree of Category : {}", id);
+        List<Category> subtree = categoryService.findSubtree(id);
+        return ResponseUtil.wrapOrNotFound(Optional.of(subtree).filter(categories -> !categories.isEmpty()));
+    }
+
+    /**
+     * {@code GET  /categories/:id/ancestors} : get the ancestors of the "id" category.
+     *
+     * @param id the id of the category.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the ancestors, from the root to the parent, in body,
+     * or with status {@code 404 (Not Found)}.
+     */
+    @GetMapping("/{id}/ancestors")
+    public ResponseEntity<List<Category>> getCategoryAncestors(@PathVariable("id") Long id) {
+        LOG.debug("REST request to get the ancestors of Category : {}", id);
+        return ResponseUtil.wrapOrNotFound(categoryService.findAncestors(id));
+    }
+
+    /**
+     * {@code GET  /categories/:id/products} : get the products of the "id" category.
+     *
+     * @param id the id of the category.
+     * @param pageable the pagination information, whose sort is ignored: the products are always sorted by id.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of products in body,
+     * or with status {@code 404 (Not Found)}.
+     */
+    @GetMapping("/{id}/products")
+    public ResponseEntity<List<Product>> getCategoryProducts(
+        @PathVariable("id") Long id,
+        @org.springdoc.core.annotations.ParameterObject Pageable pageable
+    ) {
+        LOG.debug("REST request to get a page of Products of Category : {}", id);
+        if (!categoryRepository.existsById(id)) {
+            return ResponseEntity.notFound().build();
+        }
+        Page<Product> page = categoryService.findProducts(id, pageable);
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
+    }
+
+    /**
+     * {@code GET  /categories/:id/subtree/products} : get the products of the "id" category and of its descendants.
+     *
+     * @param id the id of the category.
+     * @param pageable the pagination information, whose sort is ignored: the products are always sorted by id.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of products in body,
+     * or with status {@code 404 (Not Found)}.
+     */
+    @GetMapping("/{id}/subtree/products")
+    public ResponseEntity<List<Product>> getCategorySubtreeProducts(
+        @PathVariable("id") Long id,
+        @org.springdoc.core.annotations.ParameterObject Pageable pageable
+    ) {
+        LOG.debug("REST request to get a page of Products in the subtree of Category : {}", id);
+        if (!categoryRepository.existsById(id)) {
+            return ResponseEntity.notFound().build();
+        }
+        Page<Product> page = categoryService.findProductsInSubtree(id, pageable);
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
+    }
+
     /**
      * {@code DELETE  /categories/:id} : delete the "id" category.
      *
      * @param id the id of the category to delete.
-     * @return the {@link ResponseEntity} with status {@code 204 (NO_CONTENT)}.
+     * @return the {@link ResponseEntity} with status {@code 204 (NO_CONTENT)},
+     * or with status {@code 400 (Bad Request)} if the category has children.
      */
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteCategory(@PathVariable("id") Long id) {
         LOG.debug("REST request to delete Category : {}", id);
-        categoryService.delete(id);
+        try {
+            categoryService.delete(id);
+        } catch (InvalidCategoryTreeException e) {
+            throw new BadRequestAlertException(e.getMessage(), ENTITY_NAME, e.getErrorKey());
+        }
         return ResponseEntity.noContent()
             .headers(HeaderUtil.createEntityDeletionAlert(applicationName, false, ENTITY_NAME, id.toString()))
             .build();
@@ -10,12 +10,17 @@ import java.util.Optional;
 import myapp.domain.Customer;
 import myapp.repository.CustomerRepository;
 import myapp.service.CustomerService;
+import myapp.service.dto.CustomerOverviewDTO;
+import myapp.service.dto.CustomerSummaryDTO;
 import myapp.web.rest.errors.BadRequestAlertException;
+import myapp.web.rest.util.CursorPaginationUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -35,6 +40,8 @@ public class CustomerResource {
 
     private static final String ENTITY_NAME = "customer";
 
+    private static final List<String> KEYSET_PROPERTIES = List.of("id", "lastName", "firstName", "email");
+
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
@@ -149,6 +156,58 @@ public class CustomerResource {
         return ResponseEntity.ok().headers(headers).body(page.getContent());
     }
 
+    /**
+     * {@code GET  /customers?view=summary} : get all the customers, as read-only summaries.
+     *
+     * @param pageable the pagination information.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of summaries in body.
+     */
+    @GetMapping(value = "", params = { "view=summary", "!" + CursorPaginationUtil.CURSOR_PARAMETER })
+    public ResponseEntity<List<CustomerSummaryDTO>> getAllCustomerSummaries(
+        @org.springdoc.core.annotations.ParameterObject Pageable pageable
+    ) {
+        LOG.debug("REST request to get a page of Customer summaries");
+        Page<CustomerSummaryDTO> page = customerService.findAllSummaries(pageable);
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
+    }
+
+    /**
+     * {@code GET  /customers?cursor=} : get a window of the customers by keyset (seek) pagination.
+     * <p>
+     * Send an empty cursor for the first page, then the {@code X-Next-Cursor} of the previous page.
+     *
+     * @param cursor the cursor of the page to read.
+     * @param size the number of customers per page.
+     * @param sort the sort of the first page, on {@code id, lastName, firstName, email}.
+     * @param count whether to return the total count as {@code X-Total-Count}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of customers in body.
+     */
+    @GetMapping(value = "", params = CursorPaginationUtil.CURSOR_PARAMETER)
+    public ResponseEntity<List<Customer>> getAllCustomersByCursor(
+        @RequestParam(CursorPaginationUtil.CURSOR_PARAMETER) String cursor,
+        @RequestParam(name = "size", required = false, defaultValue = "20") int size,
+        @org.springdoc.core.annotations.ParameterObject Sort sort,
+        @RequestParam(name = "count", required = false, defaultValue = "false") boolean count
+    ) {
+        LOG.debug("REST request to get a window of Customers");
+        CursorPaginationUtil.Cursor position = CursorPaginationUtil.decode(
+            cursor,
+            sort,
+            size,
+            Customer.class,
+            KEYSET_PROPERTIES,
+            ENTITY_NAME
+        );
+        Window<Customer> window = customerService.findAll(position.position(), position.sort(), position.limit());
+        HttpHeaders headers = CursorPaginationUtil.generateCursorHttpHeaders(
+            ServletUriComponentsBuilder.fromCurrentRequest(),
+            CursorPaginationUtil.encode(window, position.sort()),
+            count ? customerService.count() : null
+        );
+        return ResponseEntity.ok().headers(headers).body(window.getContent());
+    }
+
     /**
      * {@code GET  /customers/:id} : get the "id" customer.
      *
@@ -162,6 +221,59 @@ public class CustomerResource {
         return ResponseUtil.wrapOrNotFound(customer);
     }
 
+    /**
+     * {@code GET  /customers/_by-email?email=} : get the customer with an email, whatever its case.
+     *
+     * @param email the email address of the customer to retrieve.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the customer, or with status {@code 404 (Not Found)}.
+     */
+    @GetMapping("/_by-email")
+    public ResponseEntity<Customer> getCustomerByEmail(@RequestParam("email") String email) {
+        LOG.debug("REST request to get Customer by email : {}", email);
+        return ResponseUtil.wrapOrNotFound(customerService.findOneByEmail(email));
+    }
+
+    /**
+     * {@code POST  /customers/_find-or-create} : get the customer with the email of a customer, whatever its case, or create it.
+     *
+     * @param customer the customer to create, unless one has its email.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the existing customer, or with status
+     * {@code 201 (Created)} and with body the new customer, or with status {@code 400 (Bad Request)} if the customer has already an ID.
+     * @throws URISyntaxException if the Location URI syntax is incorrect.
+     */
+    @PostMapping("/_find-or-create")
+    public ResponseEntity<Customer> findOrCreateCustomer(@Valid @RequestBody Customer customer) throws URISyntaxException {
+        LOG.debug("REST request to find or create Customer : {}", customer);
+        if (customer.getId() != null) {
+            throw new BadRequestAlertException("A new customer cannot already have an ID", ENTITY_NAME, "idexists");
+        }
+        CustomerService.FoundOrCreated result = customerService.findOrCreate(customer);
+        if (!result.created()) {
+            return ResponseEntity.ok(result.customer());
+        }
+        Long id = result.customer().getId();
+        return ResponseEntity.created(new URI("/api/customers/" + id))
+            .headers(HeaderUtil.createEntityCreationAlert(applicationName, false, ENTITY_NAME, id.toString()))
+            .body(result.customer());
+    }
+
+    /**
+     * {@code GET  /customers/:id/overview} : get the overview of the "id" customer.
+     *
+     * @param id the id of the customer.
+     * @param orders the number of latest orders, at most {@value CustomerService#MAX_LATEST_ORDERS}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the customer with its addresses, its latest orders
+     * and its wish lists, or with status {@code 404 (Not Found)}.
+     */
+    @GetMapping("/{id}/overview")
+    public ResponseEntity<CustomerOverviewDTO> getCustomerOverview(
+        @PathVariable("id") Long id,
+        @RequestParam(name = "orders", required = false, defaultValue = "10") int orders
+    ) {
+        LOG.debug("REST request to get the overview of Customer : {}", id);
+        return ResponseUtil.wrapOrNotFound(customerService.findOverview(id, orders));
+    }
+
     /**
      * {@code DELETE  /customers/:id} : delete the "id" customer.
      *
@@ -4,18 +4,34 @@ import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import myapp.domain.Order;
+import myapp.domain.enumeration.OrderStatus;
+import myapp.domain.enumeration.StatsGranularity;
+import myapp.repository.OrderLineRepository;
 import myapp.repository.OrderRepository;
+import myapp.service.CheckoutService;
+import myapp.service.InvalidCartException;
 import myapp.service.OrderService;
+import myapp.service.analytics.OrderStatsService;
+import myapp.service.dto.CartDTO;
+import myapp.service.dto.OrderLineDTO;
+import myapp.service.dto.OrderStatsDTO;
+import myapp.service.dto.OrderSummaryDTO;
+import myapp.service.dto.PlacedOrderDTO;
 import myapp.web.rest.errors.BadRequestAlertException;
+import myapp.web.rest.util.CursorPaginationUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -35,6 +51,12 @@ public class OrderResource {
 
     private static final String ENTITY_NAME = "order";
 
+    private static final List<String> KEYSET_PROPERTIES = List.of("id", "orderDate", "status", "totalAmount");
+
+    private static final int MAX_STATS_BUCKETS = 10_000;
+
+    private static final Duration DEFAULT_STATS_RANGE = Duration.ofDays(30);
+
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
@@ -42,16 +64,32 @@ public class OrderResource {
 
     private final OrderRepository orderRepository;
 
-    public OrderResource(OrderService orderService, OrderRepository orderRepository) {
+    private final CheckoutService checkoutService;
+
+    private final OrderLineRepository orderLineRepository;
+
+    private final OrderStatsService orderStatsService;
+
+    public OrderResource(
+        OrderService orderService,
+        OrderRepository orderRepository,
+        CheckoutService checkoutService,
+        OrderLineRepository orderLineRepository,
+        OrderStatsService orderStatsService
+    ) {
         this.orderService = orderService;
         this.orderRepository = orderRepository;
+        this.checkoutService = checkoutService;
+        this.orderLineRepository = orderLineRepository;
+        this.orderStatsService = orderStatsService;
     }
 
     /**
      * {@code POST  /orders} : Create a new order.
      *
      * @param order the order to create.
-     * @return the {@link ResponseEntity} with status {@code 201 (Created)} and with body the new order, or with status {@code 400 (Bad Request)} if the order has already an ID.
+     * @return the {@link ResponseEntity} with status {@code 201 (Created)} and with body the new order, or with status {@code 400 (Bad Request)} if the order has already an ID,
+     * or with status {@code 409 (Conflict)} if the order is not {@code PENDING}.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PostMapping("")
@@ -66,6 +104,30 @@ public class OrderResource {
             .body(order);
     }
 
+    /**
+     * {@code POST  /orders/_checkout} : Place a new order from a cart, reserving the stock of its products and computing its totals.
+     *
+     * @param cart the cart to check out.
+     * @return the {@link ResponseEntity} with status {@code 201 (Created)} and with body the new order and its lines,
+     * or with status {@code 400 (Bad Request)} if the cart is not valid,
+     * or with status {@code 409 (Conflict)} if a product does not have enough stock.
+     * @throws URISyntaxException if the Location URI syntax is incorrect.
+     */
+    @PostMapping("/_checkout")
+    public ResponseEntity<PlacedOrderDTO> checkout(@Valid @RequestBody CartDTO cart) throws URISyntaxException {
+        LOG.debug("REST request to check out Cart : {}", cart);
+        PlacedOrderDTO placed;
+        try {
+            placed = checkoutService.checkout(cart);
+        } catch (InvalidCartException e) {
+            throw new BadRequestAlertException(e.getMessage(), ENTITY_NAME, e.getErrorKey());
+        }
+        Long id = placed.getOrder().id();
+        return ResponseEntity.created(new URI("/api/orders/" + id))
+            .headers(HeaderUtil.createEntityCreationAlert(applicationName, false, ENTITY_NAME, id.toString()))
+            .body(placed);
+    }
+
     /**
      * {@code PUT  /orders/:id} : Updates an existing order.
      *
@@ -73,6 +135,7 @@ public class OrderResource {
      * @param order the order to update.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated order,
      * or with status {@code 400 (Bad Request)} if the order is not valid,
+     * or with status {@code 409 (Conflict)} if the order cannot go from its current status to the new one,
      * or with status {@code 500 (Internal Server Error)} if the order couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
@@ -105,6 +168,7 @@ public class OrderResource {
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated order,
      * or with status {@code 400 (Bad Request)} if the order is not valid,
      * or with status {@code 404 (Not Found)} if the order is not found,
+     * or with status {@code 409 (Conflict)} if the order cannot go from its current status to the new one,
      * or with status {@code 500 (Internal Server Error)} if the order couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
@@ -147,6 +211,104 @@ public class OrderResource {
         return ResponseEntity.ok().headers(headers).body(page.getContent());
     }
 
+    /**
+     * {@code GET  /orders?view=summary} : get all the orders, as read-only summaries.
+     *
+     * @param pageable the pagination information.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of summaries in body.
+     */
+    @GetMapping(value = "", params = { "view=summary", "!" + CursorPaginationUtil.CURSOR_PARAMETER, "!status" })
+    public ResponseEntity<List<OrderSummaryDTO>> getAllOrderSummaries(
+        @org.springdoc.core.annotations.ParameterObject Pageable pageable
+    ) {
+        LOG.debug("REST request to get a page of Order summaries");
+        Page<OrderSummaryDTO> page = orderService.findAllSummaries(pageable);
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
+    }
+
+    /**
+     * {@code GET  /orders?status=} : get the orders which entered a status in a period, and are still in it.
+     *
+     * @param status the status of the orders.
+     * @param since the start of the period, inclusive.
+     * @param before the end of the period, exclusive, to find the orders stuck in their status.
+     * @param pageable the pagination information.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of orders in body.
+     */
+    @GetMapping(value = "", params = "status")
+    public ResponseEntity<List<Order>> getAllOrdersByStatus(
+        @RequestParam("status") OrderStatus status,
+        @RequestParam(name = "since", required = false) Instant since,
+        @RequestParam(name = "before", required = false) Instant before,
+        @org.springdoc.core.annotations.ParameterObject Pageable pageable
+    ) {
+        LOG.debug("REST request to get a page of Orders {} since {} before {}", status, since, before);
+        Page<Order> page = orderService.findAllByStatus(status, since, before, pageable);
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
+    }
+
+    /**
+     * {@code GET  /orders?cursor=} : get a window of the orders by keyset (seek) pagination.
+     * <p>
+     * Send an empty cursor for the first page, then the {@code X-Next-Cursor} of the previous page.
+     *
+     * @param cursor the cursor of the page to read.
+     * @param size the number of orders per page.
+     * @param sort the sort of the first page, on {@code id, orderDate, status, totalAmount}.
+     * @param count whether to return the total count as {@code X-Total-Count}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of orders in body.
+     */
+    @GetMapping(value = "", params = CursorPaginationUtil.CURSOR_PARAMETER)
+    public ResponseEntity<List<Order>> getAllOrdersByCursor(
+        @RequestParam(CursorPaginationUtil.CURSOR_PARAMETER) String cursor,
+        @RequestParam(name = "size", required = false, defaultValue = "20") int size,
+        @org.springdoc.core.annotations.ParameterObject Sort sort,
+        @RequestParam(name = "count", required = false, defaultValue = "false") boolean count
+    ) {
+        LOG.debug("REST request to get a window of Orders");
+        CursorPaginationUtil.Cursor position = CursorPaginationUtil.decode(cursor, sort, size, Order.class, KEYSET_PROPERTIES, ENTITY_NAME);
+        Window<Order> window = orderService.findAll(position.position(), position.sort(), position.limit());
+        HttpHeaders headers = CursorPaginationUtil.generateCursorHttpHeaders(
+            ServletUriComponentsBuilder.fromCurrentRequest(),
+            CursorPaginationUtil.encode(window, position.sort()),
+            count ? orderService.count() : null
+        );
+        return ResponseEntity.ok().headers(headers).body(window.getContent());
+    }
+
+    /**
+     * {@code GET  /orders/stats} : get the count, revenue, shipping and average basket of the orders which are not cancelled,
+     * over a range of order dates, in total and by hour or day (UTC).
+     * <p>
+     * The figures are read from rollups, which lag the orders by a few seconds. The range is widened to whole periods, and
+     * only the periods which have orders are returned.
+     *
+     * @param granularity the periods to sum the orders by, {@code HOUR} or {@code DAY}.
+     * @param from the start of the range, 30 days before its end by default.
+     * @param to the end of the range, exclusive, now by default.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the figures in body,
+     * or with status {@code 400 (Bad Request)} if the range is empty or has too many periods.
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<OrderStatsDTO> getOrderStats(
+        @RequestParam(name = "granularity", required = false, defaultValue = "DAY") StatsGranularity granularity,
+        @RequestParam(name = "from", required = false) Instant from,
+        @RequestParam(name = "to", required = false) Instant to
+    ) {
+        LOG.debug("REST request to get the Order stats by {} from {} to {}", granularity, from, to);
+        Instant end = to != null ? to : Instant.now();
+        Instant start = from != null ? from : end.minus(DEFAULT_STATS_RANGE);
+        if (!start.isBefore(end)) {
+            throw new BadRequestAlertException("The range of the stats is empty", ENTITY_NAME, "statsrangeempty");
+        }
+        if (granularity.getUnit().between(start, end) >= MAX_STATS_BUCKETS) {
+            throw new BadRequestAlertException("The range of the stats has too many periods", ENTITY_NAME, "statsrangetoolarge");
+        }
+        return ResponseEntity.ok(orderStatsService.getStats(granularity, start, end));
+    }
+
     /**
      * {@code GET  /orders/:id} : get the "id" order.
      *
@@ -160,6 +322,27 @@ public class OrderResource {
         return ResponseUtil.wrapOrNotFound(order);
     }
 
+    /**
+     * {@code GET  /orders/:id/lines} : get the lines of the "id" order, if it was placed by checkout.
+     *
+     * @param id the id of the order.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of lines in body, or with status {@code 404 (Not Found)}.
+     */
+    @GetMapping("/{id}/lines")
+    public ResponseEntity<List<OrderLineDTO>> getOrderLines(@PathVariable("id") Long id) {
+        LOG.debug("REST request to get the lines of Order : {}", id);
+        if (!orderRepository.existsById(id)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(
+            orderLineRepository
+                .findAllByOrderId(id)
+                .stream()
+                .map(line -> new OrderLineDTO(line.productId(), line.quantity(), line.unitPrice()))
+                .toList()
+        );
+    }
+
     /**
      * {@code DELETE  /orders/:id} : delete the "id" order.
      *
@@ -2,23 +2,47 @@ package myapp.web.rest;
 
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
+import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import myapp.domain.Product;
 import myapp.repository.ProductRepository;
+import myapp.security.AuthoritiesConstants;
+import myapp.service.ProductImportService;
+import myapp.service.ProductOrderedException;
 import myapp.service.ProductService;
+import myapp.service.StockReservationService;
+import myapp.service.StreamingExportService;
+import myapp.service.dto.ProductCardDTO;
+import myapp.service.dto.ProductFacetsDTO;
+import myapp.service.dto.ProductImportReportDTO;
+import myapp.service.dto.ProductSuggestionDTO;
+import myapp.service.search.FacetQuery;
+import myapp.service.search.ProductFacetIndex;
+import myapp.service.search.ProductSearchService;
 import myapp.web.rest.errors.BadRequestAlertException;
+import myapp.web.rest.util.CursorPaginationUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.PaginationUtil;
@@ -35,6 +59,23 @@ public class ProductResource {
 
     private static final String ENTITY_NAME = "product";
 
+    private static final List<String> KEYSET_PROPERTIES = List.of("id", "title", "price", "dateAdded", "status");
+
+    private static final List<StreamingExportService.CsvColumn<Product>> CSV_COLUMNS = List.of(
+        new StreamingExportService.CsvColumn<>("id", Product::getId),
+        new StreamingExportService.CsvColumn<>("title", Product::getTitle),
+        new StreamingExportService.CsvColumn<>("keywords", Product::getKeywords),
+        new StreamingExportService.CsvColumn<>("description", Product::getDescription),
+        new StreamingExportService.CsvColumn<>("rating", Product::getRating),
+        new StreamingExportService.CsvColumn<>("price", Product::getPrice),
+        new StreamingExportService.CsvColumn<>("quantityInStock", Product::getQuantityInStock),
+        new StreamingExportService.CsvColumn<>("status", Product::getStatus),
+        new StreamingExportService.CsvColumn<>("weight", Product::getWeight),
+        new StreamingExportService.CsvColumn<>("dimensions", Product::getDimensions),
+        new StreamingExportService.CsvColumn<>("dateAdded", Product::getDateAdded),
+        new StreamingExportService.CsvColumn<>("dateModified", Product::getDateModified)
+    );
+
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
@@ -42,9 +83,28 @@ public class ProductResource {
 
     private final ProductRepository productRepository;
 
-    public ProductResource(ProductService productService, ProductRepository productRepository) {
+    private final ProductSearchService productSearchService;
+
+    private final StreamingExportService streamingExportService;
+
+    private final ProductImportService productImportService;
+
+    private final StockReservationService stockReservationService;
+
+    public ProductResource(
+        ProductService productService,
+        ProductRepository productRepository,
+        ProductSearchService productSearchService,
+        StreamingExportService streamingExportService,
+        ProductImportService productImportService,
+        StockReservationService stockReservationService
+    ) {
         this.productService = productService;
         this.productRepository = productRepository;
+        this.productSearchService = productSearchService;
+        this.streamingExportService = streamingExportService;
+        this.productImportService = productImportService;
+        this.stockReservationService = stockReservationService;
     }
 
     /**
@@ -66,6 +126,32 @@ public class ProductResource {
             .body(product);
     }
 
+    /**
+     * {@code POST  /products/_import} : Import new products in bulk, from CSV with a header row naming the product fields.
+     *
+     * @param body the CSV rows, encoded in UTF-8.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the report of the import.
+     */
+    @PostMapping(value = "/_import", consumes = StreamingExportService.TEXT_CSV_VALUE)
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public ResponseEntity<ProductImportReportDTO> importProductsFromCsv(InputStream body) {
+        LOG.debug("REST request to import Products from CSV");
+        return ResponseEntity.ok(productImportService.importCsv(body));
+    }
+
+    /**
+     * {@code POST  /products/_import} : Import new products in bulk, from newline-delimited JSON.
+     *
+     * @param body the products, one JSON document per line.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the report of the import.
+     */
+    @PostMapping(value = "/_import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public ResponseEntity<ProductImportReportDTO> importProductsFromNdjson(InputStream body) {
+        LOG.debug("REST request to import Products from NDJSON");
+        return ResponseEntity.ok(productImportService.importNdjson(body));
+    }
+
     /**
      * {@code PUT  /products/:id} : Updates an existing product.
      *
@@ -135,6 +221,29 @@ public class ProductResource {
         );
     }
 
+    /**
+     * {@code POST  /products/:id/_restock} : Add stock to a product. The stock is not changed by {@code PUT} or {@code PATCH}.
+     *
+     * @param id the id of the product to restock.
+     * @param quantity the quantity to add.
+     * @return the {@link ResponseEntity} with status {@code 204 (NO_CONTENT)},
+     * or with status {@code 400 (Bad Request)} if the product does not exist or does not track its stock.
+     */
+    @PostMapping("/{id}/_restock")
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public ResponseEntity<Void> restockProduct(@PathVariable("id") Long id, @RequestParam("quantity") int quantity) {
+        LOG.debug("REST request to restock Product : {}, {}", id, quantity);
+        if (quantity <= 0) {
+            throw new BadRequestAlertException("The quantity must be positive", ENTITY_NAME, "quantityinvalid");
+        }
+        if (!stockReservationService.restock(id, quantity)) {
+            throw new BadRequestAlertException("Product not found or without tracked stock", ENTITY_NAME, "stocknottracked");
+        }
+        return ResponseEntity.noContent()
+            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, id.toString()))
+            .build();
+    }
+
     /**
      * {@code GET  /products} : get all the products.
      *
@@ -149,6 +258,158 @@ public class ProductResource {
         return ResponseEntity.ok().headers(headers).body(page.getContent());
     }
 
+    /**
+     * {@code GET  /products?view=card} : get all the products, as read-only cards.
+     *
+     * @param pageable the pagination information.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of cards in body.
+     */
+    @GetMapping(value = "", params = { "view=card", "!" + CursorPaginationUtil.CURSOR_PARAMETER })
+    public ResponseEntity<List<ProductCardDTO>> getAllProductCards(
+        @org.springdoc.core.annotations.ParameterObject Pageable pageable
+    ) {
+        LOG.debug("REST request to get a page of Product cards");
+        Page<ProductCardDTO> page = productService.findAllCards(pageable);
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
+    }
+
+    /**
+     * {@code GET  /products} with {@code Accept: application/x-ndjson} : stream all the products, one JSON document per
+     * line, ordered by id.
+     *
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the products in body.
+     */
+    @GetMapping(value = "", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllProducts() {
+        LOG.debug("REST request to stream all Products");
+        StreamingResponseBody body = out -> streamingExportService.writeNdjson(productRepository::streamAllByOrderByIdAsc, out);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    /**
+     * {@code GET  /products} with {@code Accept: text/csv} : stream all the products as CSV, ordered by id.
+     *
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the products in body.
+     */
+    @GetMapping(value = "", produces = StreamingExportService.TEXT_CSV_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllProductsAsCsv() {
+        LOG.debug("REST request to stream all Products as CSV");
+        StreamingResponseBody body = out -> streamingExportService.writeCsv(productRepository::streamAllByOrderByIdAsc, CSV_COLUMNS, out);
+        return ResponseEntity.ok()
+            .contentType(new MediaType("text", "csv", StandardCharsets.UTF_8))
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"products.csv\"")
+            .body(body);
+    }
+
+    /**
+     * {@code GET  /products/_search?q=} : search the products matching every term of the query, best match first.
+     *
+     * @param query the free-text query over title, keywords and description.
+     * @param pageable the pagination information, its sort is ignored.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of products in body.
+     */
+    @GetMapping("/_search")
+    public ResponseEntity<List<Product>> searchProducts(
+        @RequestParam("q") String query,
+        @org.springdoc.core.annotations.ParameterObject Pageable pageable
+    ) {
+        LOG.debug("REST request to search for a page of Products for query {}", query);
+        Page<Product> page = productSearchService.search(query, pageable);
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
+    }
+
+    /**
+     * {@code GET  /products/_suggest?prefix=} : suggest product titles and keywords completing a prefix.
+     *
+     * @param prefix the text typed so far.
+     * @param size the maximum number of suggestions.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of suggestions in body.
+     */
+    @GetMapping("/_suggest")
+    public ResponseEntity<List<ProductSuggestionDTO>> suggestProducts(
+        @RequestParam("prefix") String prefix,
+        @RequestParam(name = "size", required = false, defaultValue = "10") int size
+    ) {
+        LOG.debug("REST request to suggest Products for prefix {}", prefix);
+        return ResponseEntity.ok().body(productSearchService.suggest(prefix, size));
+    }
+
+    /**
+     * {@code GET  /products/_facets} : get the products matching facet filters, along with the count of every facet value.
+     * <p>
+     * Values of the same facet are OR-ed, facets are AND-ed. The counts of a facet ignore that facet's own filter.
+     *
+     * @param statuses the product statuses to keep.
+     * @param categoryIds the categories to keep.
+     * @param ratings the rating buckets to keep (e.g. {@code 7-8}, or {@code none}).
+     * @param prices the price bands to keep (e.g. {@code 10-25}, or {@code 1000+}).
+     * @param pageable the pagination information, its sort is ignored.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the facet counts and products in body.
+     */
+    @GetMapping("/_facets")
+    public ResponseEntity<ProductFacetsDTO> getProductFacets(
+        @RequestParam(name = "status", required = false) Set<String> statuses,
+        @RequestParam(name = "categoryId", required = false) Set<String> categoryIds,
+        @RequestParam(name = "rating", required = false) Set<String> ratings,
+        @RequestParam(name = "price", required = false) Set<String> prices,
+        @org.springdoc.core.annotations.ParameterObject Pageable pageable
+    ) {
+        LOG.debug("REST request to get a page of Products by facets");
+        Map<String, Set<String>> filters = new HashMap<>();
+        putFilter(filters, ProductFacetIndex.STATUS, statuses);
+        putFilter(filters, ProductFacetIndex.CATEGORY, categoryIds);
+        putFilter(filters, ProductFacetIndex.RATING, ratings);
+        putFilter(filters, ProductFacetIndex.PRICE, prices);
+        ProductFacetsDTO result = productSearchService.facets(new FacetQuery(filters), pageable);
+        Page<Product> page = new PageImpl<>(result.getProducts(), pageable, result.getTotal());
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return ResponseEntity.ok().headers(headers).body(result);
+    }
+
+    private static void putFilter(Map<String, Set<String>> filters, String facet, Set<String> values) {
+        if (values != null && !values.isEmpty()) {
+            filters.put(facet, values);
+        }
+    }
+
+    /**
+     * {@code GET  /products?cursor=} : get a window of the products by keyset (seek) pagination.
+     * <p>
+     * Send an empty cursor for the first page, then the {@code X-Next-Cursor} of the previous page.
+     *
+     * @param cursor the cursor of the page to read.
+     * @param size the number of products per page.
+     * @param sort the sort of the first page, on {@code id, title, price, dateAdded, status}.
+     * @param count whether to return the total count as {@code X-Total-Count}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of products in body.
+     */
+    @GetMapping(value = "", params = CursorPaginationUtil.CURSOR_PARAMETER)
+    public ResponseEntity<List<Product>> getAllProductsByCursor(
+        @RequestParam(CursorPaginationUtil.CURSOR_PARAMETER) String cursor,
+        @RequestParam(name = "size", required = false, defaultValue = "20") int size,
+        @org.springdoc.core.annotations.ParameterObject Sort sort,
+        @RequestParam(name = "count", required = false, defaultValue = "false") boolean count
+    ) {
+        LOG.debug("REST request to get a window of Products");
+        CursorPaginationUtil.Cursor position = CursorPaginationUtil.decode(
+            cursor,
+            sort,
+            size,
+            Product.class,
+            KEYSET_PROPERTIES,
+            ENTITY_NAME
+        );
+        Window<Product> window = productService.findAll(position.position(), position.sort(), position.limit());
+        HttpHeaders headers = CursorPaginationUtil.generateCursorHttpHeaders(
+            ServletUriComponentsBuilder.fromCurrentRequest(),
+            CursorPaginationUtil.encode(window, position.sort()),
+            count ? productService.count() : null
+        );
+        return ResponseEntity.ok().headers(headers).body(window.getContent());
+    }
+
     /**
      * {@code GET  /products/:id} : get the "id" product.
      *
@@ -166,12 +427,16 @@ public class ProductResource {
      * {@code DELETE  /products/:id} : delete the "id" product.
      *
      * @param id the id of the product to delete.
-     * @return the {@link ResponseEntity} with status {@code 204 (NO_CONTENT)}.
+     * @return the {@link ResponseEntity} with status {@code 204 (NO_CONTENT)}, or with status {@code 400 (Bad Request)} if the product was ordered.
      */
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteProduct(@PathVariable("id") Long id) {
         LOG.debug("REST request to delete Product : {}", id);
-        productService.delete(id);
+        try {
+            productService.delete(id);
+        } catch (ProductOrderedException e) {
+            throw new BadRequestAlertException("An ordered product cannot be deleted", ENTITY_NAME, "productordered");
+        }
         return ResponseEntity.noContent()
             .headers(HeaderUtil.createEntityDeletionAlert(applicationName, false, ENTITY_NAME, id.toString()))
             .build();
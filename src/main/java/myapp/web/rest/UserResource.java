@@ -16,12 +16,14 @@ import myapp.service.dto.AdminUserDTO;
 import myapp.web.rest.errors.BadRequestAlertException;
 import myapp.web.rest.errors.EmailAlreadyUsedException;
 import myapp.web.rest.errors.LoginAlreadyUsedException;
+import myapp.web.rest.util.CursorPaginationUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -60,6 +62,8 @@ import tech.jhipster.web.util.ResponseUtil;
 @RequestMapping("/api/admin")
 public class UserResource {
 
+    private static final List<String> KEYSET_PROPERTIES = List.of("id", "login");
+
     private static final List<String> ALLOWED_ORDERED_PROPERTIES = Collections.unmodifiableList(
         Arrays.asList(
             "id",
@@ -178,6 +182,44 @@ public class UserResource {
         return new ResponseEntity<>(page.getContent(), headers, HttpStatus.OK);
     }
 
+    /**
+     * {@code GET /admin/users?cursor=} : get a window of the users by keyset (seek) pagination - calling this is only allowed
+     * for the administrators.
+     * <p>
+     * Send an empty cursor for the first page, then the {@code X-Next-Cursor} of the previous page.
+     *
+     * @param cursor the cursor of the page to read.
+     * @param size the number of users per page.
+     * @param sort the sort of the first page, on {@code id, login}.
+     * @param count whether to return the total count as {@code X-Total-Count}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the users.
+     */
+    @GetMapping(value = "/users", params = CursorPaginationUtil.CURSOR_PARAMETER)
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public ResponseEntity<List<AdminUserDTO>> getAllUsersByCursor(
+        @RequestParam(CursorPaginationUtil.CURSOR_PARAMETER) String cursor,
+        @RequestParam(name = "size", required = false, defaultValue = "20") int size,
+        @org.springdoc.core.annotations.ParameterObject Sort sort,
+        @RequestParam(name = "count", required = false, defaultValue = "false") boolean count
+    ) {
+        LOG.debug("REST request to get a window of User for an admin");
+        CursorPaginationUtil.Cursor position = CursorPaginationUtil.decode(
+            cursor,
+            sort,
+            size,
+            User.class,
+            KEYSET_PROPERTIES,
+            "userManagement"
+        );
+        Window<AdminUserDTO> window = userService.getAllManagedUsers(position.position(), position.sort(), position.limit());
+        HttpHeaders headers = CursorPaginationUtil.generateCursorHttpHeaders(
+            ServletUriComponentsBuilder.fromCurrentRequest(),
+            CursorPaginationUtil.encode(window, position.sort()),
+            count ? userService.countManagedUsers() : null
+        );
+        return new ResponseEntity<>(window.getContent(), headers, HttpStatus.OK);
+    }
+
     private boolean onlyContainsAllowedProperties(Pageable pageable) {
         return pageable.getSort().stream().map(Sort.Order::getProperty).allMatch(ALLOWED_ORDERED_PROPERTIES::contains);
     }
@@ -9,14 +9,25 @@ import java.util.Objects;
 import java.util.Optional;
 import myapp.domain.WishList;
 import myapp.repository.WishListRepository;
+import myapp.service.StreamingExportService;
 import myapp.web.rest.errors.BadRequestAlertException;
+import myapp.web.rest.util.CursorPaginationUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import tech.jhipster.web.util.HeaderUtil;
+import tech.jhipster.web.util.PaginationUtil;
 import tech.jhipster.web.util.ResponseUtil;
 
 /**
@@ -34,10 +45,15 @@ public class WishListResource {
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
+    private static final List<String> KEYSET_PROPERTIES = List.of("id", "title");
+
     private final WishListRepository wishListRepository;
 
-    public WishListResource(WishListRepository wishListRepository) {
+    private final StreamingExportService streamingExportService;
+
+    public WishListResource(WishListRepository wishListRepository, StreamingExportService streamingExportService) {
         this.wishListRepository = wishListRepository;
+        this.streamingExportService = streamingExportService;
     }
 
     /**
@@ -142,13 +158,84 @@ public class WishListResource {
 
     /**
      * {@code GET  /wish-lists} : get all the wishLists.
+     * <p>
+     * Unpaged, as the wish list page and the product form read every wishList: send {@code page} or {@code size} to
+     * read a page instead.
      *
+     * @param sort the sort of the wishLists.
+     * @return the list of wishLists in body.
+     */
+    @GetMapping(
+        value = "",
+        params = { "!page", "!size", "!" + CursorPaginationUtil.CURSOR_PARAMETER },
+        produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    public List<WishList> getAllWishLists(@org.springdoc.core.annotations.ParameterObject Sort sort) {
+        LOG.debug("REST request to get all WishLists");
+        return wishListRepository.findAll(sort);
+    }
+
+    /**
+     * {@code GET  /wish-lists?page=&size=} : get a page of the wishLists.
+     *
+     * @param pageable the pagination information.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of wishLists in body.
      */
     @GetMapping("")
-    public List<WishList> getAllWishLists() {
-        LOG.debug("REST request to get all WishLists");
-        return wishListRepository.findAll();
+    public ResponseEntity<List<WishList>> getWishListPage(@org.springdoc.core.annotations.ParameterObject Pageable pageable) {
+        LOG.debug("REST request to get a page of WishLists");
+        Page<WishList> page = wishListRepository.findAll(pageable);
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
+    }
+
+    /**
+     * {@code GET  /wish-lists?cursor=} : get a window of the wishLists by keyset (seek) pagination.
+     * <p>
+     * Send an empty cursor for the first page, then the {@code X-Next-Cursor} of the previous page.
+     *
+     * @param cursor the cursor of the page to read.
+     * @param size the number of wishLists per page.
+     * @param sort the sort of the first page, on {@code id, title}.
+     * @param count whether to return the total count as {@code X-Total-Count}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of wishLists in body.
+     */
+    @GetMapping(value = "", params = CursorPaginationUtil.CURSOR_PARAMETER)
+    public ResponseEntity<List<WishList>> getAllWishListsByCursor(
+        @RequestParam(CursorPaginationUtil.CURSOR_PARAMETER) String cursor,
+        @RequestParam(name = "size", required = false, defaultValue = "20") int size,
+        @org.springdoc.core.annotations.ParameterObject Sort sort,
+        @RequestParam(name = "count", required = false, defaultValue = "false") boolean count
+    ) {
+        LOG.debug("REST request to get a window of WishLists");
+        CursorPaginationUtil.Cursor position = CursorPaginationUtil.decode(
+            cursor,
+            sort,
+            size,
+            WishList.class,
+            KEYSET_PROPERTIES,
+            ENTITY_NAME
+        );
+        Window<WishList> window = wishListRepository.findAllBy(position.position(), position.sort(), position.limit());
+        HttpHeaders headers = CursorPaginationUtil.generateCursorHttpHeaders(
+            ServletUriComponentsBuilder.fromCurrentRequest(),
+            CursorPaginationUtil.encode(window, position.sort()),
+            count ? wishListRepository.count() : null
+        );
+        return ResponseEntity.ok().headers(headers).body(window.getContent());
+    }
+
+    /**
+     * {@code GET  /wish-lists} with {@code Accept: application/x-ndjson} : stream all the wishLists, one JSON document
+     * per line, ordered by id.
+     *
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the wishLists in body.
+     */
+    @GetMapping(value = "", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllWishLists() {
+        LOG.debug("REST request to stream all WishLists");
+        StreamingResponseBody body = out -> streamingExportService.writeNdjson(wishListRepository::streamAllByOrderByIdAsc, out);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
     }
 
     /**
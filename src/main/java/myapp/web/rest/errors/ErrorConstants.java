@@ -12,6 +12,12 @@ public final class ErrorConstants {
     public static final URI INVALID_PASSWORD_TYPE = URI.create(PROBLEM_BASE_URL + "/invalid-password");
     public static final URI EMAIL_ALREADY_USED_TYPE = URI.create(PROBLEM_BASE_URL + "/email-already-used");
     public static final URI LOGIN_ALREADY_USED_TYPE = URI.create(PROBLEM_BASE_URL + "/login-already-used");
+    public static final URI TOO_MANY_LOGIN_ATTEMPTS_TYPE = URI.create(PROBLEM_BASE_URL + "/too-many-login-attempts");
+    public static final URI INSUFFICIENT_STOCK_TYPE = URI.create(PROBLEM_BASE_URL + "/insufficient-stock");
+    public static final URI ILLEGAL_STATUS_TRANSITION_TYPE = URI.create(PROBLEM_BASE_URL + "/illegal-status-transition");
+    public static final URI INVALID_IDEMPOTENCY_KEY_TYPE = URI.create(PROBLEM_BASE_URL + "/invalid-idempotency-key");
+    public static final URI IDEMPOTENT_REQUEST_IN_PROGRESS_TYPE = URI.create(PROBLEM_BASE_URL + "/idempotent-request-in-progress");
+    public static final URI IDEMPOTENCY_KEY_REUSED_TYPE = URI.create(PROBLEM_BASE_URL + "/idempotency-key-reused");
 
     private ErrorConstants() {}
 }
@@ -86,6 +86,12 @@ public class ExceptionTranslator extends ResponseEntityExceptionHandler {
         if (ex instanceof myapp.service.EmailAlreadyUsedException) return (ProblemDetailWithCause) new EmailAlreadyUsedException()
             .getBody();
         if (ex instanceof myapp.service.InvalidPasswordException) return (ProblemDetailWithCause) new InvalidPasswordException().getBody();
+        if (ex instanceof myapp.service.InsufficientStockException e) return (ProblemDetailWithCause) new InsufficientStockException(
+            e.getProductId()
+        ).getBody();
+        if (
+            ex instanceof myapp.service.IllegalOrderStatusTransitionException e
+        ) return (ProblemDetailWithCause) new IllegalOrderStatusTransitionException(e.getFrom(), e.getTo()).getBody();
 
         if (
             ex instanceof ErrorResponseException exp && exp.getBody() instanceof ProblemDetailWithCause problemDetailWithCause
@@ -218,15 +224,19 @@ public class ExceptionTranslator extends ResponseEntityExceptionHandler {
     }
 
     private HttpHeaders buildHeaders(Throwable err) {
-        return err instanceof BadRequestAlertException badRequestAlertException
-            ? HeaderUtil.createFailureAlert(
+        HttpHeaders headers = new HttpHeaders();
+        // Headers carried by the exception itself, e.g. Retry-After on a 429
+        if (err instanceof ErrorResponse errorResponse) headers.addAll(errorResponse.getHeaders());
+        if (err instanceof BadRequestAlertException badRequestAlertException) headers.addAll(
+            HeaderUtil.createFailureAlert(
                 applicationName,
                 true,
                 badRequestAlertException.getEntityName(),
                 badRequestAlertException.getErrorKey(),
                 badRequestAlertException.getMessage()
             )
-            : null;
+        );
+        return headers.isEmpty() ? null : headers;
     }
 
     public Optional<ProblemDetailWithCause> buildCause(final Throwable throwable, NativeWebRequest request) {
@@ -0,0 +1,25 @@
+package myapp.web.rest.errors;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.ErrorResponseException;
+import tech.jhipster.web.rest.errors.ProblemDetailWithCause.ProblemDetailWithCauseBuilder;
+
+@SuppressWarnings("java:S110") // Inheritance tree of classes should not be too deep
+public class IdempotencyKeyReusedException extends ErrorResponseException {
+
+    private static final long serialVersionUID = 1L;
+
+    public IdempotencyKeyReusedException() {
+        super(
+            HttpStatus.UNPROCESSABLE_ENTITY,
+            ProblemDetailWithCauseBuilder.instance()
+                .withStatus(HttpStatus.UNPROCESSABLE_ENTITY.value())
+                .withType(ErrorConstants.IDEMPOTENCY_KEY_REUSED_TYPE)
+                .withTitle("Idempotency-Key reused")
+                .withDetail("This Idempotency-Key was used for a different request")
+                .withProperty("message", "error.idempotencykeyreused")
+                .build(),
+            null
+        );
+    }
+}
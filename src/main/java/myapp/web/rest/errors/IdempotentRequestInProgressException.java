@@ -0,0 +1,27 @@
+package myapp.web.rest.errors;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.ErrorResponseException;
+import tech.jhipster.web.rest.errors.ProblemDetailWithCause.ProblemDetailWithCauseBuilder;
+
+@SuppressWarnings("java:S110") // Inheritance tree of classes should not be too deep
+public class IdempotentRequestInProgressException extends ErrorResponseException {
+
+    private static final long serialVersionUID = 1L;
+
+    public IdempotentRequestInProgressException() {
+        super(
+            HttpStatus.CONFLICT,
+            ProblemDetailWithCauseBuilder.instance()
+                .withStatus(HttpStatus.CONFLICT.value())
+                .withType(ErrorConstants.IDEMPOTENT_REQUEST_IN_PROGRESS_TYPE)
+                .withTitle("Request in progress")
+                .withDetail("A request with this Idempotency-Key is still in progress")
+                .withProperty("message", "error.idempotentrequestinprogress")
+                .build(),
+            null
+        );
+        getHeaders().set(HttpHeaders.RETRY_AFTER, "1");
+    }
+}
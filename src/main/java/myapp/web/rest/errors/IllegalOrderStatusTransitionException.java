@@ -0,0 +1,27 @@
+package myapp.web.rest.errors;
+
+import myapp.domain.enumeration.OrderStatus;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.ErrorResponseException;
+import tech.jhipster.web.rest.errors.ProblemDetailWithCause.ProblemDetailWithCauseBuilder;
+
+@SuppressWarnings("java:S110") // Inheritance tree of classes should not be too deep
+public class IllegalOrderStatusTransitionException extends ErrorResponseException {
+
+    private static final long serialVersionUID = 1L;
+
+    public IllegalOrderStatusTransitionException(OrderStatus from, OrderStatus to) {
+        super(
+            HttpStatus.CONFLICT,
+            ProblemDetailWithCauseBuilder.instance()
+                .withStatus(HttpStatus.CONFLICT.value())
+                .withType(ErrorConstants.ILLEGAL_STATUS_TRANSITION_TYPE)
+                .withTitle("Illegal status transition")
+                .withDetail(from == null ? "A new order cannot be " + to : "An order cannot go from " + from + " to " + to)
+                .withProperty("from", from)
+                .withProperty("to", to)
+                .build(),
+            null
+        );
+    }
+}
@@ -0,0 +1,25 @@
+package myapp.web.rest.errors;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.ErrorResponseException;
+import tech.jhipster.web.rest.errors.ProblemDetailWithCause.ProblemDetailWithCauseBuilder;
+
+@SuppressWarnings("java:S110") // Inheritance tree of classes should not be too deep
+public class InsufficientStockException extends ErrorResponseException {
+
+    private static final long serialVersionUID = 1L;
+
+    public InsufficientStockException(Long productId) {
+        super(
+            HttpStatus.CONFLICT,
+            ProblemDetailWithCauseBuilder.instance()
+                .withStatus(HttpStatus.CONFLICT.value())
+                .withType(ErrorConstants.INSUFFICIENT_STOCK_TYPE)
+                .withTitle("Insufficient stock")
+                .withDetail("Product " + productId + " does not have enough stock")
+                .withProperty("productId", productId)
+                .build(),
+            null
+        );
+    }
+}
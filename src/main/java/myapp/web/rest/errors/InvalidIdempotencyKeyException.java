@@ -0,0 +1,25 @@
+package myapp.web.rest.errors;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.ErrorResponseException;
+import tech.jhipster.web.rest.errors.ProblemDetailWithCause.ProblemDetailWithCauseBuilder;
+
+@SuppressWarnings("java:S110") // Inheritance tree of classes should not be too deep
+public class InvalidIdempotencyKeyException extends ErrorResponseException {
+
+    private static final long serialVersionUID = 1L;
+
+    public InvalidIdempotencyKeyException() {
+        super(
+            HttpStatus.BAD_REQUEST,
+            ProblemDetailWithCauseBuilder.instance()
+                .withStatus(HttpStatus.BAD_REQUEST.value())
+                .withType(ErrorConstants.INVALID_IDEMPOTENCY_KEY_TYPE)
+                .withTitle("Invalid Idempotency-Key")
+                .withDetail("The Idempotency-Key must not be blank, nor longer than 255 characters")
+                .withProperty("message", "error.idempotencykeyinvalid")
+                .build(),
+            null
+        );
+    }
+}
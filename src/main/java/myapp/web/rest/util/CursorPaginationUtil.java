@@ -0,0 +1,196 @@
+package myapp.web.rest.util;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import myapp.web.rest.errors.BadRequestAlertException;
+import org.springframework.beans.BeanUtils;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.util.UriComponentsBuilder;
+
+/**
+ * Utility class for keyset (cursor) pagination.
+ * <p>
+ * A cursor is an opaque, URL-safe token holding the sort and the sort keys of the last row served. The next page is a
+ * seek past those keys, so it costs the same at any depth and needs no {@code count(*)}.
+ */
+public final class CursorPaginationUtil {
+
+    public static final String CURSOR_PARAMETER = "cursor";
+
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    public static final int MAX_SIZE = 2000;
+
+    private static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+
+    private static final String ID = "id";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private CursorPaginationUtil() {}
+
+    /**
+     * A decoded cursor: where to resume, how rows are sorted and how many to return.
+     */
+    public record Cursor(ScrollPosition position, Sort sort, Limit limit) {}
+
+    private record Token(List<String> s, Map<String, String> k) {}
+
+    /**
+     * Decode a cursor token. A blank token starts from the first row, in the requested sort; otherwise the sort stored in
+     * the token wins.
+     *
+     * @param token the cursor token sent by the client, may be blank.
+     * @param requestedSort the sort of the request, used for the first page only.
+     * @param size the requested number of rows, capped to {@link #MAX_SIZE}.
+     * @param entityType the type of the paged entity.
+     * @param sortableProperties the non-null, indexed properties allowed as sort keys.
+     * @param entityName the entity name for error reporting.
+     * @return the cursor.
+     * @throws BadRequestAlertException if the token or the sort is invalid.
+     */
+    public static Cursor decode(
+        String token,
+        Sort requestedSort,
+        int size,
+        Class<?> entityType,
+        Collection<String> sortableProperties,
+        String entityName
+    ) {
+        Limit limit = Limit.of(Math.max(1, Math.min(size, MAX_SIZE)));
+        if (token == null || token.isBlank()) {
+            return new Cursor(ScrollPosition.keyset(), withIdTieBreak(requestedSort, sortableProperties, entityName), limit);
+        }
+        try {
+            Token decoded = MAPPER.readValue(Base64.getUrlDecoder().decode(token), new TypeReference<Token>() {});
+            List<Sort.Order> orders = new ArrayList<>();
+            for (String order : decoded.s()) {
+                String[] parts = order.split(",");
+                orders.add(new Sort.Order(Sort.Direction.fromString(parts[1]), parts[0]));
+            }
+            Sort sort = withIdTieBreak(Sort.by(orders), sortableProperties, entityName);
+            Map<String, Object> keys = new LinkedHashMap<>();
+            for (Sort.Order order : sort) {
+                String value = decoded.k().get(order.getProperty());
+                if (value == null) {
+                    throw new IllegalArgumentException("Missing key " + order.getProperty());
+                }
+                keys.put(order.getProperty(), convert(value, BeanUtils.findPropertyType(order.getProperty(), entityType)));
+            }
+            return new Cursor(ScrollPosition.forward(keys), sort, limit);
+        } catch (BadRequestAlertException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new BadRequestAlertException("Invalid cursor", entityName, "cursorinvalid");
+        }
+    }
+
+    /**
+     * Encode the cursor of the page following a window.
+     *
+     * @param window the window just read.
+     * @param sort the sort the window was read with.
+     * @return the cursor token, or {@code null} if this was the last page.
+     */
+    public static String encode(Window<?> window, Sort sort) {
+        if (window.isEmpty() || !window.hasNext()) {
+            return null;
+        }
+        KeysetScrollPosition position = (KeysetScrollPosition) window.positionAt(window.size() - 1);
+        List<String> orders = sort.stream().map(order -> order.getProperty() + "," + order.getDirection().name()).toList();
+        Map<String, String> keys = new LinkedHashMap<>();
+        position
+            .getKeys()
+            .forEach((property, value) -> keys.put(property, value instanceof Enum<?> e ? e.name() : String.valueOf(value)));
+        try {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(MAPPER.writeValueAsBytes(new Token(orders, keys)));
+        } catch (Exception e) {
+            throw new IllegalStateException("Cannot encode cursor", e);
+        }
+    }
+
+    /**
+     * Generate the cursor pagination headers: the next cursor, as a {@code X-Next-Cursor} header and a {@code next}
+     * link, and the total count when it was asked for.
+     *
+     * @param uriBuilder the builder of the current request URI.
+     * @param nextCursor the cursor of the next page, or {@code null} on the last page.
+     * @param total the total number of rows, or {@code null} if not counted.
+     * @return the headers.
+     */
+    public static HttpHeaders generateCursorHttpHeaders(UriComponentsBuilder uriBuilder, String nextCursor, Long total) {
+        HttpHeaders headers = new HttpHeaders();
+        if (total != null) {
+            headers.add(TOTAL_COUNT_HEADER, Long.toString(total));
+        }
+        if (nextCursor != null) {
+            headers.add(NEXT_CURSOR_HEADER, nextCursor);
+            String link = uriBuilder.replaceQueryParam(CURSOR_PARAMETER, nextCursor).replaceQueryParam("sort").toUriString();
+            headers.add(HttpHeaders.LINK, "<" + link + ">; rel=\"next\"");
+        }
+        return headers;
+    }
+
+    private static Sort withIdTieBreak(Sort sort, Collection<String> sortableProperties, String entityName) {
+        for (Sort.Order order : sort) {
+            if (!sortableProperties.contains(order.getProperty())) {
+                throw new BadRequestAlertException("Cursor pagination cannot sort by " + order.getProperty(), entityName, "sortinvalid");
+            }
+        }
+        if (sort.isUnsorted()) {
+            return Sort.by(ID);
+        }
+        if (sort.getOrderFor(ID) != null) {
+            return sort;
+        }
+        List<Sort.Order> orders = sort.toList();
+        return sort.and(Sort.by(orders.get(orders.size() - 1).getDirection(), ID));
+    }
+
+    private static Object convert(String value, Class<?> type) {
+        if (type == null || type == String.class) {
+            return value;
+        }
+        if (type == Long.class || type == long.class) {
+            return Long.valueOf(value);
+        }
+        if (type == Integer.class || type == int.class) {
+            return Integer.valueOf(value);
+        }
+        if (type == BigDecimal.class) {
+            return new BigDecimal(value);
+        }
+        if (type == Instant.class) {
+            return Instant.parse(value);
+        }
+        if (type == LocalDate.class) {
+            return LocalDate.parse(value);
+        }
+        if (type == Boolean.class || type == boolean.class) {
+            return Boolean.valueOf(value);
+        }
+        if (type.isEnum()) {
+            return enumValue(type, value);
+        }
+        throw new IllegalArgumentException("Unsupported key type " + type);
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static Object enumValue(Class<?> type, String value) {
+        return Enum.valueOf((Class<? extends Enum>) type, value);
+    }
+}
@@ -0,0 +1,11 @@
+export enum OrderStatus {
+  PENDING = 'PENDING',
+
+  PAID = 'PAID',
+
+  SHIPPED = 'SHIPPED',
+
+  DELIVERED = 'DELIVERED',
+
+  CANCELLED = 'CANCELLED',
+}
@@ -1,12 +1,14 @@
 import dayjs from 'dayjs/esm';
 import { IAddress } from 'app/entities/address/address.model';
 import { ICustomer } from 'app/entities/customer/customer.model';
+import { OrderStatus } from 'app/entities/enumerations/order-status.model';
 
 export interface IOrder {
   id: number;
   orderDate?: dayjs.Dayjs | null;
   shippedDate?: dayjs.Dayjs | null;
-  status?: string | null;
+  status?: keyof typeof OrderStatus | null;
+  statusChangedAt?: dayjs.Dayjs | null;
   totalAmount?: number | null;
   shippingCost?: number | null;
   trackingNumber?: string | null;
@@ -11,9 +11,10 @@ import { IOrder, NewOrder } from '../order.model';
 
 export type PartialUpdateOrder = Partial<IOrder> & Pick<IOrder, 'id'>;
 
-type RestOf<T extends IOrder | NewOrder> = Omit<T, 'orderDate' | 'shippedDate'> & {
+type RestOf<T extends IOrder | NewOrder> = Omit<T, 'orderDate' | 'shippedDate' | 'statusChangedAt'> & {
   orderDate?: string | null;
   shippedDate?: string | null;
+  statusChangedAt?: string | null;
 };
 
 export type RestOrder = RestOf<IOrder>;
@@ -101,6 +102,7 @@ export class OrderService {
       ...order,
       orderDate: order.orderDate?.toJSON() ?? null,
       shippedDate: order.shippedDate?.toJSON() ?? null,
+      statusChangedAt: order.statusChangedAt?.toJSON() ?? null,
     };
   }
 
@@ -109,6 +111,7 @@ export class OrderService {
       ...restOrder,
       orderDate: restOrder.orderDate ? dayjs(restOrder.orderDate) : undefined,
       shippedDate: restOrder.shippedDate ? dayjs(restOrder.shippedDate) : undefined,
+      statusChangedAt: restOrder.statusChangedAt ? dayjs(restOrder.statusChangedAt) : undefined,
     };
   }
 
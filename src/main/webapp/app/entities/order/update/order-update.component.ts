@@ -11,6 +11,7 @@ import { IAddress } from 'app/entities/address/address.model';
 import { AddressService } from 'app/entities/address/service/address.service';
 import { ICustomer } from 'app/entities/customer/customer.model';
 import { CustomerService } from 'app/entities/customer/service/customer.service';
+import { OrderStatus } from 'app/entities/enumerations/order-status.model';
 import { OrderService } from '../service/order.service';
 import { IOrder } from '../order.model';
 import { OrderFormGroup, OrderFormService } from './order-form.service';
@@ -24,6 +25,7 @@ import { OrderFormGroup, OrderFormService } from './order-form.service';
 export class OrderUpdateComponent implements OnInit {
   isSaving = false;
   order: IOrder | null = null;
+  orderStatusValues = Object.keys(OrderStatus);
 
   addressesSharedCollection: IAddress[] = [];
   customersSharedCollection: ICustomer[] = [];
@@ -0,0 +1,143 @@
+package myapp.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Optional;
+import myapp.domain.Customer;
+import myapp.repository.AddressRepository;
+import myapp.repository.CustomerRepository;
+import myapp.repository.OrderRepository;
+import myapp.repository.WishListRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@ExtendWith(MockitoExtension.class)
+public class CustomerServiceTest {
+
+    @Mock
+    private CustomerRepository customerRepository;
+
+    @Mock
+    private AddressRepository addressRepository;
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private WishListRepository wishListRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private CustomerService customerService;
+
+    @BeforeEach
+    public void setUp() {
+        customerService = new CustomerService(
+            customerRepository,
+            addressRepository,
+            orderRepository,
+            wishListRepository,
+            new ConcurrentMapCacheManager(CustomerService.CUSTOMER_ID_BY_EMAIL_CACHE),
+            transactionManager
+        );
+    }
+
+    private static Customer customer(Long id, String email) {
+        return new Customer().id(id).firstName("Ada").lastName("Lovelace").email(email);
+    }
+
+    @Test
+    public void testFindOneByEmailIgnoresCase() {
+        Customer customer = customer(1L, "Ada@Example.com");
+        when(customerRepository.findOneByNormalizedEmail("ada@example.com")).thenReturn(Optional.of(customer));
+
+        assertEquals(Optional.of(customer), customerService.findOneByEmail("ADA@example.COM"));
+    }
+
+    @Test
+    public void testFindOneByEmailCachesTheId() {
+        Customer customer = customer(1L, "ada@example.com");
+        when(customerRepository.findOneByNormalizedEmail("ada@example.com")).thenReturn(Optional.of(customer));
+        when(customerRepository.findById(1L)).thenReturn(Optional.of(customer));
+
+        customerService.findOneByEmail("ada@example.com");
+        assertEquals(Optional.of(customer), customerService.findOneByEmail("Ada@Example.com"));
+
+        verify(customerRepository, times(1)).findOneByNormalizedEmail("ada@example.com");
+        verify(customerRepository).findById(1L);
+    }
+
+    @Test
+    public void testFindOneByEmailLooksUpAgainWhenTheEmailChanged() {
+        Customer customer = customer(1L, "ada@example.com");
+        when(customerRepository.findOneByNormalizedEmail("ada@example.com")).thenReturn(Optional.of(customer), Optional.empty());
+        when(customerRepository.findById(1L)).thenReturn(Optional.of(customer));
+        customerService.findOneByEmail("ada@example.com");
+        customer.email("countess@example.com");
+
+        assertEquals(Optional.empty(), customerService.findOneByEmail("ada@example.com"));
+        verify(customerRepository, times(2)).findOneByNormalizedEmail("ada@example.com");
+    }
+
+    @Test
+    public void testFindOrCreateFindsExistingCustomer() {
+        Customer existing = customer(1L, "ada@example.com");
+        when(customerRepository.findOneByNormalizedEmail("ada@example.com")).thenReturn(Optional.of(existing));
+
+        CustomerService.FoundOrCreated result = customerService.findOrCreate(customer(null, "Ada@Example.com"));
+
+        assertFalse(result.created());
+        assertSame(existing, result.customer());
+        verify(customerRepository, never()).save(any());
+    }
+
+    @Test
+    public void testFindOrCreateCreatesCustomer() {
+        Customer customer = customer(null, "ada@example.com");
+        when(customerRepository.findOneByNormalizedEmail("ada@example.com")).thenReturn(Optional.empty());
+        when(customerRepository.save(customer)).thenAnswer(invocation -> customer.id(1L));
+
+        CustomerService.FoundOrCreated result = customerService.findOrCreate(customer);
+
+        assertTrue(result.created());
+        assertEquals(1L, result.customer().getId());
+        // cached once created
+        when(customerRepository.findById(1L)).thenReturn(Optional.of(customer));
+        assertEquals(Optional.of(customer), customerService.findOneByEmail("ada@example.com"));
+        verify(customerRepository, times(1)).findOneByNormalizedEmail("ada@example.com");
+    }
+
+    @Test
+    public void testFindOrCreateFindsConcurrentlyCreatedCustomer() {
+        Customer customer = customer(null, "ada@example.com");
+        Customer concurrent = customer(2L, "ada@example.com");
+        when(customerRepository.findOneByNormalizedEmail("ada@example.com")).thenReturn(Optional.empty(), Optional.of(concurrent));
+        when(customerRepository.save(customer)).thenThrow(new DataIntegrityViolationException("ux_customer__normalized_email"));
+
+        CustomerService.FoundOrCreated result = customerService.findOrCreate(customer);
+
+        assertFalse(result.created());
+        assertSame(concurrent, result.customer());
+    }
+
+    @Test
+    public void testFindOrCreateRethrowsOtherIntegrityViolations() {
+        Customer customer = customer(null, "ada@example.com");
+        when(customerRepository.findOneByNormalizedEmail("ada@example.com")).thenReturn(Optional.empty());
+        when(customerRepository.save(customer)).thenThrow(new DataIntegrityViolationException("other"));
+
+        assertThrows(DataIntegrityViolationException.class, () -> customerService.findOrCreate(customer));
+    }
+}
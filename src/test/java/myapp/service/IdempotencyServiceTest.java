@@ -0,0 +1,171 @@
+package myapp.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import myapp.config.ApplicationProperties;
+import myapp.repository.IdempotencyKey;
+import myapp.repository.IdempotencyKeyRepository;
+import myapp.service.IdempotencyService.Claim;
+import myapp.service.IdempotencyService.ClaimStatus;
+import myapp.service.IdempotencyService.StoredResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class IdempotencyServiceTest {
+
+    private static final StoredResponse CREATED = new StoredResponse("fingerprint", 201, Map.of("Location", "/api/orders/1"), "{\"id\":1}");
+
+    private InMemoryIdempotencyKeyRepository idempotencyKeyRepository;
+
+    private IdempotencyService idempotencyService;
+
+    @BeforeEach
+    public void setUp() {
+        idempotencyKeyRepository = new InMemoryIdempotencyKeyRepository();
+        idempotencyService = service(0);
+    }
+
+    private IdempotencyService service(int inFlightWaitSeconds) {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getIdempotency().setInFlightWaitSeconds(inFlightWaitSeconds);
+        return new IdempotencyService(idempotencyKeyRepository, applicationProperties);
+    }
+
+    @Test
+    public void completedRequestIsReplayed() {
+        assertEquals(ClaimStatus.CLAIMED, idempotencyService.claim("user", "key", "fingerprint").status());
+        idempotencyService.complete("user", "key", CREATED);
+
+        Claim retry = idempotencyService.claim("user", "key", "fingerprint");
+
+        assertEquals(ClaimStatus.COMPLETED, retry.status());
+        assertEquals(CREATED, retry.response());
+    }
+
+    @Test
+    public void completedRequestIsReplayedByAnotherInstance() {
+        idempotencyService.claim("user", "key", "fingerprint");
+        idempotencyService.complete("user", "key", CREATED);
+
+        Claim retry = service(0).claim("user", "key", "fingerprint");
+
+        assertEquals(ClaimStatus.COMPLETED, retry.status());
+        assertEquals(201, retry.response().status());
+        assertEquals("/api/orders/1", retry.response().headers().get("Location"));
+        assertEquals("{\"id\":1}", retry.response().body());
+    }
+
+    @Test
+    public void keysAreScopedByUser() {
+        idempotencyService.claim("user", "key", "fingerprint");
+        idempotencyService.complete("user", "key", CREATED);
+
+        assertEquals(ClaimStatus.CLAIMED, idempotencyService.claim("other", "key", "fingerprint").status());
+    }
+
+    @Test
+    public void keyReusedForAnotherRequestIsRejected() {
+        idempotencyService.claim("user", "key", "fingerprint");
+        assertEquals(ClaimStatus.REUSED, idempotencyService.claim("user", "key", "other").status());
+
+        idempotencyService.complete("user", "key", CREATED);
+        assertEquals(ClaimStatus.REUSED, idempotencyService.claim("user", "key", "other").status());
+        assertEquals(ClaimStatus.REUSED, service(0).claim("user", "key", "other").status());
+    }
+
+    @Test
+    public void requestInProgressIsAConflict() {
+        idempotencyService.claim("user", "key", "fingerprint");
+
+        assertEquals(ClaimStatus.IN_PROGRESS, idempotencyService.claim("user", "key", "fingerprint").status());
+        // in another instance, from the database
+        assertEquals(ClaimStatus.IN_PROGRESS, service(0).claim("user", "key", "fingerprint").status());
+    }
+
+    @Test
+    public void duplicateInProgressWaitsForTheResponse() throws Exception {
+        IdempotencyService waitingService = service(10);
+        waitingService.claim("user", "key", "fingerprint");
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Claim> duplicate = executor.submit(() -> waitingService.claim("user", "key", "fingerprint"));
+            Thread.sleep(100);
+            waitingService.complete("user", "key", CREATED);
+
+            Claim claim = duplicate.get(10, TimeUnit.SECONDS);
+            assertEquals(ClaimStatus.COMPLETED, claim.status());
+            assertEquals(CREATED, claim.response());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void abandonedKeyCanBeClaimedAgain() {
+        idempotencyService.claim("user", "key", "fingerprint");
+        idempotencyService.abandon("user", "key");
+
+        assertEquals(ClaimStatus.CLAIMED, idempotencyService.claim("user", "key", "fingerprint").status());
+    }
+
+    /**
+     * The SQL of {@link IdempotencyKeyRepository}, on a map.
+     */
+    private static final class InMemoryIdempotencyKeyRepository extends IdempotencyKeyRepository {
+
+        private final Map<String, IdempotencyKey> keys = new ConcurrentHashMap<>();
+
+        InMemoryIdempotencyKeyRepository() {
+            super(null);
+        }
+
+        @Override
+        public boolean insert(String login, String key, String fingerprint, Instant now) {
+            return keys.putIfAbsent(login + '\n' + key, new IdempotencyKey(login, key, fingerprint, now, null, null, null)) == null;
+        }
+
+        @Override
+        public Optional<IdempotencyKey> find(String login, String key) {
+            return Optional.ofNullable(keys.get(login + '\n' + key));
+        }
+
+        @Override
+        public boolean reclaim(String login, String key, String fingerprint, Instant now, Instant abandonedBefore, Instant expiredBefore) {
+            IdempotencyKey existing = keys.get(login + '\n' + key);
+            if (
+                existing == null ||
+                !((!existing.isCompleted() && existing.createdAt().isBefore(abandonedBefore)) || existing.createdAt().isBefore(expiredBefore))
+            ) {
+                return false;
+            }
+            return keys.replace(login + '\n' + key, existing, new IdempotencyKey(login, key, fingerprint, now, null, null, null));
+        }
+
+        @Override
+        public void complete(String login, String key, int status, String headers, String body) {
+            keys.computeIfPresent(login + '\n' + key, (id, existing) ->
+                new IdempotencyKey(login, key, existing.fingerprint(), existing.createdAt(), status, headers, body)
+            );
+        }
+
+        @Override
+        public void deleteInProgress(String login, String key) {
+            keys.computeIfPresent(login + '\n' + key, (id, existing) -> existing.isCompleted() ? existing : null);
+        }
+
+        @Override
+        public int deleteCreatedBefore(Instant instant) {
+            int before = keys.size();
+            keys.values().removeIf(existing -> existing.createdAt().isBefore(instant));
+            return before - keys.size();
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package myapp.service;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import jakarta.validation.ConstraintViolation;
@@ -15,6 +17,7 @@ import java.time.ZoneId;
 import java.util.Set;
 import myapp.domain.Product;
 import myapp.domain.enumeration.ProductStatus;
+import myapp.repository.OrderLineRepository;
 import myapp.repository.ProductRepository;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeAll;
@@ -24,6 +27,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 @ExtendWith(MockitoExtension.class)
 public class ProductServiceTest {
@@ -39,6 +43,12 @@ public class ProductServiceTest {
     @Mock
     private ProductRepository productRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private OrderLineRepository orderLineRepository;
+
     @InjectMocks
     private ProductService productService; // Injects the mock into the service
 
@@ -1374,4 +1384,21 @@ public class ProductServiceTest {
         System.err.println(violations_invalid3);
         assertEquals("dateModified", violations_invalid3.iterator().next().getPropertyPath().toString());
     }
+
+    @Test
+    public void testDeleteOrderedProduct() {
+        when(orderLineRepository.existsByProductId(1L)).thenReturn(true);
+
+        assertThrows(ProductOrderedException.class, () -> productService.delete(1L));
+        verify(productRepository, never()).deleteById(1L);
+    }
+
+    @Test
+    public void testDeleteProduct() {
+        when(orderLineRepository.existsByProductId(1L)).thenReturn(false);
+
+        productService.delete(1L);
+
+        verify(productRepository).deleteById(1L);
+    }
 }
@@ -0,0 +1,308 @@
+package myapp.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import myapp.config.ApplicationProperties;
+import myapp.domain.Product;
+import myapp.repository.StockRepository;
+import myapp.repository.StockReservation;
+import myapp.service.search.ProductChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@ExtendWith(MockitoExtension.class)
+public class StockReservationServiceTest {
+
+    private static final Long PRODUCT_ID = 1L;
+
+    private static final Long UNTRACKED_PRODUCT_ID = 2L;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+
+    @Mock
+    private Cache secondLevelCache;
+
+    private InMemoryStockRepository stockRepository;
+
+    private StockReservationService stockReservationService;
+
+    @BeforeEach
+    public void setUp() {
+        when(entityManagerFactory.getCache()).thenReturn(secondLevelCache);
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getStock().setLockStripes(4);
+        applicationProperties.getStock().setSoldOutSeconds(60);
+        stockRepository = new InMemoryStockRepository();
+        stockRepository.stocks.put(PRODUCT_ID, 50);
+        stockRepository.stocks.put(UNTRACKED_PRODUCT_ID, null);
+        stockReservationService = new StockReservationService(
+            stockRepository,
+            transactionManager,
+            entityManagerFactory,
+            applicationProperties
+        );
+    }
+
+    @Test
+    public void concurrentReservationsNeverOversell() throws Exception {
+        int threads = 16;
+        int reservationsPerThread = 10;
+        AtomicInteger reserved = new AtomicInteger();
+        AtomicInteger denied = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(
+                    executor.submit(() -> {
+                        start.await();
+                        for (int j = 0; j < reservationsPerThread; j++) {
+                            try {
+                                stockReservationService.reserve(PRODUCT_ID, 1);
+                                reserved.incrementAndGet();
+                            } catch (InsufficientStockException e) {
+                                denied.incrementAndGet();
+                            }
+                        }
+                        return null;
+                    })
+                );
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(50, reserved.get());
+        assertEquals(threads * reservationsPerThread - 50, denied.get());
+        assertEquals(0, stockRepository.stocks.get(PRODUCT_ID));
+        assertEquals(50, stockRepository.reservations.size());
+        verify(secondLevelCache, atLeastOnce()).evict(Product.class, PRODUCT_ID);
+    }
+
+    @Test
+    public void concurrentCartReservationsNeverOversell() throws Exception {
+        stockRepository.stocks.put(3L, 20);
+        int threads = 8;
+        AtomicInteger reserved = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < threads * 5; i++) {
+                futures.add(
+                    executor.submit(() -> {
+                        try {
+                            stockReservationService.reserve(Map.of(PRODUCT_ID, 2, 3L, 1));
+                            reserved.incrementAndGet();
+                        } catch (InsufficientStockException e) {
+                            // expected once either product runs out
+                        }
+                    })
+                );
+            }
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(20, reserved.get());
+        assertEquals(10, stockRepository.stocks.get(PRODUCT_ID));
+        assertEquals(0, stockRepository.stocks.get(3L));
+    }
+
+    @Test
+    public void releaseRestoresStock() {
+        StockReservation reservation = stockReservationService.reserve(PRODUCT_ID, 5);
+        assertEquals(45, stockRepository.stocks.get(PRODUCT_ID));
+
+        assertTrue(stockReservationService.release(reservation.id()));
+
+        assertEquals(50, stockRepository.stocks.get(PRODUCT_ID));
+        assertFalse(stockReservationService.release(reservation.id()));
+        assertEquals(50, stockRepository.stocks.get(PRODUCT_ID));
+    }
+
+    @Test
+    public void confirmKeepsStockTaken() {
+        StockReservation reservation = stockReservationService.reserve(PRODUCT_ID, 5);
+
+        stockReservationService.confirm(reservation.id());
+
+        assertEquals(45, stockRepository.stocks.get(PRODUCT_ID));
+        assertFalse(stockReservationService.release(reservation.id()));
+        assertThrows(StockReservationExpiredException.class, () -> stockReservationService.confirm(reservation.id()));
+    }
+
+    @Test
+    public void untrackedStockIsAlwaysReserved() {
+        StockReservation reservation = stockReservationService.reserve(UNTRACKED_PRODUCT_ID, 1000);
+
+        assertNotNull(reservation);
+        assertNull(stockRepository.stocks.get(UNTRACKED_PRODUCT_ID));
+        assertTrue(stockReservationService.release(reservation.id()));
+        assertNull(stockRepository.stocks.get(UNTRACKED_PRODUCT_ID));
+    }
+
+    @Test
+    public void soldOutProductIsRejectedWithoutQueryUntilRestocked() {
+        stockReservationService.reserve(PRODUCT_ID, 50);
+        assertThrows(InsufficientStockException.class, () -> stockReservationService.reserve(PRODUCT_ID, 1));
+        int decrements = stockRepository.decrements.get();
+
+        // remembered as sold out: rejected without touching the stock
+        assertThrows(InsufficientStockException.class, () -> stockReservationService.reserve(PRODUCT_ID, 1));
+        assertThrows(InsufficientStockException.class, () -> stockReservationService.reserve(Map.of(PRODUCT_ID, 1)));
+        assertEquals(decrements, stockRepository.decrements.get());
+
+        assertTrue(stockReservationService.restock(PRODUCT_ID, 3));
+
+        assertNotNull(stockReservationService.reserve(PRODUCT_ID, 1));
+        assertEquals(2, stockRepository.stocks.get(PRODUCT_ID));
+        verify(secondLevelCache, atLeastOnce()).evict(eq(Product.class), any());
+    }
+
+    @Test
+    public void soldOutProductIsClearedOnProductChange() {
+        stockReservationService.reserve(PRODUCT_ID, 50);
+        assertThrows(InsufficientStockException.class, () -> stockReservationService.reserve(PRODUCT_ID, 1));
+        stockRepository.stocks.put(PRODUCT_ID, 10);
+
+        stockReservationService.onProductChanged(new ProductChangedEvent(PRODUCT_ID, null));
+
+        assertNotNull(stockReservationService.reserve(PRODUCT_ID, 1));
+        assertEquals(9, stockRepository.stocks.get(PRODUCT_ID));
+    }
+
+    @Test
+    public void restockSkipsUntrackedAndMissingProducts() {
+        assertFalse(stockReservationService.restock(UNTRACKED_PRODUCT_ID, 5));
+        assertFalse(stockReservationService.restock(99L, 5));
+        assertThrows(IllegalArgumentException.class, () -> stockReservationService.restock(PRODUCT_ID, 0));
+    }
+
+    /**
+     * The SQL of {@link StockRepository}, on maps: each method is atomic, as its statement is.
+     */
+    private static final class InMemoryStockRepository extends StockRepository {
+
+        private final Map<Long, Integer> stocks = new HashMap<>();
+
+        private final Map<UUID, StockReservation> reservations = new HashMap<>();
+
+        private final AtomicInteger decrements = new AtomicInteger();
+
+        InMemoryStockRepository() {
+            super(null);
+        }
+
+        @Override
+        public synchronized boolean decrementStock(Long productId, int quantity) {
+            decrements.incrementAndGet();
+            if (!stocks.containsKey(productId)) {
+                return false;
+            }
+            Integer stock = stocks.get(productId);
+            if (stock == null) {
+                return true;
+            }
+            if (stock < quantity) {
+                return false;
+            }
+            stocks.put(productId, stock - quantity);
+            return true;
+        }
+
+        @Override
+        public synchronized List<Long> decrementStocks(Map<Long, Integer> quantities) {
+            // the caller rolls back on any failure, so only take the stock if all of it is there
+            List<Long> insufficient = quantities
+                .entrySet()
+                .stream()
+                .filter(entry -> {
+                    Integer stock = stocks.get(entry.getKey());
+                    return !stocks.containsKey(entry.getKey()) || (stock != null && stock < entry.getValue());
+                })
+                .map(Map.Entry::getKey)
+                .toList();
+            if (insufficient.isEmpty()) {
+                quantities.forEach(this::decrementStock);
+            } else {
+                decrements.incrementAndGet();
+            }
+            return insufficient;
+        }
+
+        @Override
+        public synchronized boolean incrementStock(Long productId, int quantity) {
+            Integer stock = stocks.get(productId);
+            if (stock == null) {
+                return false;
+            }
+            stocks.put(productId, stock + quantity);
+            return true;
+        }
+
+        @Override
+        public synchronized void insertReservations(List<StockReservation> inserted) {
+            inserted.forEach(reservation -> reservations.put(reservation.id(), reservation));
+        }
+
+        @Override
+        public synchronized int findStock(Long productId) {
+            if (!stocks.containsKey(productId)) {
+                return 0;
+            }
+            Integer stock = stocks.get(productId);
+            return stock == null ? Integer.MAX_VALUE : stock;
+        }
+
+        @Override
+        public synchronized Optional<StockReservation> findReservation(UUID id) {
+            return Optional.ofNullable(reservations.get(id));
+        }
+
+        @Override
+        public synchronized List<StockReservation> findExpiredReservations(Instant now, int limit) {
+            return reservations.values().stream().filter(reservation -> reservation.expiresAt().isBefore(now)).limit(limit).toList();
+        }
+
+        @Override
+        public synchronized boolean deleteReservation(UUID id) {
+            return reservations.remove(id) != null;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package myapp.service.search;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import myapp.domain.enumeration.ProductStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class ProductSearchIndexTest {
+
+    private ProductSearchIndex index;
+
+    private static ProductDocument document(Long id, String title, String keywords, String description) {
+        return new ProductDocument(id, title, keywords, description, 5, BigDecimal.TEN, ProductStatus.IN_STOCK, Instant.now());
+    }
+
+    @BeforeEach
+    public void setUp() {
+        index = new ProductSearchIndex();
+        index.index(document(1L, "Red running shoes", "shoes,running", "Lightweight shoes for road running"));
+        index.index(document(2L, "Blue shirt", "shirt,cotton", "A cotton shirt that goes with running shoes"));
+        index.index(document(3L, "Café table", "furniture", null));
+    }
+
+    @Test
+    public void testRanksTitleMatchesFirst() {
+        SearchHits hits = index.search("running shoes", 0, 10);
+
+        assertEquals(2, hits.total());
+        assertEquals(List.of(1L, 2L), hits.productIds());
+    }
+
+    @Test
+    public void testRequiresEveryTerm() {
+        assertEquals(0, index.search("running table", 0, 10).total());
+        assertEquals(0, index.search("", 0, 10).total());
+    }
+
+    @Test
+    public void testFoldsCaseAndAccents() {
+        assertEquals(List.of(3L), index.search("CAFE", 0, 10).productIds());
+    }
+
+    @Test
+    public void testPagesThroughHits() {
+        SearchHits hits = index.search("shoes", 1, 10);
+
+        assertEquals(2, hits.total());
+        assertEquals(List.of(2L), hits.productIds());
+    }
+
+    @Test
+    public void testUpdatesAndRemovals() {
+        index.index(document(1L, "Green hat", null, null));
+        assertEquals(List.of(2L), index.search("shoes", 0, 10).productIds());
+        assertEquals(List.of(1L), index.search("hat", 0, 10).productIds());
+
+        index.remove(2L);
+        assertEquals(0, index.search("shoes", 0, 10).total());
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    public void testRebuildReplacesContent() {
+        ProductIndex.Rebuild rebuild = index.startRebuild();
+        rebuild.add(document(4L, "Wool socks", null, null));
+        assertEquals(3, index.size());
+
+        rebuild.commit();
+        assertEquals(1, index.size());
+        assertEquals(List.of(4L), index.search("socks", 0, 10).productIds());
+    }
+}
@@ -0,0 +1,68 @@
+package myapp.service.search;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import myapp.config.ApplicationProperties;
+import myapp.domain.enumeration.ProductStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class ProductSuggesterTest {
+
+    private ApplicationProperties applicationProperties;
+
+    private ProductSuggester suggester;
+
+    private static ProductDocument document(Long id, String title, String keywords, Integer rating) {
+        return new ProductDocument(id, title, keywords, null, rating, BigDecimal.TEN, ProductStatus.IN_STOCK, Instant.now());
+    }
+
+    private List<String> texts(String prefix) {
+        return suggester.suggest(prefix, 10).stream().map(ProductSuggester.Suggestion::text).toList();
+    }
+
+    @BeforeEach
+    public void setUp() {
+        applicationProperties = new ApplicationProperties();
+        suggester = new ProductSuggester(applicationProperties);
+        suggester.index(document(1L, "Running shoes", "run, shoes", 2));
+        suggester.index(document(2L, "Runner jacket", "run,jacket", 9));
+        suggester.index(document(3L, "Rugby ball", "ball", 5));
+    }
+
+    @Test
+    public void testRanksCompletionsByWeight() {
+        assertEquals(List.of("run", "Runner jacket", "Running shoes"), texts("run"));
+        assertEquals(List.of("run", "Runner jacket", "Rugby ball", "Running shoes"), texts("RU"));
+        assertEquals(List.of(), texts("x"));
+    }
+
+    @Test
+    public void testPatchesOnWrites() {
+        suggester.index(document(2L, "Rain jacket", "jacket", 9));
+        assertEquals(List.of("run", "Running shoes"), texts("run"));
+
+        suggester.remove(1L);
+        assertEquals(List.of(), texts("run"));
+        assertEquals(List.of("Rugby ball"), texts("ru"));
+    }
+
+    @Test
+    public void testRebuildKeepsHeaviestEntries() {
+        applicationProperties.getSearch().getSuggest().setMaxEntries(2);
+        ProductIndex.Rebuild rebuild = suggester.startRebuild();
+        rebuild.add(document(1L, "Running shoes", null, 1));
+        rebuild.add(document(2L, "Runner jacket", null, 9));
+        rebuild.add(document(3L, "Rugby ball", null, 5));
+        rebuild.commit();
+
+        assertEquals(2, suggester.size());
+        assertEquals(List.of("Runner jacket", "Rugby ball"), texts("r"));
+
+        suggester.index(document(4L, "Rubber duck", null, 10));
+        assertEquals(List.of("Runner jacket", "Rugby ball"), texts("r"));
+    }
+}
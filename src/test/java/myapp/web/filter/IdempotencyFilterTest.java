@@ -0,0 +1,230 @@
+package myapp.web.filter;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isA;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import myapp.service.IdempotencyService;
+import myapp.service.IdempotencyService.Claim;
+import myapp.service.IdempotencyService.ClaimStatus;
+import myapp.service.IdempotencyService.StoredResponse;
+import myapp.web.rest.errors.IdempotencyKeyReusedException;
+import myapp.web.rest.errors.IdempotentRequestInProgressException;
+import myapp.web.rest.errors.InvalidIdempotencyKeyException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+@ExtendWith(MockitoExtension.class)
+public class IdempotencyFilterTest {
+
+    private static final String BODY = "{\"totalAmount\":10}";
+
+    @Mock
+    private IdempotencyService idempotencyService;
+
+    @Mock
+    private HandlerExceptionResolver handlerExceptionResolver;
+
+    private IdempotencyFilter idempotencyFilter;
+
+    private MockHttpServletRequest request;
+
+    private MockHttpServletResponse response;
+
+    @BeforeEach
+    public void setUp() {
+        idempotencyFilter = new IdempotencyFilter(idempotencyService, Set.of("/api/orders"), handlerExceptionResolver);
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken("user", null, List.of()));
+        request = new MockHttpServletRequest("POST", "/api/orders");
+        request.addHeader(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, "key-1");
+        request.setContent(BODY.getBytes(StandardCharsets.UTF_8));
+        response = new MockHttpServletResponse();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    public void claimedRequestIsExecutedAndStored() throws Exception {
+        when(idempotencyService.claim(eq("user"), eq("key-1"), anyString())).thenReturn(new Claim(ClaimStatus.CLAIMED, null));
+        AtomicReference<String> executedBody = new AtomicReference<>();
+
+        idempotencyFilter.doFilter(request, response, created(executedBody));
+
+        assertEquals(BODY, executedBody.get());
+        assertEquals(201, response.getStatus());
+        assertEquals("{\"id\":1}", response.getContentAsString());
+        ArgumentCaptor<StoredResponse> stored = ArgumentCaptor.forClass(StoredResponse.class);
+        verify(idempotencyService).complete(eq("user"), eq("key-1"), stored.capture());
+        assertEquals(201, stored.getValue().status());
+        assertEquals("{\"id\":1}", stored.getValue().body());
+        assertEquals("/api/orders/1", stored.getValue().headers().get(HttpHeaders.LOCATION));
+        verify(idempotencyService, never()).abandon(any(), any());
+    }
+
+    @Test
+    public void failedRequestReleasesItsKey() throws Exception {
+        when(idempotencyService.claim(eq("user"), eq("key-1"), anyString())).thenReturn(new Claim(ClaimStatus.CLAIMED, null));
+
+        idempotencyFilter.doFilter(request, response, (req, res) -> ((HttpServletResponse) res).setStatus(400));
+
+        verify(idempotencyService).abandon("user", "key-1");
+        verify(idempotencyService, never()).complete(any(), any(), any());
+    }
+
+    @Test
+    public void completedRequestIsReplayed() throws Exception {
+        StoredResponse stored = new StoredResponse("fingerprint", 201, Map.of(HttpHeaders.LOCATION, "/api/orders/1"), "{\"id\":1}");
+        when(idempotencyService.claim(eq("user"), eq("key-1"), anyString())).thenReturn(new Claim(ClaimStatus.COMPLETED, stored));
+        AtomicReference<String> executedBody = new AtomicReference<>();
+
+        idempotencyFilter.doFilter(request, response, created(executedBody));
+
+        assertNull(executedBody.get());
+        assertEquals(201, response.getStatus());
+        assertEquals("true", response.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        assertEquals("/api/orders/1", response.getHeader(HttpHeaders.LOCATION));
+        assertEquals("{\"id\":1}", response.getContentAsString());
+    }
+
+    @Test
+    public void sameRequestsHaveSameFingerprint() throws Exception {
+        List<String> fingerprints = new ArrayList<>();
+        when(idempotencyService.claim(eq("user"), eq("key-1"), anyString())).thenAnswer(invocation -> {
+            fingerprints.add(invocation.getArgument(2));
+            return new Claim(ClaimStatus.IN_PROGRESS, null);
+        });
+
+        idempotencyFilter.doFilter(request, response, created(new AtomicReference<>()));
+        MockHttpServletRequest retry = new MockHttpServletRequest("POST", "/api/orders");
+        retry.addHeader(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, "key-1");
+        retry.setContent(BODY.getBytes(StandardCharsets.UTF_8));
+        idempotencyFilter.doFilter(retry, new MockHttpServletResponse(), created(new AtomicReference<>()));
+        MockHttpServletRequest other = new MockHttpServletRequest("POST", "/api/orders");
+        other.addHeader(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, "key-1");
+        other.setContent("{\"totalAmount\":20}".getBytes(StandardCharsets.UTF_8));
+        idempotencyFilter.doFilter(other, new MockHttpServletResponse(), created(new AtomicReference<>()));
+
+        assertEquals(fingerprints.get(0), fingerprints.get(1));
+        assertNotEquals(fingerprints.get(0), fingerprints.get(2));
+    }
+
+    @Test
+    public void requestInProgressIsAConflict() throws Exception {
+        when(idempotencyService.claim(eq("user"), eq("key-1"), anyString())).thenReturn(new Claim(ClaimStatus.IN_PROGRESS, null));
+        AtomicReference<String> executedBody = new AtomicReference<>();
+
+        idempotencyFilter.doFilter(request, response, created(executedBody));
+
+        assertNull(executedBody.get());
+        verify(handlerExceptionResolver).resolveException(eq(request), eq(response), isNull(), isA(IdempotentRequestInProgressException.class));
+    }
+
+    @Test
+    public void reusedKeyIsRejected() throws Exception {
+        when(idempotencyService.claim(eq("user"), eq("key-1"), anyString())).thenReturn(new Claim(ClaimStatus.REUSED, null));
+        AtomicReference<String> executedBody = new AtomicReference<>();
+
+        idempotencyFilter.doFilter(request, response, created(executedBody));
+
+        assertNull(executedBody.get());
+        verify(handlerExceptionResolver).resolveException(eq(request), eq(response), isNull(), isA(IdempotencyKeyReusedException.class));
+    }
+
+    @Test
+    public void blankKeyIsRejected() throws Exception {
+        request = new MockHttpServletRequest("POST", "/api/orders");
+        request.addHeader(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, " ");
+
+        idempotencyFilter.doFilter(request, response, created(new AtomicReference<>()));
+
+        verify(handlerExceptionResolver).resolveException(eq(request), eq(response), isNull(), isA(InvalidIdempotencyKeyException.class));
+        verifyNoInteractions(idempotencyService);
+    }
+
+    @Test
+    public void requestWithoutKeyIsNotHandled() throws Exception {
+        request = new MockHttpServletRequest("POST", "/api/orders");
+        AtomicReference<String> executedBody = new AtomicReference<>();
+
+        idempotencyFilter.doFilter(request, response, created(executedBody));
+
+        assertNotNull(executedBody.get());
+        verifyNoInteractions(idempotencyService);
+    }
+
+    @Test
+    public void cachedBodyNotifiesReadListener() throws Exception {
+        when(idempotencyService.claim(eq("user"), eq("key-1"), anyString())).thenReturn(new Claim(ClaimStatus.CLAIMED, null));
+        List<String> events = new ArrayList<>();
+
+        idempotencyFilter.doFilter(request, response, (req, res) -> {
+            ServletInputStream in = req.getInputStream();
+            in.setReadListener(
+                new ReadListener() {
+                    @Override
+                    public void onDataAvailable() throws IOException {
+                        events.add("available:" + new String(in.readAllBytes(), StandardCharsets.UTF_8));
+                    }
+
+                    @Override
+                    public void onAllDataRead() {
+                        events.add("all read");
+                    }
+
+                    @Override
+                    public void onError(Throwable t) {
+                        events.add("error");
+                    }
+                }
+            );
+        });
+
+        assertEquals(List.of("available:" + BODY, "all read"), events);
+    }
+
+    /**
+     * A chain creating order 1, and recording the body of the request it executed.
+     */
+    private static FilterChain created(AtomicReference<String> executedBody) {
+        return (req, res) -> {
+            executedBody.set(new String(req.getInputStream().readAllBytes(), StandardCharsets.UTF_8));
+            HttpServletResponse httpResponse = (HttpServletResponse) res;
+            httpResponse.setStatus(201);
+            httpResponse.setHeader(HttpHeaders.LOCATION, "/api/orders/1");
+            httpResponse.setContentType("application/json");
+            httpResponse.getOutputStream().write("{\"id\":1}".getBytes(StandardCharsets.UTF_8));
+        };
+    }
+}
@@ -0,0 +1,81 @@
+package myapp.web.rest.errors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+@ExtendWith(MockitoExtension.class)
+public class ExceptionTranslatorTest {
+
+    @Mock
+    private Environment env;
+
+    private ExceptionTranslator exceptionTranslator;
+
+    private ServletWebRequest request;
+
+    @BeforeEach
+    public void setUp() {
+        exceptionTranslator = new ExceptionTranslator(env);
+        request = new ServletWebRequest(new MockHttpServletRequest("POST", "/api/authenticate"), new MockHttpServletResponse());
+    }
+
+    @Test
+    public void tooManyLoginAttemptsCarriesRetryAfter() {
+        when(env.getActiveProfiles()).thenReturn(new String[0]);
+
+        ResponseEntity<Object> response = exceptionTranslator.handleAnyException(new TooManyLoginAttemptsException(42), request);
+
+        assertNotNull(response);
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, response.getStatusCode());
+        assertEquals("42", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+    }
+
+    @Test
+    public void idempotencyKeyReusedIsAProblem() {
+        when(env.getActiveProfiles()).thenReturn(new String[0]);
+
+        ResponseEntity<Object> response = exceptionTranslator.handleAnyException(new IdempotencyKeyReusedException(), request);
+
+        assertNotNull(response);
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, response.getStatusCode());
+        ProblemDetail problem = (ProblemDetail) response.getBody();
+        assertEquals(ErrorConstants.IDEMPOTENCY_KEY_REUSED_TYPE, problem.getType());
+        assertEquals("error.idempotencykeyreused", problem.getProperties().get("message"));
+    }
+
+    @Test
+    public void idempotentRequestInProgressCarriesRetryAfter() {
+        when(env.getActiveProfiles()).thenReturn(new String[0]);
+
+        ResponseEntity<Object> response = exceptionTranslator.handleAnyException(new IdempotentRequestInProgressException(), request);
+
+        assertNotNull(response);
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+        assertEquals("1", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+    }
+
+    @Test
+    public void exceptionWithoutHeadersSendsNone() {
+        when(env.getActiveProfiles()).thenReturn(new String[0]);
+
+        ResponseEntity<Object> response = exceptionTranslator.handleAnyException(new IllegalStateException("boom"), request);
+
+        assertNotNull(response);
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
+        assertNull(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+    }
+}
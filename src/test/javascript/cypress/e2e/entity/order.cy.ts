@@ -15,7 +15,7 @@ describe('Order e2e test', () => {
   const orderPageUrlPattern = new RegExp('/order(\\?.*)?$');
   const username = Cypress.env('E2E_USERNAME') ?? 'user';
   const password = Cypress.env('E2E_PASSWORD') ?? 'user';
-  const orderSample = { orderDate: '2024-09-09T21:56:56.334Z', status: 'epitomise', totalAmount: 7360.62 };
+  const orderSample = { orderDate: '2024-09-09T21:56:56.334Z', status: 'PENDING', totalAmount: 7360.62 };
 
   let order;
 
@@ -168,8 +168,8 @@ describe('Order e2e test', () => {
       cy.get(`[data-cy="shippedDate"]`).blur();
       cy.get(`[data-cy="shippedDate"]`).should('have.value', '2024-09-10T02:53');
 
-      cy.get(`[data-cy="status"]`).type('doll value');
-      cy.get(`[data-cy="status"]`).should('have.value', 'doll value');
+      cy.get(`[data-cy="status"]`).select('PENDING');
+      cy.get(`[data-cy="status"]`).should('have.value', 'PENDING');
 
       cy.get(`[data-cy="totalAmount"]`).type('21847.11');
       cy.get(`[data-cy="totalAmount"]`).should('have.value', '21847.11');